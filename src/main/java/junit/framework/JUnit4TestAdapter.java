@@ -70,7 +70,7 @@ public class JUnit4TestAdapter implements Test, Filterable, Orderable, Describab
             return Description.EMPTY;
         }
         Description result = description.childlessCopy();
-        for (Description each : description.getChildren()) {
+        for (Description each : description.getChildrenView()) {
             Description child = removeIgnored(each);
             if (!child.isEmpty()) {
                 result.addChild(child);
@@ -34,7 +34,7 @@ public class JUnit4TestAdapterCache extends HashMap<Description, Test> {
             return new JUnit4TestCaseFacade(description);
         } else {
             TestSuite suite = new TestSuite(description.getDisplayName());
-            for (Description child : description.getChildren()) {
+            for (Description child : description.getChildrenView()) {
                 suite.addTest(asTest(child));
             }
             return suite;
@@ -67,7 +67,7 @@ public class JUnit4TestAdapterCache extends HashMap<Description, Test> {
             return Arrays.asList(asTest(description));
         } else {
             List<Test> returnThis = new ArrayList<Test>();
-            for (Description child : description.getChildren()) {
+            for (Description child : description.getChildrenView()) {
                 returnThis.add(asTest(child));
             }
             return returnThis;
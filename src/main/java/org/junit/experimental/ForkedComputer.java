@@ -0,0 +1,79 @@
+package org.junit.experimental;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.internal.runners.forking.ForkedClassRunner;
+import org.junit.internal.runners.forking.WorkerJvms;
+import org.junit.internal.runners.scheduling.WorkerPool;
+import org.junit.runner.Computer;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * A {@link Computer} that runs each test class in one of a pool of worker
+ * JVMs on the local machine, so that tests that change static state, or that
+ * crash their JVM, cannot affect each other. Classes are handed out to the
+ * workers as they become idle; the events of all workers are reported to the
+ * {@link RunNotifier} of this JVM, so a single {@link org.junit.runner.Result}
+ * comes out of the run.
+ *
+ * <p>The workers use the class path of this JVM. If a worker dies, the test it
+ * was running is reported as failed and a new worker takes over the remaining
+ * tests of its class and the remaining classes. If a worker dies before it
+ * runs any test of a class, for example in a {@code @BeforeClass} method, the
+ * tests of the class are reported as failed.
+ *
+ * <pre>
+ * JUnitCore.runClasses(new ForkedComputer(4, "-Xmx512m"), classes);
+ * </pre>
+ *
+ * @since 4.14
+ */
+public class ForkedComputer extends Computer {
+    private final int forks;
+    private final List<String> jvmArgs;
+
+    /**
+     * Creates a computer that uses up to {@code forks} worker JVMs, started
+     * with the given JVM arguments.
+     */
+    public ForkedComputer(int forks, String... jvmArgs) {
+        if (forks < 1) {
+            throw new IllegalArgumentException("forks must be positive");
+        }
+        this.forks = forks;
+        this.jvmArgs = Arrays.asList(jvmArgs);
+    }
+
+    @Override
+    public Runner getSuite(final RunnerBuilder builder, Class<?>[] classes)
+            throws InitializationError {
+        final WorkerJvms workers = new WorkerJvms(forks, jvmArgs);
+        Suite suite = new Suite(new RunnerBuilder() {
+            @Override
+            public Runner runnerForClass(Class<?> testClass) throws Throwable {
+                return new ForkedClassRunner(testClass, getRunner(builder, testClass), workers);
+            }
+        }, classes) {
+            @Override
+            protected String getName() {
+                return "classes";
+            }
+
+            @Override
+            public void run(RunNotifier notifier) {
+                try {
+                    super.run(notifier);
+                } finally {
+                    workers.close();
+                }
+            }
+        };
+        suite.setScheduler(new WorkerPool(forks).newScheduler());
+        return suite;
+    }
+}
@@ -0,0 +1,21 @@
+package org.junit.experimental;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that the tests of a class must not run at the same time as each
+ * other. {@link ParallelComputer} runs them one after the other, while other
+ * classes may still run in parallel with them.
+ *
+ * @see ResourceLock
+ * @since 4.14
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Inherited
+public @interface NotThreadSafe {
+}
@@ -1,24 +1,67 @@
 package org.junit.experimental;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.Comparator;
 
+import org.junit.experimental.max.MaxHistory;
+import org.junit.internal.VirtualThreads;
+import org.junit.internal.runners.scheduling.WorkerPool;
 import org.junit.runner.Computer;
+import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runners.ParentRunner;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerBuilder;
-import org.junit.runners.model.RunnerScheduler;
 
 public class ParallelComputer extends Computer {
     private final boolean classes;
 
     private final boolean methods;
 
+    private final WorkerPool pool;
+
+    private final Comparator<Description> dispatchOrder;
+
     public ParallelComputer(boolean classes, boolean methods) {
+        this(classes, methods, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a computer that runs classes and/or methods in parallel on a
+     * single pool of at most {@code parallelism} worker threads. The pool is
+     * shared by all the runners built by this computer, so nested class and
+     * method parallelism never uses more than {@code parallelism} workers.
+     *
+     * @param parallelism the maximum number of worker threads
+     * @since 4.14
+     */
+    public ParallelComputer(boolean classes, boolean methods, int parallelism) {
+        this(classes, methods, parallelism, null);
+    }
+
+    /**
+     * Creates a computer that runs classes and/or methods in parallel on a
+     * single pool of at most {@code parallelism} worker threads, dispatching
+     * the children of each runner longest first according to the durations
+     * recorded in {@code history}. Starting the longest work first keeps a
+     * long test that happens to start last from holding up the whole run.
+     *
+     * @param parallelism the maximum number of worker threads
+     * @param history the recorded test durations, or {@code null} to dispatch
+     * children in their natural order
+     * @see MaxHistory#longestFirstComparator()
+     * @since 4.14
+     */
+    public ParallelComputer(boolean classes, boolean methods, int parallelism,
+            MaxHistory history) {
+        this(classes, methods, new WorkerPool(parallelism), history);
+    }
+
+    private ParallelComputer(boolean classes, boolean methods, WorkerPool pool,
+            MaxHistory history) {
         this.classes = classes;
         this.methods = methods;
+        this.pool = pool;
+        this.dispatchOrder = history == null ? null : history.longestFirstComparator();
     }
 
     public static Computer classes() {
@@ -29,32 +72,56 @@ public class ParallelComputer extends Computer {
         return new ParallelComputer(false, true);
     }
 
-    private static Runner parallelize(Runner runner) {
+    /**
+     * Returns a computer that runs classes and/or methods in parallel, each
+     * child on a virtual thread of its own, with at most {@code maxConcurrency}
+     * children running at a time. This suits tests that spend most of their
+     * time blocked, for example on I/O, as a blocked virtual thread does not
+     * hold on to a platform thread.
+     *
+     * <p>Virtual threads need Java 21 or later. On older JVMs the returned
+     * computer uses a pool of platform threads, one per available processor.
+     *
+     * @param maxConcurrency the maximum number of children running at a time
+     * @since 4.14
+     */
+    public static ParallelComputer virtualThreads(boolean classes, boolean methods,
+            int maxConcurrency) {
+        WorkerPool pool = VirtualThreads.isSupported()
+                ? new WorkerPool(maxConcurrency, VirtualThreads.threadFactory("junit-virtual-worker-"))
+                : new WorkerPool();
+        return new ParallelComputer(classes, methods, pool, null);
+    }
+
+    private Runner parallelize(Runner runner) {
         if (runner instanceof ParentRunner) {
-            ((ParentRunner<?>) runner).setScheduler(new RunnerScheduler() {
-                private final ExecutorService fService = Executors.newCachedThreadPool();
-
-                public void schedule(Runnable childStatement) {
-                    fService.submit(childStatement);
-                }
-
-                public void finished() {
-                    try {
-                        fService.shutdown();
-                        fService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace(System.err);
-                    }
-                }
-            });
+            ((ParentRunner<?>) runner).setScheduler(pool.newScheduler(runner, dispatchOrder));
         }
         return runner;
     }
 
+    /**
+     * Creates a suite for {@code classes}, building the runners of the classes
+     * concurrently. {@code builder} itself is left unchanged, so suites
+     * nested in the classes are built the way it is configured.
+     *
+     * <p>Building runners concurrently initializes the test classes on
+     * different threads. Test classes whose static initializers use each
+     * other can then deadlock, each thread waiting for the class the other
+     * one is initializing. Use a {@link Computer#serial() serial} computer or
+     * break such cycles if a run hangs while building its runners.
+     */
     @Override
-    public Runner getSuite(RunnerBuilder builder, java.lang.Class<?>[] classes)
+    public Runner getSuite(final RunnerBuilder builder, java.lang.Class<?>[] classes)
             throws InitializationError {
-        Runner suite = super.getSuite(builder, classes);
+        RunnerBuilder parallelBuilder = new RunnerBuilder() {
+            @Override
+            public Runner runnerForClass(Class<?> testClass) throws Throwable {
+                return builder.runnerForClass(testClass);
+            }
+        };
+        parallelBuilder.setBuildingRunnersInParallel(true);
+        Runner suite = super.getSuite(parallelBuilder, classes);
         return this.classes ? parallelize(suite) : suite;
     }
 
@@ -0,0 +1,59 @@
+package org.junit.experimental;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a test class or test method uses shared resources, so that
+ * {@link ParallelComputer} never runs it at the same time as another test
+ * that uses one of the same resources in a conflicting mode. Tests that do not
+ * share a resource still run in parallel.
+ *
+ * <pre>
+ * &#064;ResourceLock("db")
+ * public class AccountDaoTest {
+ *     ...
+ * }
+ *
+ * public class ReportTest {
+ *     &#064;Test
+ *     &#064;ResourceLock(value = "db", mode = ResourceLock.Mode.READ)
+ *     public void readsAccounts() {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>Resources declared on a class are used by each of its tests, so the
+ * tests of a class that writes a resource run one after the other. While a
+ * class runs it holds the locks of all its tests, which then compete only
+ * with each other for them.
+ *
+ * @see NotThreadSafe
+ * @since 4.14
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Inherited
+public @interface ResourceLock {
+    /**
+     * The names of the resources used by the annotated class or method.
+     */
+    String[] value();
+
+    /**
+     * How the resources are used.
+     */
+    Mode mode() default Mode.READ_WRITE;
+
+    /**
+     * The access modes of a resource. Any number of tests may read a resource
+     * at the same time, but a test that writes it runs alone.
+     */
+    enum Mode {
+        READ, READ_WRITE
+    }
+}
@@ -0,0 +1,41 @@
+package org.junit.experimental.affected;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.runner.FilterFactory;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * {@link FilterFactory} that only runs the test classes affected by the
+ * classes that changed since they were recorded in a {@link DependencyIndex},
+ * and the test classes that were never recorded.
+ *
+ * Usage from command line:
+ * <code>
+ *     --filter=org.junit.experimental.affected.AffectedTestsFilterFactory=path/to/index
+ * </code>
+ *
+ * @since 4.14
+ */
+public final class AffectedTestsFilterFactory implements FilterFactory {
+    /**
+     * Creates a {@link Filter} given a {@link FilterFactoryParams} argument
+     * naming the file of the {@link DependencyIndex}.
+     *
+     * @param params Parameters needed to create the {@link Filter}
+     */
+    public Filter createFilter(FilterFactoryParams params) throws FilterNotCreatedException {
+        File file = new File(params.getArgs());
+        if (!file.exists()) {
+            throw new FilterNotCreatedException(
+                    new IllegalArgumentException("No dependency index at " + file));
+        }
+        try {
+            return DependencyIndex.forFile(file).affectedTestsFilter();
+        } catch (IOException e) {
+            throw new FilterNotCreatedException(e);
+        }
+    }
+}
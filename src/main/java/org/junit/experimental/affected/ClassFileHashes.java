@@ -0,0 +1,46 @@
+package org.junit.experimental.affected;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.internal.ClassFiles;
+
+/**
+ * The current content hashes of the class files seen by a class loader,
+ * computed on demand.
+ */
+class ClassFileHashes {
+    private final ClassLoader loader;
+
+    // class name -> hash, or null if there is no class file; guarded by this
+    private final Map<String, String> hashes = new HashMap<String, String>();
+
+    ClassFileHashes(ClassLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the hash of the class file of {@code className}, or {@code null}
+     * if it cannot be read.
+     */
+    synchronized String hash(String className) {
+        if (!hashes.containsKey(className)) {
+            hashes.put(className, computeHash(className));
+        }
+        return hashes.get(className);
+    }
+
+    private String computeHash(String className) {
+        URL url = loader.getResource(ClassFiles.fileName(className));
+        if (url == null) {
+            return null;
+        }
+        try {
+            return ClassFiles.hash(ClassFiles.read(url));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
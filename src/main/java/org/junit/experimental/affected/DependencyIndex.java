@@ -0,0 +1,248 @@
+package org.junit.experimental.affected;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.internal.TextFiles;
+import org.junit.runner.Computer;
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * Records which classes each test class loads, so that later runs can be
+ * restricted to the tests affected by a change.
+ *
+ * <p>A run with the {@link #recordingComputer() recording computer} loads each
+ * test class in a class loader of its own and stores every class that it
+ * loads from a directory of the class path, together with a hash of the
+ * content of its class file. Classes from jars, such as libraries and JUnit
+ * itself, are not recorded. A later run can then be filtered so that only the
+ * test classes that loaded a class whose class file has changed since, as well
+ * as the test classes that were never recorded, are run:
+ *
+ * <pre>
+ * DependencyIndex index = DependencyIndex.forFile(new File("build/junit-dependencies"));
+ * if (recording) {
+ *     JUnitCore.runClasses(index.recordingComputer(), classes);
+ * } else {
+ *     new JUnitCore().run(Request.classes(classes).filterWith(index.affectedTestsFilter()));
+ * }
+ * </pre>
+ *
+ * @see AffectedTestsFilterFactory
+ * @since 4.14
+ */
+public final class DependencyIndex {
+    private static final String TEST_PREFIX = "test ";
+
+    private final File file;
+
+    // test class name -> loaded class name -> content hash; guarded by this
+    private final Map<String, Map<String, String>> dependencies =
+            new TreeMap<String, Map<String, String>>();
+
+    /**
+     * Loads a {@link DependencyIndex} from {@code file}, or creates an empty one
+     * that will be saved to {@code file}.
+     */
+    public static DependencyIndex forFile(File file) throws IOException {
+        DependencyIndex index = new DependencyIndex(file);
+        if (file.exists()) {
+            index.read();
+        }
+        return index;
+    }
+
+    private DependencyIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns a {@link Computer} that records the classes loaded by each test
+     * class it runs, and saves this index once the run has finished.
+     */
+    public Computer recordingComputer() {
+        return new RecordingComputer(this);
+    }
+
+    /**
+     * Returns a {@link Filter} that runs the test classes that loaded a class
+     * whose class file, as seen by the context class loader, changed or
+     * disappeared since it was recorded, and the test classes not recorded in
+     * this index.
+     */
+    public Filter affectedTestsFilter() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = DependencyIndex.class.getClassLoader();
+        }
+        return affectedTestsFilter(loader);
+    }
+
+    /**
+     * Returns a {@link Filter} that runs the test classes that loaded a class
+     * whose class file, as seen by {@code loader}, changed or disappeared since
+     * it was recorded, and the test classes not recorded in this index.
+     */
+    public Filter affectedTestsFilter(ClassLoader loader) {
+        return new AffectedTestsFilter(snapshot(), new ClassFileHashes(loader));
+    }
+
+    /**
+     * Returns a {@link Filter} that runs the test classes that loaded one of
+     * {@code changedClasses}, and the test classes not recorded in this index.
+     *
+     * @param changedClasses the binary names of the changed classes
+     */
+    public Filter affectedTestsFilter(Collection<String> changedClasses) {
+        return new AffectedTestsFilter(snapshot(), new HashSet<String>(changedClasses));
+    }
+
+    /**
+     * Returns the names of the classes loaded by {@code testClass} when it
+     * was last recorded, or an empty set if it was never recorded.
+     */
+    public synchronized Set<String> getDependencies(String testClass) {
+        Map<String, String> classes = dependencies.get(testClass);
+        if (classes == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(new HashSet<String>(classes.keySet()));
+    }
+
+    /**
+     * Returns the classes loaded by {@code testClass} with the hashes of their
+     * class files when it was last recorded, or {@code null} if it was never
+     * recorded.
+     */
+    synchronized Map<String, String> getRecordedClasses(String testClass) {
+        Map<String, String> classes = dependencies.get(testClass);
+        return classes == null ? null : new HashMap<String, String>(classes);
+    }
+
+    /**
+     * Stores the classes loaded by {@code testClass}. If {@code complete} is
+     * {@code false}, only some of its tests ran, and the classes are added to
+     * the ones recorded before.
+     */
+    synchronized void record(String testClass, Map<String, String> loadedClasses,
+            boolean complete) {
+        Map<String, String> classes = complete ? null : dependencies.get(testClass);
+        if (classes == null) {
+            classes = new TreeMap<String, String>();
+            dependencies.put(testClass, classes);
+        }
+        classes.putAll(loadedClasses);
+    }
+
+    private synchronized Map<String, Map<String, String>> snapshot() {
+        Map<String, Map<String, String>> copy = new HashMap<String, Map<String, String>>();
+        for (Map.Entry<String, Map<String, String>> each : dependencies.entrySet()) {
+            copy.put(each.getKey(), new HashMap<String, String>(each.getValue()));
+        }
+        return copy;
+    }
+
+    private void read() throws IOException {
+        Map<String, String> classes = null;
+        for (String each : TextFiles.readLines(file)) {
+            if (each.startsWith(TEST_PREFIX)) {
+                classes = new TreeMap<String, String>();
+                dependencies.put(each.substring(TEST_PREFIX.length()), classes);
+            } else {
+                int separator = each.indexOf(' ');
+                if (classes == null || separator < 0) {
+                    throw new IOException("Malformed dependency index " + file + ": " + each);
+                }
+                classes.put(each.substring(0, separator), each.substring(separator + 1));
+            }
+        }
+    }
+
+    /**
+     * Saves this index to its file.
+     */
+    public synchronized void save() throws IOException {
+        List<String> lines = new ArrayList<String>();
+        for (Map.Entry<String, Map<String, String>> test : dependencies.entrySet()) {
+            lines.add(TEST_PREFIX + test.getKey());
+            for (Map.Entry<String, String> each : test.getValue().entrySet()) {
+                lines.add(each.getKey() + " " + each.getValue());
+            }
+        }
+        TextFiles.writeLines(file, "JUnit dependency index", lines);
+    }
+
+    private static class AffectedTestsFilter extends Filter {
+        private final Map<String, Map<String, String>> dependencies;
+        private final ClassFileHashes currentHashes;
+        private final Set<String> changedClasses;
+        private final Map<String, Boolean> affected = new HashMap<String, Boolean>();
+
+        AffectedTestsFilter(Map<String, Map<String, String>> dependencies,
+                ClassFileHashes currentHashes) {
+            this.dependencies = dependencies;
+            this.currentHashes = currentHashes;
+            this.changedClasses = null;
+        }
+
+        AffectedTestsFilter(Map<String, Map<String, String>> dependencies,
+                Set<String> changedClasses) {
+            this.dependencies = dependencies;
+            this.currentHashes = null;
+            this.changedClasses = changedClasses;
+        }
+
+        @Override
+        public boolean shouldRun(Description description) {
+            String className = description.getClassName();
+            if (dependencies.containsKey(className)) {
+                return isAffected(className);
+            }
+            if (description.isTest()) {
+                // a test of a class that was never recorded
+                return true;
+            }
+            for (Description each : description.getChildrenView()) {
+                if (shouldRun(each)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized boolean isAffected(String testClass) {
+            Boolean result = affected.get(testClass);
+            if (result == null) {
+                result = computeAffected(dependencies.get(testClass));
+                affected.put(testClass, result);
+            }
+            return result;
+        }
+
+        private boolean computeAffected(Map<String, String> classes) {
+            for (Map.Entry<String, String> each : classes.entrySet()) {
+                if (changedClasses != null
+                        ? changedClasses.contains(each.getKey())
+                        : !each.getValue().equals(currentHashes.hash(each.getKey()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() {
+            return "tests affected by changed classes";
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.junit.experimental.affected;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.internal.ClassFiles;
+import org.junit.runner.Runner;
+
+/**
+ * Loads the classes that its parent would load from a directory itself, and
+ * records them along with the hash of their class files. All other classes,
+ * including JUnit's own, are loaded by the parent.
+ */
+class RecordingClassLoader extends ClassLoader {
+    private static final String JUNIT_ROOT = rootOf(Runner.class.getName(),
+            Runner.class.getClassLoader());
+
+    // class name -> content hash; guarded by this
+    private final Map<String, String> loadedClasses = new HashMap<String, String>();
+
+    RecordingClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Returns the classes loaded so far, with the hashes of their class files.
+     */
+    synchronized Map<String, String> getLoadedClasses() {
+        return new HashMap<String, String>(loadedClasses);
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(String name, boolean resolve)
+            throws ClassNotFoundException {
+        Class<?> c = findLoadedClass(name);
+        if (c == null) {
+            URL url = recordedClassFile(name);
+            if (url == null) {
+                return super.loadClass(name, resolve);
+            }
+            c = define(name, url);
+        }
+        if (resolve) {
+            resolveClass(c);
+        }
+        return c;
+    }
+
+    private URL recordedClassFile(String name) {
+        if (name.startsWith("java.")) {
+            return null;
+        }
+        URL url = getParent().getResource(ClassFiles.fileName(name));
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        String root = rootOf(name, url);
+        return root.equals(JUNIT_ROOT) ? null : url;
+    }
+
+    private Class<?> define(String name, URL url) throws ClassNotFoundException {
+        byte[] content;
+        try {
+            content = ClassFiles.read(url);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot > 0) {
+            try {
+                definePackage(name.substring(0, lastDot), null, null, null, null, null, null, null);
+            } catch (IllegalArgumentException e) {
+                // already defined
+            }
+        }
+        Class<?> c = defineClass(name, content, 0, content.length);
+        loadedClasses.put(name, ClassFiles.hash(content));
+        return c;
+    }
+
+    private static String rootOf(String className, ClassLoader loader) {
+        if (loader == null) {
+            return null;
+        }
+        URL url = loader.getResource(ClassFiles.fileName(className));
+        return url == null ? null : rootOf(className, url);
+    }
+
+    private static String rootOf(String className, URL url) {
+        String path = url.toExternalForm();
+        return path.substring(0, path.length() - ClassFiles.fileName(className).length());
+    }
+}
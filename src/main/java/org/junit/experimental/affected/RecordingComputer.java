@@ -0,0 +1,129 @@
+package org.junit.experimental.affected;
+
+import java.io.IOException;
+
+import org.junit.runner.Computer;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * A {@link Computer} that runs each test class in a {@link RecordingClassLoader}
+ * of its own and stores the classes it loaded in a {@link DependencyIndex}.
+ */
+class RecordingComputer extends Computer {
+    private final DependencyIndex index;
+
+    RecordingComputer(DependencyIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public Runner getSuite(final RunnerBuilder builder, Class<?>[] classes)
+            throws InitializationError {
+        return new Suite(new RunnerBuilder() {
+            @Override
+            public Runner runnerForClass(Class<?> testClass) throws Throwable {
+                return getRunner(builder, testClass);
+            }
+        }, classes) {
+            @Override
+            protected String getName() {
+                return "classes";
+            }
+
+            @Override
+            public void run(RunNotifier notifier) {
+                try {
+                    super.run(notifier);
+                } finally {
+                    try {
+                        index.save();
+                    } catch (IOException e) {
+                        notifier.fireTestFailure(new Failure(getDescription(), e));
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    protected Runner getRunner(RunnerBuilder builder, Class<?> testClass) throws Throwable {
+        ClassLoader parent = testClass.getClassLoader();
+        if (parent == null) {
+            return super.getRunner(builder, testClass);
+        }
+        RecordingClassLoader loader = new RecordingClassLoader(parent);
+        Class<?> reloaded = loader.loadClass(testClass.getName());
+        if (reloaded == testClass) {
+            // not loaded from a directory, so there is nothing to record
+            return super.getRunner(builder, testClass);
+        }
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            Runner runner = super.getRunner(builder, reloaded);
+            return runner == null ? null : new RecordingRunner(testClass.getName(), runner, loader);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private class RecordingRunner extends Runner implements Filterable, Sortable {
+        private final String testClass;
+        private final Runner runner;
+        private final RecordingClassLoader loader;
+        private boolean filtered = false;
+
+        RecordingRunner(String testClass, Runner runner, RecordingClassLoader loader) {
+            this.testClass = testClass;
+            this.runner = runner;
+            this.loader = loader;
+        }
+
+        @Override
+        public Description getDescription() {
+            return runner.getDescription();
+        }
+
+        @Override
+        public int testCount() {
+            return runner.testCount();
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(loader);
+            try {
+                runner.run(notifier);
+            } finally {
+                thread.setContextClassLoader(contextClassLoader);
+                index.record(testClass, loader.getLoadedClasses(), !filtered);
+            }
+        }
+
+        public void filter(Filter filter) throws NoTestsRemainException {
+            filter.apply(runner);
+            if (!(runner instanceof Filterable) && !filter.shouldRun(getDescription())) {
+                throw new NoTestsRemainException();
+            }
+            filtered = true;
+        }
+
+        public void sort(Sorter sorter) {
+            sorter.apply(runner);
+        }
+    }
+}
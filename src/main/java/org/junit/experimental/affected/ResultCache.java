@@ -0,0 +1,386 @@
+package org.junit.experimental.affected;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Ignore;
+import org.junit.internal.ClassFiles;
+import org.junit.internal.TextFiles;
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Remembers which test classes passed, so that later runs can skip them as
+ * long as nothing they depend on has changed.
+ *
+ * <p>The fingerprint of a test class is a hash of the current class files of
+ * all the classes it loaded when it was recorded in a {@link DependencyIndex},
+ * which includes the test class itself, and of the values of the given system
+ * properties. A test class whose fingerprint matches the one of a previous run
+ * in which all its tests passed is not run again; its tests are reported as
+ * ignored, with an {@link Ignore} annotation whose value starts with
+ * {@code "cached"}. Test classes that are not recorded in the index always run,
+ * and a test class is only cached after a run in which all of its tests ran,
+ * not just the ones a filter selected.
+ *
+ * <pre>
+ * DependencyIndex index = DependencyIndex.forFile(new File("build/junit-dependencies"));
+ * ResultCache cache = ResultCache.forFile(new File("build/junit-results"), index, "java.version");
+ * new JUnitCore().run(cache.apply(Request.classes(classes)));
+ * </pre>
+ *
+ * <p>Classes that a test loads by a name it computes at run time are only
+ * part of the fingerprint if they were loaded while the test was recorded.
+ *
+ * @since 4.14
+ */
+public final class ResultCache {
+    static final String REASON =
+            "cached: passed before with the same class files and system properties";
+
+    private static final Ignore CACHED = CachedReason.class.getAnnotation(Ignore.class);
+
+    /**
+     * Carries the {@link Ignore} annotation that is added to the descriptions
+     * of cached tests.
+     */
+    @Ignore(REASON)
+    private static final class CachedReason {
+    }
+
+    private final File file;
+    private final DependencyIndex index;
+    private final List<String> systemProperties;
+
+    // test class name -> fingerprint of its last passing run; guarded by this
+    private final Map<String, String> passed = new TreeMap<String, String>();
+
+    /**
+     * Loads a {@link ResultCache} from {@code file}, or creates an empty one
+     * that will be saved to {@code file}.
+     *
+     * @param index the recorded dependencies of the test classes
+     * @param systemProperties the names of the system properties that can
+     * change the outcome of the tests
+     */
+    public static ResultCache forFile(File file, DependencyIndex index,
+            String... systemProperties) throws IOException {
+        ResultCache cache = new ResultCache(file, index, systemProperties);
+        if (file.exists()) {
+            cache.read();
+        }
+        return cache;
+    }
+
+    private ResultCache(File file, DependencyIndex index, String[] systemProperties) {
+        this.file = file;
+        this.index = index;
+        this.systemProperties = Arrays.asList(systemProperties.clone());
+    }
+
+    /**
+     * Returns a {@link Request} that runs the tests of {@code request} except
+     * for the test classes that passed before with the same fingerprint, and
+     * updates this cache with the outcome once the run has finished.
+     */
+    public Request apply(final Request request) {
+        return new Request() {
+            @Override
+            public Runner getRunner() {
+                ClassLoader loader = Thread.currentThread().getContextClassLoader();
+                if (loader == null) {
+                    loader = ResultCache.class.getClassLoader();
+                }
+                return new CachingRunner(request.getRunner(), loader);
+            }
+        };
+    }
+
+    /**
+     * Returns {@code true} if {@code testClass} passed before with the same
+     * fingerprint as it has now.
+     */
+    public boolean isCached(String testClass) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = ResultCache.class.getClassLoader();
+        }
+        return isCached(testClass, fingerprint(testClass, new ClassFileHashes(loader)));
+    }
+
+    private synchronized boolean isCached(String testClass, String fingerprint) {
+        return fingerprint != null && fingerprint.equals(passed.get(testClass));
+    }
+
+    private synchronized void update(Map<String, String> passedClasses,
+            Collection<String> otherClasses) {
+        passed.putAll(passedClasses);
+        for (String each : otherClasses) {
+            passed.remove(each);
+        }
+    }
+
+    /**
+     * Returns the fingerprint of {@code testClass}, or {@code null} if it was
+     * never recorded or one of the classes it loaded is gone.
+     */
+    private String fingerprint(String testClass, ClassFileHashes hashes) {
+        Map<String, String> recordedClasses = index.getRecordedClasses(testClass);
+        if (recordedClasses == null) {
+            return null;
+        }
+        StringBuilder content = new StringBuilder();
+        for (String each : new TreeSet<String>(recordedClasses.keySet())) {
+            String hash = hashes.hash(each);
+            if (hash == null) {
+                return null;
+            }
+            content.append(each).append(' ').append(hash).append('\n');
+        }
+        for (String each : systemProperties) {
+            content.append(each).append('=').append(System.getProperty(each)).append('\n');
+        }
+        try {
+            return ClassFiles.hash(content.toString().getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+    }
+
+    private void read() throws IOException {
+        TextFiles.readEntries(file, "result cache", passed);
+    }
+
+    /**
+     * Saves this cache to its file.
+     */
+    public synchronized void save() throws IOException {
+        TextFiles.writeEntries(file, "JUnit result cache", passed);
+    }
+
+    /**
+     * Runs the tests of a runner that are not cached, reports the cached ones
+     * as ignored and records the outcome of each test class.
+     *
+     * <p>Filters and sorters are applied to the wrapped runner, and the cached
+     * tests are only taken out of it when the run starts, so that they are
+     * filtered and sorted like the others.
+     */
+    private class CachingRunner extends Runner implements Filterable, Sortable {
+        private final Runner runner;
+        private final ClassLoader loader;
+        private final ClassFileHashes hashes;
+        private final Map<String, String> fingerprints = new HashMap<String, String>();
+
+        CachingRunner(Runner runner, ClassLoader loader) {
+            this.runner = runner;
+            this.loader = loader;
+            this.hashes = new ClassFileHashes(loader);
+        }
+
+        @Override
+        public Description getDescription() {
+            return runner.getDescription();
+        }
+
+        public void filter(Filter filter) throws NoTestsRemainException {
+            filter.apply(runner);
+        }
+
+        public void sort(Sorter sorter) {
+            sorter.apply(runner);
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            Description description = runner.getDescription();
+            Set<Description> cachedTests = new LinkedHashSet<Description>();
+            boolean testsRemain = true;
+            try {
+                new CacheFilter(cachedTests).apply(runner);
+            } catch (NoTestsRemainException e) {
+                testsRemain = false;
+            }
+            for (Description each : cachedTests) {
+                notifier.fireTestIgnored(withReason(each));
+            }
+            if (!testsRemain) {
+                return;
+            }
+            Outcomes outcomes = new Outcomes(runner.getDescription());
+            notifier.addListener(outcomes);
+            try {
+                runner.run(notifier);
+            } finally {
+                notifier.removeListener(outcomes);
+            }
+            Map<String, String> passedClasses = new HashMap<String, String>();
+            List<String> otherClasses = new ArrayList<String>();
+            for (String each : outcomes.testClasses()) {
+                String fingerprint = fingerprint(each);
+                if (fingerprint != null && outcomes.passed(each, expectedTestCount(each))) {
+                    passedClasses.put(each, fingerprint);
+                } else {
+                    otherClasses.add(each);
+                }
+            }
+            update(passedClasses, otherClasses);
+            try {
+                save();
+            } catch (IOException e) {
+                notifier.fireTestFailure(new Failure(description, e));
+            }
+        }
+
+        /**
+         * Returns the number of tests of {@code testClass} when it runs
+         * without a filter, or {@code -1} if the class cannot be loaded.
+         */
+        private int expectedTestCount(String testClass) {
+            Class<?> type;
+            try {
+                type = Class.forName(testClass, false, loader);
+            } catch (ClassNotFoundException e) {
+                return -1;
+            }
+            return countTests(Request.aClass(type).getRunner().getDescription(), testClass);
+        }
+
+        private int countTests(Description description, String testClass) {
+            int count = description.isTest() && testClass.equals(description.getClassName()) ? 1 : 0;
+            for (Description each : description.getChildrenView()) {
+                count += countTests(each, testClass);
+            }
+            return count;
+        }
+
+        private synchronized String fingerprint(String testClass) {
+            if (!fingerprints.containsKey(testClass)) {
+                fingerprints.put(testClass, ResultCache.this.fingerprint(testClass, hashes));
+            }
+            return fingerprints.get(testClass);
+        }
+
+        private Description withReason(Description test) {
+            if (test.getMethodName() == null) {
+                return test;
+            }
+            Collection<Annotation> annotations = test.getAnnotations();
+            Annotation[] withReason = annotations.toArray(new Annotation[annotations.size() + 1]);
+            withReason[annotations.size()] = CACHED;
+            return Description.createTestDescription(
+                    test.getClassName(), test.getMethodName(), withReason);
+        }
+
+        private class CacheFilter extends Filter {
+            private final Set<Description> cachedTests;
+
+            CacheFilter(Set<Description> cachedTests) {
+                this.cachedTests = cachedTests;
+            }
+
+            @Override
+            public boolean shouldRun(Description description) {
+                String className = description.getClassName();
+                if (isCached(className, fingerprint(className))) {
+                    addLeaves(description);
+                    return false;
+                }
+                return true;
+            }
+
+            private void addLeaves(Description description) {
+                if (description.isTest()) {
+                    cachedTests.add(description);
+                }
+                for (Description each : description.getChildrenView()) {
+                    addLeaves(each);
+                }
+            }
+
+            @Override
+            public String describe() {
+                return "tests not cached";
+            }
+        }
+    }
+
+    /**
+     * Tracks which test classes ran all their tests without a failure.
+     */
+    @RunListener.ThreadSafe
+    private static class Outcomes extends RunListener {
+        private final Set<String> testClasses = new HashSet<String>();
+        private final Map<String, Integer> completedTests = new HashMap<String, Integer>();
+        private final Set<String> failedClasses = new HashSet<String>();
+
+        Outcomes(Description description) {
+            addTestClasses(description);
+        }
+
+        private void addTestClasses(Description description) {
+            if (description.isTest()) {
+                testClasses.add(description.getClassName());
+            }
+            for (Description each : description.getChildrenView()) {
+                addTestClasses(each);
+            }
+        }
+
+        synchronized Set<String> testClasses() {
+            return new HashSet<String>(testClasses);
+        }
+
+        /**
+         * Returns {@code true} if none of the tests of {@code testClass} failed
+         * and at least {@code expectedTests} of them completed.
+         */
+        synchronized boolean passed(String testClass, int expectedTests) {
+            Integer completed = completedTests.get(testClass);
+            return !failedClasses.contains(testClass) && expectedTests > 0
+                    && completed != null && completed >= expectedTests;
+        }
+
+        @Override
+        public synchronized void testFinished(Description description) {
+            increment(completedTests, description.getClassName());
+        }
+
+        @Override
+        public synchronized void testIgnored(Description description) {
+            increment(completedTests, description.getClassName());
+        }
+
+        @Override
+        public synchronized void testFailure(Failure failure) {
+            failedClasses.add(failure.getDescription().getClassName());
+        }
+
+        private static void increment(Map<String, Integer> counts, String key) {
+            Integer count = counts.get(key);
+            counts.put(key, count == null ? 1 : count + 1);
+        }
+    }
+}
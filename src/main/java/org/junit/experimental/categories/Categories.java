@@ -207,7 +207,7 @@ public class Categories extends Suite {
                 return true;
             }
 
-            for (Description each : description.getChildren()) {
+            for (Description each : description.getChildrenView()) {
                 if (shouldRun(each)) {
                     return true;
                 }
@@ -0,0 +1,143 @@
+package org.junit.experimental.max;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Ordering;
+import org.junit.runner.manipulation.Sorter;
+
+/**
+ * A sorter that runs the tests that are expected to fail first, relative to
+ * how long they take: it orders the children of each suite by their expected
+ * number of failures per second of run time, highest first.
+ *
+ * <p>The expected number of failures of a test is its
+ * {@linkplain TestStatistics#getFailureProbability() failure probability},
+ * which weights recent executions more, and its run time is the mean
+ * duration of its recent executions, as recorded by a {@link MaxHistory}. A
+ * suite is expected to fail as often as its tests together and to take as
+ * long as they together. Tests that have not been executed are expected to
+ * fail with a probability of one half and to take as long as the average
+ * recorded test.
+ *
+ * <p>Use it with {@link org.junit.runner.OrderWith}, with the
+ * {@code --order} option of {@link org.junit.runner.JUnitCore}, or with
+ * {@link org.junit.runner.Request#orderWith(Ordering)}:
+ *
+ * <pre>
+ * &#064;RunWith(Suite.class)
+ * &#064;OrderWith(FailFastOrdering.class)
+ * &#064;SuiteClasses({ ... })
+ * public class AllTests {
+ * }
+ * </pre>
+ *
+ * <p>The history is read from the file named by the system property
+ * {@value #HISTORY_PROPERTY}, or from {@value #DEFAULT_HISTORY_FILE} in the
+ * working directory. It is recorded by {@link MaxCore} or by the
+ * {@linkplain MaxHistory#listener() listener} of a {@code MaxHistory} for
+ * that file.
+ *
+ * @since 4.14
+ */
+public final class FailFastOrdering extends Sorter implements Ordering.Factory {
+    /** The system property with the name of the history file. */
+    public static final String HISTORY_PROPERTY = "junit.max.history";
+
+    /** The name of the history file if {@value #HISTORY_PROPERTY} is not set. */
+    public static final String DEFAULT_HISTORY_FILE = "junit-max-history";
+
+    /** The duration that every test is expected to take at least, in nanoseconds. */
+    private static final long MIN_DURATION = 1000000L;
+
+    /**
+     * Creates an ordering that uses the history in the file named by
+     * {@value #HISTORY_PROPERTY}.
+     */
+    public FailFastOrdering() {
+        this(MaxHistory.forFolder(new File(System.getProperty(HISTORY_PROPERTY, DEFAULT_HISTORY_FILE))));
+    }
+
+    /**
+     * Creates an ordering that uses {@code history}.
+     */
+    public FailFastOrdering(MaxHistory history) {
+        super(new ExpectedFailuresPerSecondComparator(history));
+    }
+
+    public Ordering create(Context context) {
+        return this;
+    }
+
+    private static class ExpectedFailuresPerSecondComparator implements Comparator<Description> {
+        private final MaxHistory history;
+        private final long unknownDuration;
+        private final Map<Description, Cost> costs = new ConcurrentHashMap<Description, Cost>();
+
+        ExpectedFailuresPerSecondComparator(MaxHistory history) {
+            this.history = history;
+            Map<String, Long> durations = history.getMeanDurations();
+            long total = 0;
+            for (Long each : durations.values()) {
+                total += each;
+            }
+            unknownDuration = durations.isEmpty()
+                    ? MIN_DURATION : Math.max(MIN_DURATION, total / durations.size());
+        }
+
+        public int compare(Description o1, Description o2) {
+            Cost cost1 = costOf(o1);
+            Cost cost2 = costOf(o2);
+            int result = Double.compare(
+                    cost2.failuresPerNanosecond(), cost1.failuresPerNanosecond());
+            return result != 0 ? result
+                    // Then shorter tests first
+                    : Long.valueOf(cost1.duration).compareTo(cost2.duration);
+        }
+
+        private Cost costOf(Description description) {
+            Cost cost = costs.get(description);
+            if (cost == null) {
+                cost = computeCost(description);
+                costs.put(description, cost);
+            }
+            return cost;
+        }
+
+        private Cost computeCost(Description description) {
+            if (description.isTest()) {
+                TestStatistics statistics = history.getStatistics(description);
+                if (statistics == null || statistics.getExecutionCount() == 0) {
+                    return new Cost(0.5, unknownDuration);
+                }
+                return new Cost(statistics.getFailureProbability(),
+                        Math.max(MIN_DURATION, statistics.getMeanDuration()));
+            }
+            double failures = 0;
+            long duration = 0;
+            for (Description each : description.getChildrenView()) {
+                Cost cost = costOf(each);
+                failures += cost.failures;
+                duration += cost.duration;
+            }
+            return new Cost(failures, Math.max(MIN_DURATION, duration));
+        }
+    }
+
+    private static class Cost {
+        final double failures;
+        final long duration;
+
+        Cost(double failures, long duration) {
+            this.failures = failures;
+            this.duration = duration;
+        }
+
+        double failuresPerNanosecond() {
+            return failures / duration;
+        }
+    }
+}
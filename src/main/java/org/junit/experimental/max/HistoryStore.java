@@ -0,0 +1,317 @@
+package org.junit.experimental.max;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.internal.DataStrings;
+
+/**
+ * The recent executions of each test, kept in memory and in a log file.
+ *
+ * <p>Executions and failures are queued by any thread and applied and
+ * appended to the file by {@link #flush()}. When the file holds many more
+ * records than the window of each test needs, it is rewritten with only
+ * those records by a background thread. A file that ends within a record,
+ * because the process ended while it was written, is read up to that record
+ * and rewritten at the next flush.
+ */
+final class HistoryStore {
+    /** The number of recent executions that are kept of each test. */
+    static final int WINDOW = 20;
+
+    private static final long MAGIC = 0x4A556E69744D6178L; // "JUnitMax"
+    private static final int VERSION = 1;
+
+    private static final byte EXECUTION = 1;
+    private static final byte FAILURE = 2;
+
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 10000;
+
+    private final File file;
+    private final Map<String, TestHistory> tests = new ConcurrentHashMap<String, TestHistory>();
+    private final ConcurrentLinkedQueue<Record> pending = new ConcurrentLinkedQueue<Record>();
+
+    private final Object fileLock = new Object();
+    // guarded by fileLock
+    private int recordsInFile;
+    private boolean rewrite = true;
+    private boolean compacting;
+
+    HistoryStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the history of {@code file}.
+     *
+     * @throws CouldNotReadCoreException if {@code file} is not a history file
+     */
+    static HistoryStore load(File file) throws CouldNotReadCoreException {
+        HistoryStore store = new HistoryStore(file);
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (in.readLong() != MAGIC || in.readInt() != VERSION) {
+                    throw new CouldNotReadCoreException(new IOException(file + " is not a history file"));
+                }
+                store.rewrite = false;
+                store.readRecords(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new CouldNotReadCoreException(e);
+        }
+        return store;
+    }
+
+    private void readRecords(DataInputStream in) throws IOException {
+        int type;
+        while ((type = in.read()) >= 0) {
+            try {
+                apply(new Record((byte) type, DataStrings.readString(in), in.readLong(),
+                        type == EXECUTION && in.readBoolean()));
+                recordsInFile++;
+            } catch (EOFException e) {
+                rewrite = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates a history with the last durations and failure timestamps of the
+     * format that was written by Java serialization.
+     */
+    static HistoryStore fromLastExecutions(File file, Map<String, Long> durations,
+            Map<String, Long> failureTimestamps) {
+        HistoryStore store = new HistoryStore(file);
+        for (Map.Entry<String, Long> each : durations.entrySet()) {
+            store.apply(new Record(EXECUTION, each.getKey(), each.getValue(), false));
+        }
+        for (Map.Entry<String, Long> each : failureTimestamps.entrySet()) {
+            store.apply(new Record(FAILURE, each.getKey(), each.getValue(), false));
+        }
+        return store;
+    }
+
+    void addExecution(String test, long durationNanos, boolean failed) {
+        pending.add(new Record(EXECUTION, test, durationNanos, failed));
+    }
+
+    void addFailure(String test, long timestamp) {
+        pending.add(new Record(FAILURE, test, timestamp, false));
+    }
+
+    /**
+     * Applies the queued executions and failures and writes them to the file.
+     */
+    void flush() throws IOException {
+        synchronized (fileLock) {
+            List<Record> records = new ArrayList<Record>();
+            for (Record record = pending.poll(); record != null; record = pending.poll()) {
+                apply(record);
+                records.add(record);
+            }
+            if (rewrite) {
+                compact();
+            } else if (!records.isEmpty()) {
+                append(records);
+                if (!compacting && recordsInFile > Math.max(MIN_RECORDS_BEFORE_COMPACTION,
+                        2 * (WINDOW + 1) * tests.size())) {
+                    compactInBackground();
+                }
+            }
+        }
+    }
+
+    private void apply(Record record) {
+        TestHistory history = tests.get(record.test);
+        if (history == null) {
+            history = new TestHistory();
+            tests.put(record.test, history);
+        }
+        if (record.type == EXECUTION) {
+            history.addExecution(record.value, record.failed);
+        } else {
+            history.setLastFailureTimestamp(record.value);
+        }
+    }
+
+    private void append(List<Record> records) throws IOException {
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file, true)));
+        try {
+            for (Record each : records) {
+                each.writeTo(out);
+            }
+        } finally {
+            out.close();
+        }
+        recordsInFile += records.size();
+    }
+
+    private void compactInBackground() {
+        compacting = true;
+        Thread thread = new Thread("MaxHistory compaction") {
+            @Override
+            public void run() {
+                synchronized (fileLock) {
+                    try {
+                        compact();
+                    } catch (IOException e) {
+                        rewrite = true;
+                    } finally {
+                        compacting = false;
+                    }
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Replaces the file by one with only the records of the executions and
+     * failures in memory.
+     */
+    void compact() throws IOException {
+        synchronized (fileLock) {
+            File compacted = new File(file.getPath() + ".tmp");
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(compacted)));
+            int records = 0;
+            try {
+                out.writeLong(MAGIC);
+                out.writeInt(VERSION);
+                for (Map.Entry<String, TestHistory> each : tests.entrySet()) {
+                    records += each.getValue().writeTo(each.getKey(), out);
+                }
+            } finally {
+                out.close();
+            }
+            if (!compacted.renameTo(file) && !(file.delete() && compacted.renameTo(file))) {
+                compacted.delete();
+                throw new IOException("Cannot replace " + file);
+            }
+            recordsInFile = records;
+            rewrite = false;
+        }
+    }
+
+    /**
+     * Returns the statistics of {@code test}, or {@code null} if neither an
+     * execution nor a failure of it has been recorded.
+     */
+    TestStatistics getStatistics(String test) {
+        TestHistory history = tests.get(test);
+        return history == null ? null : history.getStatistics();
+    }
+
+    /**
+     * Returns the statistics of each test of which an execution or a failure
+     * has been recorded.
+     */
+    Map<String, TestStatistics> getStatistics() {
+        Map<String, TestStatistics> statistics = new HashMap<String, TestStatistics>();
+        for (Map.Entry<String, TestHistory> each : tests.entrySet()) {
+            statistics.put(each.getKey(), each.getValue().getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the mean duration of the recent executions of each test that
+     * has been executed.
+     */
+    Map<String, Long> getMeanDurations() {
+        Map<String, Long> durations = new HashMap<String, Long>();
+        for (Map.Entry<String, TestStatistics> each : getStatistics().entrySet()) {
+            if (each.getValue().getExecutionCount() > 0) {
+                durations.put(each.getKey(), each.getValue().getMeanDuration());
+            }
+        }
+        return durations;
+    }
+
+    private static final class Record {
+        final byte type;
+        final String test;
+        final long value;
+        final boolean failed;
+
+        Record(byte type, String test, long value, boolean failed) {
+            this.type = type;
+            this.test = test;
+            this.value = value;
+            this.failed = failed;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeByte(type);
+            DataStrings.writeString(out, test);
+            out.writeLong(value);
+            if (type == EXECUTION) {
+                out.writeBoolean(failed);
+            }
+        }
+    }
+
+    /**
+     * The last {@link #WINDOW} executions of a test, in a ring buffer.
+     */
+    private static final class TestHistory {
+        private final long[] durations = new long[WINDOW];
+        private final boolean[] failed = new boolean[WINDOW];
+        private int size;
+        private int next;
+        private Long lastFailureTimestamp;
+
+        synchronized void addExecution(long duration, boolean failed) {
+            durations[next] = duration;
+            this.failed[next] = failed;
+            next = (next + 1) % WINDOW;
+            size = Math.min(size + 1, WINDOW);
+        }
+
+        synchronized void setLastFailureTimestamp(long timestamp) {
+            lastFailureTimestamp = timestamp;
+        }
+
+        synchronized TestStatistics getStatistics() {
+            long[] oldestDurationsFirst = new long[size];
+            boolean[] oldestFailedFirst = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                int index = (next - size + i + WINDOW) % WINDOW;
+                oldestDurationsFirst[i] = durations[index];
+                oldestFailedFirst[i] = failed[index];
+            }
+            return new TestStatistics(oldestDurationsFirst, oldestFailedFirst, lastFailureTimestamp);
+        }
+
+        synchronized int writeTo(String test, DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                int index = (next - size + i + WINDOW) % WINDOW;
+                new Record(EXECUTION, test, durations[index], failed[index]).writeTo(out);
+            }
+            if (lastFailureTimestamp != null) {
+                new Record(FAILURE, test, lastFailureTimestamp, false).writeTo(out);
+                return size + 1;
+            }
+            return size;
+        }
+    }
+}
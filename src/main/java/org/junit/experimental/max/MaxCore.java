@@ -26,8 +26,11 @@ import org.junit.runners.model.InitializationError;
  * <li> Never-run tests first, in arbitrary order
  * <li> Group remaining tests by the date at which they most recently failed.
  * <li> Sort groups such that the most recent failure date is first, and never-failing tests are at the end.
- * <li> Within a group, run the fastest tests first.
+ * <li> Within a group, run the tests that failed most often in their recent runs first.
+ * <li> Then run the tests with the shortest mean duration of their recent runs first.
  * </ol>
+ *
+ * @see MaxHistory#getStatistics(Description)
  */
 public class MaxCore {
     private static final String MALFORMED_JUNIT_3_TEST_CLASS_PREFIX = "malformed JUnit 3 test class: ";
@@ -166,14 +169,14 @@ public class MaxCore {
     }
 
     private void findLeaves(Description parent, Description description, List<Description> results) {
-        if (description.getChildren().isEmpty()) {
+        if (description.isTest()) {
             if (description.toString().equals("warning(junit.framework.TestSuite$1)")) {
                 results.add(Description.createSuiteDescription(MALFORMED_JUNIT_3_TEST_CLASS_PREFIX + parent));
             } else {
                 results.add(description);
             }
         } else {
-            for (Description each : description.getChildren()) {
+            for (Description each : description.getChildrenView()) {
                 findLeaves(description, each, results);
             }
         }
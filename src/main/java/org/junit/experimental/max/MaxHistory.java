@@ -2,7 +2,6 @@ package org.junit.experimental.max;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -10,6 +9,7 @@ import java.io.Serializable;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.runner.Description;
 import org.junit.runner.Result;
@@ -17,29 +17,37 @@ import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
 
 /**
- * Stores a subset of the history of each test:
- * <ul>
- * <li>Last failure timestamp
- * <li>Duration of last execution
- * </ul>
+ * Stores the recent history of each test: the durations of its last
+ * executions, which of them failed, and the start time of the last run in
+ * which it failed. See {@link TestStatistics}.
+ *
+ * <p>The executions of a run are appended to the file of the history when
+ * the run finished, and the file is compacted in the background when it
+ * grew large. The listeners of a history can be notified by several threads
+ * at once.
  */
 public class MaxHistory implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
      * Loads a {@link MaxHistory} from {@code file}, or generates a new one that
-     * will be saved to {@code file}.
+     * will be saved to {@code file}. A file that was written by an earlier
+     * version of JUnit is read and replaced at the next save.
      */
     public static MaxHistory forFolder(File file) {
         if (file.exists()) {
             try {
-                return readHistory(file);
+                return new MaxHistory(file, HistoryStore.load(file));
             } catch (CouldNotReadCoreException e) {
-                e.printStackTrace();
-                file.delete();
+                try {
+                    return readHistory(file);
+                } catch (CouldNotReadCoreException serializationException) {
+                    // start anew; the file is replaced at the next save
+                    e.printStackTrace();
+                }
             }
         }
-        return new MaxHistory(file);
+        return new MaxHistory(file, new HistoryStore(file));
     }
 
     private static MaxHistory readHistory(File storedResults)
@@ -62,54 +70,83 @@ public class MaxHistory implements Serializable {
     }
 
     /*
-     * We have to use the f prefix until the next major release to ensure
-     * serialization compatibility. 
+     * The serialized form of a MaxHistory is the one of JUnit 4.12, with the
+     * last duration and failure timestamp of each test. We have to use the f
+     * prefix until the next major release to ensure serialization
+     * compatibility.
      * See https://github.com/junit-team/junit4/issues/976
      */
     private final Map<String, Long> fDurations = new HashMap<String, Long>();
     private final Map<String, Long> fFailureTimestamps = new HashMap<String, Long>();
     private final File fHistoryStore;
 
-    private MaxHistory(File storedResults) {
+    private final transient HistoryStore store;
+
+    private MaxHistory(File storedResults, HistoryStore store) {
         fHistoryStore = storedResults;
+        this.store = store;
     }
 
-    private void save() throws IOException {
-        ObjectOutputStream stream = null;
+    private synchronized void writeObject(ObjectOutputStream stream) throws IOException {
+        for (Map.Entry<String, TestStatistics> each : store.getStatistics().entrySet()) {
+            TestStatistics statistics = each.getValue();
+            if (statistics.getExecutionCount() > 0) {
+                fDurations.put(each.getKey(), statistics.getLastDuration());
+            }
+            if (statistics.getLastFailureTimestamp() != null) {
+                fFailureTimestamps.put(each.getKey(), statistics.getLastFailureTimestamp());
+            }
+        }
         try {
-            stream = new ObjectOutputStream(new FileOutputStream(fHistoryStore));
-            stream.writeObject(this);
+            stream.defaultWriteObject();
         } finally {
-            if (stream != null) {
-                stream.close();
-            }
+            fDurations.clear();
+            fFailureTimestamps.clear();
         }
     }
 
-    Long getFailureTimestamp(Description key) {
-        return fFailureTimestamps.get(key.toString());
-    }
-
-    void putTestFailureTimestamp(Description key, long end) {
-        fFailureTimestamps.put(key.toString(), end);
+    private Object readResolve() {
+        return new MaxHistory(fHistoryStore,
+                HistoryStore.fromLastExecutions(fHistoryStore, fDurations, fFailureTimestamps));
     }
 
-    boolean isNewTest(Description key) {
-        return !fDurations.containsKey(key.toString());
+    /**
+     * Returns the statistics of the recent executions of the test described
+     * by {@code key}, or {@code null} if nothing has been recorded of it.
+     *
+     * @since 4.14
+     */
+    public TestStatistics getStatistics(Description key) {
+        return store.getStatistics(key.toString());
     }
 
-    Long getTestDuration(Description key) {
-        return fDurations.get(key.toString());
+    /**
+     * Returns the duration of the last execution of the test described by
+     * {@code key}, in nanoseconds, or {@code null} if it has not been run.
+     *
+     * @since 4.14
+     */
+    public Long getTestDuration(Description key) {
+        TestStatistics statistics = getStatistics(key);
+        return statistics == null || statistics.getExecutionCount() == 0
+                ? null : statistics.getLastDuration();
     }
 
-    void putTestDuration(Description description, long duration) {
-        fDurations.put(description.toString(), duration);
+    /**
+     * Returns the mean duration of the recent executions of each test that
+     * has been executed, by {@link Description#toString()}.
+     */
+    Map<String, Long> getMeanDurations() {
+        return store.getMeanDurations();
     }
 
+    @RunListener.ThreadSafe
     private final class RememberingListener extends RunListener {
-        private long overallStart = System.currentTimeMillis();
+        private final long overallStart = System.currentTimeMillis();
 
-        private Map<Description, Long> starts = new HashMap<Description, Long>();
+        private final Map<Description, Long> starts = new ConcurrentHashMap<Description, Long>();
+
+        private final Map<Description, Boolean> failed = new ConcurrentHashMap<Description, Boolean>();
 
         @Override
         public void testStarted(Description description) throws Exception {
@@ -120,39 +157,65 @@ public class MaxHistory implements Serializable {
         @Override
         public void testFinished(Description description) throws Exception {
             long end = System.nanoTime();
-            long start = starts.get(description);
-            putTestDuration(description, end - start);
+            Long start = starts.remove(description);
+            if (start != null) {
+                store.addExecution(description.toString(), end - start,
+                        failed.remove(description) != null);
+            }
         }
 
         @Override
         public void testFailure(Failure failure) throws Exception {
-            putTestFailureTimestamp(failure.getDescription(), overallStart);
+            Description description = failure.getDescription();
+            if (starts.containsKey(description)) {
+                failed.put(description, Boolean.TRUE);
+            }
+            store.addFailure(description.toString(), overallStart);
         }
 
         @Override
         public void testRunFinished(Result result) throws Exception {
-            save();
+            store.flush();
         }
     }
 
     private class TestComparator implements Comparator<Description> {
+        private final Map<Description, TestStatistics> statistics =
+                new HashMap<Description, TestStatistics>();
+
         public int compare(Description o1, Description o2) {
+            TestStatistics statistics1 = getStatistics(o1);
+            TestStatistics statistics2 = getStatistics(o2);
             // Always prefer new tests
-            if (isNewTest(o1)) {
-                return -1;
-            }
-            if (isNewTest(o2)) {
-                return 1;
+            if (isNew(statistics1) || isNew(statistics2)) {
+                return (isNew(statistics1) ? 0 : 1) - (isNew(statistics2) ? 0 : 1);
             }
             // Then most recently failed first
-            int result = getFailure(o2).compareTo(getFailure(o1));
+            int result = getFailure(statistics2).compareTo(getFailure(statistics1));
+            if (result != 0) {
+                return result;
+            }
+            // Then most often failed first
+            result = statistics2.getFailureCount() - statistics1.getFailureCount();
             return result != 0 ? result
                     // Then shorter tests first
-                    : getTestDuration(o1).compareTo(getTestDuration(o2));
+                    : Long.valueOf(statistics1.getMeanDuration()).compareTo(
+                            statistics2.getMeanDuration());
         }
 
-        private Long getFailure(Description key) {
-            Long result = getFailureTimestamp(key);
+        private TestStatistics getStatistics(Description description) {
+            if (!statistics.containsKey(description)) {
+                statistics.put(description, MaxHistory.this.getStatistics(description));
+            }
+            return statistics.get(description);
+        }
+
+        private boolean isNew(TestStatistics statistics) {
+            return statistics == null || statistics.getExecutionCount() == 0;
+        }
+
+        private Long getFailure(TestStatistics statistics) {
+            Long result = statistics.getLastFailureTimestamp();
             if (result == null) {
                 return 0L; // 0 = "never failed (that I know about)"
             }
@@ -160,6 +223,46 @@ public class MaxHistory implements Serializable {
         }
     }
 
+    private static class LongestFirstComparator implements Comparator<Description> {
+        private final Map<String, Long> durations;
+        private final long unknownDuration;
+        private final Map<Description, Long> estimates = new ConcurrentHashMap<Description, Long>();
+
+        LongestFirstComparator(Map<String, Long> durations) {
+            this.durations = durations;
+            long total = 0;
+            for (Long each : durations.values()) {
+                total += each;
+            }
+            unknownDuration = durations.isEmpty() ? 0 : total / durations.size();
+        }
+
+        public int compare(Description o1, Description o2) {
+            return estimatedDuration(o2).compareTo(estimatedDuration(o1));
+        }
+
+        private Long estimatedDuration(Description description) {
+            Long estimate = estimates.get(description);
+            if (estimate == null) {
+                estimate = computeEstimatedDuration(description);
+                estimates.put(description, estimate);
+            }
+            return estimate;
+        }
+
+        private long computeEstimatedDuration(Description description) {
+            if (description.isTest()) {
+                Long duration = durations.get(description.toString());
+                return duration != null ? duration : unknownDuration;
+            }
+            long total = 0;
+            for (Description each : description.getChildrenView()) {
+                total += estimatedDuration(each);
+            }
+            return total;
+        }
+    }
+
     /**
      * @return a listener that will update this history based on the test
      *         results reported.
@@ -175,4 +278,20 @@ public class MaxHistory implements Serializable {
     public Comparator<Description> testComparator() {
         return new TestComparator();
     }
+
+    /**
+     * Returns a comparator that ranks tests and suites by the mean duration of
+     * their recent executions, longest first. The duration of a suite is the
+     * sum of the durations of its tests; tests without a recorded duration are assumed
+     * to take as long as the average recorded test. The comparator works on a
+     * snapshot of this history, taken when this method is called.
+     *
+     * <p>Dispatching the longest work first lets parallel workers finish at
+     * about the same time (longest-processing-time-first scheduling).
+     *
+     * @since 4.14
+     */
+    public Comparator<Description> longestFirstComparator() {
+        return new LongestFirstComparator(getMeanDurations());
+    }
 }
@@ -0,0 +1,110 @@
+package org.junit.experimental.max;
+
+import java.util.Arrays;
+
+/**
+ * The statistics of the recent executions of a test, as recorded by a
+ * {@link MaxHistory}.
+ *
+ * @see MaxHistory#getStatistics(org.junit.runner.Description)
+ * @since 4.14
+ */
+public final class TestStatistics {
+    /** The weight of an execution relative to the one after it. */
+    private static final double DECAY = Math.pow(0.5, 1.0 / 5);
+
+    private final long[] durations;
+    private final boolean[] failed;
+    private final Long lastFailureTimestamp;
+
+    TestStatistics(long[] durations, boolean[] failed, Long lastFailureTimestamp) {
+        this.durations = durations;
+        this.failed = failed;
+        this.lastFailureTimestamp = lastFailureTimestamp;
+    }
+
+    /**
+     * Returns the number of recent executions that these statistics cover.
+     */
+    public int getExecutionCount() {
+        return durations.length;
+    }
+
+    /**
+     * Returns the duration of the last execution in nanoseconds, or
+     * {@code 0} if the test has not been executed.
+     */
+    public long getLastDuration() {
+        return durations.length == 0 ? 0 : durations[durations.length - 1];
+    }
+
+    /**
+     * Returns the mean duration of the recent executions in nanoseconds, or
+     * {@code 0} if the test has not been executed.
+     */
+    public long getMeanDuration() {
+        if (durations.length == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (long each : durations) {
+            total += each;
+        }
+        return total / durations.length;
+    }
+
+    /**
+     * Returns the duration in nanoseconds that 95% of the recent executions
+     * did not exceed, or {@code 0} if the test has not been executed.
+     */
+    public long get95thPercentileDuration() {
+        if (durations.length == 0) {
+            return 0;
+        }
+        long[] sorted = durations.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.95 * sorted.length) - 1];
+    }
+
+    /**
+     * Returns the number of recent executions that failed.
+     */
+    public int getFailureCount() {
+        int failureCount = 0;
+        for (boolean each : failed) {
+            if (each) {
+                failureCount++;
+            }
+        }
+        return failureCount;
+    }
+
+    /**
+     * Returns the estimated probability that the next execution fails. It is
+     * the fraction of failed recent executions, where an execution counts
+     * half as much as the one five executions later, and one execution with a
+     * failure probability of one half is assumed before the first one. A
+     * test that has not been executed gets one half.
+     */
+    public double getFailureProbability() {
+        double failures = 0;
+        double executions = 0;
+        double weight = 1;
+        for (int i = failed.length - 1; i >= 0; i--) {
+            if (failed[i]) {
+                failures += weight;
+            }
+            executions += weight;
+            weight *= DECAY;
+        }
+        return (failures + 0.5 * weight) / (executions + weight);
+    }
+
+    /**
+     * Returns the start time in milliseconds of the last run in which the
+     * test failed, or {@code null} if it has not failed.
+     */
+    public Long getLastFailureTimestamp() {
+        return lastFailureTimestamp;
+    }
+}
@@ -0,0 +1,81 @@
+package org.junit.experimental.reporting;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Writes records to a file through a buffered {@link FileChannel}. A record is
+ * only written to the file as a whole, so that the file never ends in the
+ * middle of a record, except if the JVM dies while the channel writes.
+ *
+ * <p>Not thread-safe.
+ */
+final class ChannelWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /** The position of the next record in the file. */
+    private long position;
+
+    ChannelWriter(File file) throws IOException {
+        channel = new FileOutputStream(file).getChannel();
+    }
+
+    /**
+     * Appends a record. It is written to the file once the buffer is full or
+     * on {@link #flush(String)}.
+     */
+    void write(CharSequence record) throws IOException {
+        ByteBuffer bytes = encoder.encode(CharBuffer.wrap(record));
+        if (bytes.remaining() > buffer.remaining()) {
+            writeBuffer();
+            if (bytes.remaining() > buffer.capacity()) {
+                position += writeFully(bytes, position);
+                return;
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     * Writes the buffered records to the file, followed by {@code trailer},
+     * which the next records overwrite.
+     */
+    void flush(String trailer) throws IOException {
+        writeBuffer();
+        if (trailer.length() > 0) {
+            writeFully(encoder.encode(CharBuffer.wrap(trailer)), position);
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeBuffer() throws IOException {
+        ((Buffer) buffer).flip();
+        position += writeFully(buffer, position);
+        ((Buffer) buffer).clear();
+    }
+
+    private int writeFully(ByteBuffer bytes, long start) throws IOException {
+        int written = 0;
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes, start + written);
+        }
+        return written;
+    }
+}
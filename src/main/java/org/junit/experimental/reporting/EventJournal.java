@@ -0,0 +1,276 @@
+package org.junit.experimental.reporting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.junit.internal.DataStrings;
+import org.junit.internal.ThrowableSnapshot;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * A {@link RunListener} that appends a compact binary record of each event of
+ * a test run to a memory-mapped file, which an {@link EventJournalReader} can
+ * read while the tests still run, also in another process.
+ *
+ * <p>Writing a record copies a few bytes into the mapped file and does not
+ * call the operating system, so the journal hardly slows a run down. Each
+ * {@link Description} is written once and later referred to by a number, each
+ * record has the time of the event in nanoseconds since the journal was
+ * created, and failures are written as {@link ThrowableSnapshot}s.
+ *
+ * <pre>
+ * JUnitCore core = new JUnitCore();
+ * core.addListener(EventJournal.create(new File("build/test-events.journal")));
+ * core.run(classes);
+ * </pre>
+ *
+ * <p>The file is closed when the run finished.
+ *
+ * @see EventJournalReader
+ * @since 4.14
+ */
+@RunListener.ThreadSafe
+public final class EventJournal extends RunListener {
+    /** The size of the segments of the file that are mapped at a time. */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    static final long MAGIC = 0x4A556E69744A6E6CL; // "JUnitJnl"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int MIN_SEGMENT_SIZE = 4096;
+
+    /*
+     * The file starts with a header: MAGIC, VERSION, an unused int and the
+     * time in milliseconds when the journal was created. Then follow
+     * segments. A segment starts with its size, including the size itself,
+     * and holds records that do not cross the end of the segment.
+     *
+     * A record starts with the size of its body, then the CRC32 of the body,
+     * then the body: the type, the time in nanoseconds and the content. The
+     * size is written last, so that a reader sees either zero or a complete
+     * record. A size of END_OF_SEGMENT marks the end of a segment that has
+     * room left.
+     */
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int END_OF_SEGMENT = -1;
+
+    static final byte DESCRIPTION = 1;
+    static final byte RUN_STARTED = 2;
+    static final byte RUN_FINISHED = 3;
+    static final byte SUITE_STARTED = 4;
+    static final byte SUITE_FINISHED = 5;
+    static final byte TEST_STARTED = 6;
+    static final byte TEST_FINISHED = 7;
+    static final byte TEST_FAILURE = 8;
+    static final byte TEST_ASSUMPTION_FAILURE = 9;
+    static final byte TEST_IGNORED = 10;
+
+    private final File file;
+    private final int segmentSize;
+    private final long startNanos;
+
+    // guarded by this
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentPosition;
+    private final Map<Description, Integer> ids = new HashMap<Description, Integer>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    private final DataOutputStream bodyOut = new DataOutputStream(body);
+    private final CRC32 crc = new CRC32();
+    private boolean closed;
+
+    /**
+     * Creates a journal that writes to {@code file}, which is replaced if it
+     * exists, with segments of {@link #DEFAULT_SEGMENT_SIZE} bytes.
+     */
+    public static EventJournal create(File file) throws IOException {
+        return create(file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a journal that writes to {@code file}, which is replaced if it
+     * exists, with segments of {@code segmentSize} bytes. A record that is
+     * larger than a segment gets a segment of its own.
+     */
+    public static EventJournal create(File file, int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException(
+                    "segmentSize must be at least " + MIN_SEGMENT_SIZE + ": " + segmentSize);
+        }
+        return new EventJournal(file, segmentSize);
+    }
+
+    private EventJournal(File file, int segmentSize) throws IOException {
+        this.file = file;
+        this.segmentSize = segmentSize;
+        this.startNanos = System.nanoTime();
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(0);
+            channel = randomAccessFile.getChannel();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putLong(MAGIC).putInt(VERSION).putInt(0).putLong(System.currentTimeMillis());
+            mapSegment(HEADER_SIZE, segmentSize);
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    private void mapSegment(long position, int size) throws IOException {
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        segmentPosition = position;
+        segment.putInt(0, size);
+        ((Buffer) segment).position(4);
+    }
+
+    @Override
+    public synchronized void testRunStarted(Description description) throws Exception {
+        write(RUN_STARTED, description);
+    }
+
+    @Override
+    public synchronized void testRunFinished(Result result) throws Exception {
+        if (closed) {
+            return;
+        }
+        try {
+            startRecord(RUN_FINISHED);
+            endRecord();
+            segment.force();
+        } finally {
+            closed = true;
+            segment = null;
+            randomAccessFile.close();
+        }
+    }
+
+    @Override
+    public synchronized void testSuiteStarted(Description description) throws Exception {
+        write(SUITE_STARTED, description);
+    }
+
+    @Override
+    public synchronized void testSuiteFinished(Description description) throws Exception {
+        write(SUITE_FINISHED, description);
+    }
+
+    @Override
+    public synchronized void testStarted(Description description) throws Exception {
+        write(TEST_STARTED, description);
+    }
+
+    @Override
+    public synchronized void testFinished(Description description) throws Exception {
+        write(TEST_FINISHED, description);
+    }
+
+    @Override
+    public synchronized void testFailure(Failure failure) throws Exception {
+        writeFailure(TEST_FAILURE, failure);
+    }
+
+    @Override
+    public synchronized void testAssumptionFailure(Failure failure) {
+        try {
+            writeFailure(TEST_ASSUMPTION_FAILURE, failure);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write to " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void testIgnored(Description description) throws Exception {
+        write(TEST_IGNORED, description);
+    }
+
+    private void write(byte type, Description description) throws IOException {
+        if (closed) {
+            return;
+        }
+        int id = idOf(description);
+        startRecord(type);
+        bodyOut.writeInt(id);
+        endRecord();
+    }
+
+    private void writeFailure(byte type, Failure failure) throws IOException {
+        if (closed) {
+            return;
+        }
+        int id = idOf(failure.getDescription());
+        startRecord(type);
+        bodyOut.writeInt(id);
+        Throwable exception = failure.getException();
+        bodyOut.writeBoolean(exception != null);
+        if (exception != null) {
+            ThrowableSnapshot.of(exception).writeTo(bodyOut);
+        }
+        endRecord();
+    }
+
+    /**
+     * Returns the number of {@code description}, and writes records that
+     * define the numbers of it and its descendants when it is seen for the
+     * first time.
+     */
+    private int idOf(Description description) throws IOException {
+        Integer id = ids.get(description);
+        if (id == null) {
+            List<Description> children = description.getChildrenView();
+            int[] childIds = new int[children.size()];
+            for (int i = 0; i < childIds.length; i++) {
+                childIds[i] = idOf(children.get(i));
+            }
+            id = ids.size();
+            ids.put(description, id);
+            startRecord(DESCRIPTION);
+            bodyOut.writeInt(id);
+            DataStrings.writeString(bodyOut, description.getDisplayName());
+            bodyOut.writeInt(childIds.length);
+            for (int childId : childIds) {
+                bodyOut.writeInt(childId);
+            }
+            endRecord();
+        }
+        return id;
+    }
+
+    private void startRecord(byte type) throws IOException {
+        body.reset();
+        bodyOut.writeByte(type);
+        bodyOut.writeLong(System.nanoTime() - startNanos);
+    }
+
+    private void endRecord() throws IOException {
+        byte[] bytes = body.toByteArray();
+        if (segment.remaining() < RECORD_HEADER_SIZE + bytes.length) {
+            long nextPosition = segmentPosition + segment.capacity();
+            if (segment.remaining() >= 4) {
+                segment.putInt(segment.position(), END_OF_SEGMENT);
+            }
+            mapSegment(nextPosition, Math.max(segmentSize, 4 + RECORD_HEADER_SIZE + bytes.length));
+        }
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+        int start = segment.position();
+        ((Buffer) segment).position(start + 4);
+        segment.putInt((int) crc.getValue());
+        segment.put(bytes);
+        segment.putInt(start, bytes.length);
+    }
+}
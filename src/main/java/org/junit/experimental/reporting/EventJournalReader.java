@@ -0,0 +1,303 @@
+package org.junit.experimental.reporting;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.junit.internal.DataStrings;
+import org.junit.internal.ThrowableSnapshot;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Reads the file of an {@link EventJournal} and replays its events into a
+ * {@link RunListener}, while the journal is still written or afterwards.
+ *
+ * <pre>
+ * EventJournalReader reader = EventJournalReader.open(new File("build/test-events.journal"));
+ * try {
+ *     reader.tail(new TextListener(System.out), 500);
+ * } finally {
+ *     reader.close();
+ * }
+ * </pre>
+ *
+ * <p>The descriptions that are passed to the listener have the display names
+ * and the children of the original ones, but no annotations and no test
+ * class. The failures have {@link ThrowableSnapshot}s as exceptions. The
+ * {@link Result} that is passed to {@link RunListener#testRunFinished(Result)}
+ * counts the replayed events; its run time is the time the replay took.
+ *
+ * <p>A reader is not thread-safe.
+ *
+ * @see EventJournal
+ * @since 4.14
+ */
+public final class EventJournalReader {
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final long startTime;
+
+    private MappedByteBuffer segment;
+    private long nextSegmentPosition = EventJournal.HEADER_SIZE;
+    private final CRC32 crc = new CRC32();
+
+    private final List<Description> descriptions = new ArrayList<Description>();
+    private final Set<String> displayNames = new HashSet<String>();
+    private final Result result = new Result();
+    private final RunListener resultListener = result.createListener();
+    private long lastEventNanos;
+    private boolean finished;
+
+    /**
+     * Opens the file of an {@link EventJournal}.
+     *
+     * @throws IOException if the file cannot be read or is not the file of an
+     * {@code EventJournal}
+     */
+    public static EventJournalReader open(File file) throws IOException {
+        return new EventJournalReader(file);
+    }
+
+    private EventJournalReader(File file) throws IOException {
+        this.file = file;
+        randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            channel = randomAccessFile.getChannel();
+            ByteBuffer header = read(0, EventJournal.HEADER_SIZE);
+            if (header == null || header.getLong() != EventJournal.MAGIC) {
+                throw new IOException(file + " is not an event journal");
+            }
+            int version = header.getInt();
+            if (version != EventJournal.VERSION) {
+                throw new IOException(file + " has the unsupported version " + version);
+            }
+            header.getInt();
+            startTime = header.getLong();
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the time when the journal was created, in milliseconds since
+     * the epoch.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the time of the last replayed event, in nanoseconds since the
+     * journal was created.
+     */
+    public long getLastEventNanos() {
+        return lastEventNanos;
+    }
+
+    /**
+     * Returns {@code true} if the end of the run has been replayed.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Replays the events that have been written since the last call and
+     * returns without waiting for further events.
+     *
+     * @return the number of replayed records
+     */
+    public int replayAvailable(RunListener listener) throws Exception {
+        int count = 0;
+        while (!finished && nextRecord(listener)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Replays events as they are written, until the end of the run has been
+     * replayed.
+     *
+     * @param pollIntervalMillis the time to wait when no new event has been written
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void tail(RunListener listener, long pollIntervalMillis) throws Exception {
+        while (!finished) {
+            if (replayAvailable(listener) == 0) {
+                Thread.sleep(pollIntervalMillis);
+            }
+        }
+    }
+
+    /**
+     * Closes the file.
+     */
+    public void close() throws IOException {
+        segment = null;
+        randomAccessFile.close();
+    }
+
+    private boolean nextRecord(RunListener listener) throws Exception {
+        if (segment == null && !mapNextSegment()) {
+            return false;
+        }
+        int position = segment.position();
+        int length = segment.remaining() < 4 ? EventJournal.END_OF_SEGMENT : segment.getInt(position);
+        if (length == 0) {
+            return false;
+        } else if (length == EventJournal.END_OF_SEGMENT) {
+            segment = null;
+            return nextRecord(listener);
+        } else if (length < 0 || length > segment.remaining() - EventJournal.RECORD_HEADER_SIZE) {
+            throw new IOException(file + " is corrupt at position " + position);
+        }
+        int checksum = segment.getInt(position + 4);
+        byte[] body = new byte[length];
+        ((Buffer) segment).position(position + EventJournal.RECORD_HEADER_SIZE);
+        segment.get(body);
+        crc.reset();
+        crc.update(body, 0, length);
+        if ((int) crc.getValue() != checksum) {
+            // the writer has not finished the record yet
+            ((Buffer) segment).position(position);
+            return false;
+        }
+        replay(new DataInputStream(new ByteArrayInputStream(body)), listener);
+        return true;
+    }
+
+    private boolean mapNextSegment() throws IOException {
+        ByteBuffer sizeBuffer = read(nextSegmentPosition, 4);
+        int size = sizeBuffer == null ? 0 : sizeBuffer.getInt();
+        if (size == 0 || channel.size() < nextSegmentPosition + size) {
+            return false;
+        }
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, nextSegmentPosition, size);
+        ((Buffer) segment).position(4);
+        nextSegmentPosition += size;
+        return true;
+    }
+
+    /**
+     * Reads {@code length} bytes at {@code position}, or returns {@code null}
+     * if the file is not that long yet.
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        if (channel.size() < position + length) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+
+    private void replay(DataInputStream in, RunListener listener) throws Exception {
+        byte type = in.readByte();
+        lastEventNanos = in.readLong();
+        switch (type) {
+            case EventJournal.DESCRIPTION:
+                readDescription(in);
+                break;
+            case EventJournal.RUN_STARTED:
+                Description description = readId(in);
+                resultListener.testRunStarted(description);
+                listener.testRunStarted(description);
+                break;
+            case EventJournal.RUN_FINISHED:
+                finished = true;
+                resultListener.testRunFinished(result);
+                listener.testRunFinished(result);
+                break;
+            case EventJournal.SUITE_STARTED:
+                listener.testSuiteStarted(readId(in));
+                break;
+            case EventJournal.SUITE_FINISHED:
+                listener.testSuiteFinished(readId(in));
+                break;
+            case EventJournal.TEST_STARTED:
+                description = readId(in);
+                resultListener.testStarted(description);
+                listener.testStarted(description);
+                break;
+            case EventJournal.TEST_FINISHED:
+                description = readId(in);
+                resultListener.testFinished(description);
+                listener.testFinished(description);
+                break;
+            case EventJournal.TEST_FAILURE:
+                Failure failure = readFailure(in);
+                resultListener.testFailure(failure);
+                listener.testFailure(failure);
+                break;
+            case EventJournal.TEST_ASSUMPTION_FAILURE:
+                failure = readFailure(in);
+                resultListener.testAssumptionFailure(failure);
+                listener.testAssumptionFailure(failure);
+                break;
+            case EventJournal.TEST_IGNORED:
+                description = readId(in);
+                resultListener.testIgnored(description);
+                listener.testIgnored(description);
+                break;
+            default:
+                throw new IOException(file + " contains a record of the unknown type " + type);
+        }
+    }
+
+    private void readDescription(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        if (id != descriptions.size()) {
+            throw new IOException(file + " defines description " + id
+                    + " after " + descriptions.size() + " descriptions");
+        }
+        String displayName = DataStrings.readString(in);
+        // different descriptions with the same display name stay different
+        Description description = displayNames.add(displayName)
+                ? Description.createSuiteDescription(displayName)
+                : Description.createSuiteDescription(displayName, file + "#" + id);
+        int childCount = in.readInt();
+        for (int i = 0; i < childCount; i++) {
+            description.addChild(descriptionOf(in.readInt()));
+        }
+        descriptions.add(description);
+    }
+
+    private Description readId(DataInputStream in) throws IOException {
+        return descriptionOf(in.readInt());
+    }
+
+    private Description descriptionOf(int id) throws IOException {
+        if (id < 0 || id >= descriptions.size()) {
+            throw new IOException(file + " refers to the undefined description " + id);
+        }
+        return descriptions.get(id);
+    }
+
+    private Failure readFailure(DataInputStream in) throws IOException {
+        Description description = readId(in);
+        Throwable exception = in.readBoolean() ? ThrowableSnapshot.readFrom(in) : null;
+        return new Failure(description, exception);
+    }
+}
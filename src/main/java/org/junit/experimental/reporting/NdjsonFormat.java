@@ -0,0 +1,105 @@
+package org.junit.experimental.reporting;
+
+import java.io.IOException;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+/**
+ * Writes one JSON object per line: a {@code runStarted} record, a
+ * {@code test} record for each atomic test, and a {@code runFinished} record.
+ */
+final class NdjsonFormat extends ReportFormat {
+
+    NdjsonFormat(ChannelWriter writer) {
+        super(writer);
+    }
+
+    @Override
+    void runStarted(Description description) throws IOException {
+        StringBuilder line = new StringBuilder("{\"event\":\"runStarted\",\"name\":");
+        appendString(line, description.getDisplayName());
+        line.append(",\"tests\":").append(description.testCount()).append("}\n");
+        writer.write(line);
+        writer.flush("");
+    }
+
+    @Override
+    void test(TestRecord record) throws IOException {
+        StringBuilder line = new StringBuilder("{\"event\":\"test\",\"class\":");
+        appendString(line, record.getClassName());
+        line.append(",\"name\":");
+        appendString(line, record.getName());
+        line.append(",\"status\":\"").append(record.status.label).append('"');
+        line.append(",\"time\":").append(TestRecord.seconds(record.nanos));
+        if (!record.failures.isEmpty()) {
+            line.append(",\"failures\":[");
+            for (int i = 0; i < record.failures.size(); i++) {
+                Failure failure = record.failures.get(i);
+                line.append(i == 0 ? "{\"type\":" : ",{\"type\":");
+                appendString(line, TestRecord.typeOf(failure));
+                line.append(",\"message\":");
+                appendString(line, TestRecord.messageOf(failure));
+                line.append(",\"trace\":");
+                appendString(line, TestRecord.traceOf(failure));
+                line.append('}');
+            }
+            line.append(']');
+        }
+        line.append("}\n");
+        writer.write(line);
+    }
+
+    @Override
+    void suiteFinished(Description description) throws IOException {
+        writer.flush("");
+    }
+
+    @Override
+    void runFinished(Result result, long nanos) throws IOException {
+        StringBuilder line = new StringBuilder("{\"event\":\"runFinished\"");
+        line.append(",\"tests\":").append(result.getRunCount());
+        line.append(",\"failures\":").append(result.getFailureCount());
+        line.append(",\"ignored\":").append(result.getIgnoreCount());
+        line.append(",\"time\":").append(TestRecord.seconds(nanos)).append("}\n");
+        writer.write(line);
+        writer.flush("");
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        String hex = Integer.toHexString(c);
+                        json.append("\\u0000", 0, 6 - hex.length()).append(hex);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
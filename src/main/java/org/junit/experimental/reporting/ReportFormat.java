@@ -0,0 +1,33 @@
+package org.junit.experimental.reporting;
+
+import java.io.IOException;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+
+/**
+ * Writes the records of a report to a {@link ChannelWriter}.
+ */
+abstract class ReportFormat {
+    final ChannelWriter writer;
+
+    ReportFormat(ChannelWriter writer) {
+        this.writer = writer;
+    }
+
+    abstract void runStarted(Description description) throws IOException;
+
+    abstract void test(TestRecord record) throws IOException;
+
+    /**
+     * Called when a suite finished, which is when the records written so far
+     * are flushed to the file.
+     */
+    abstract void suiteFinished(Description description) throws IOException;
+
+    abstract void runFinished(Result result, long nanos) throws IOException;
+
+    void close() throws IOException {
+        writer.close();
+    }
+}
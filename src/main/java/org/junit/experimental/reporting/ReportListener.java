@@ -0,0 +1,163 @@
+package org.junit.experimental.reporting;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.TestBatch;
+
+/**
+ * A {@link RunListener} that writes a machine-readable report of a test run to
+ * a file while the tests run, rather than building it in memory at the end.
+ *
+ * <p>The report is written through a buffered {@link java.nio.channels.FileChannel}
+ * and flushed whenever a test class finished. A report of a run that did not
+ * finish can still be parsed: it contains the tests of all classes that
+ * finished before the last flush.
+ *
+ * <ul>
+ * <li>{@link #ndjson(File)} writes one JSON object per line, with a
+ * {@code "test"} record for each test that contains its class, name, status
+ * ({@code passed}, {@code failed}, {@code assumptionFailed} or
+ * {@code ignored}), time in seconds and failures with their trimmed stack
+ * traces.</li>
+ * <li>{@link #xml(File)} writes a {@code <testsuites>} document with a
+ * {@code <testsuite>} element for each test class in the format of Ant's
+ * JUnit task, which most build servers understand.</li>
+ * </ul>
+ *
+ * <pre>
+ * JUnitCore core = new JUnitCore();
+ * core.addListener(ReportListener.xml(new File("build/test-results.xml")));
+ * core.run(classes);
+ * </pre>
+ *
+ * <p>The file is closed when the run finished.
+ *
+ * @since 4.14
+ */
+@RunListener.ThreadSafe
+public final class ReportListener extends RunListener {
+    private final ReportFormat format;
+
+    // guarded by this
+    private final Map<Description, TestRecord> running = new HashMap<Description, TestRecord>();
+    private long runStartNanos = System.nanoTime();
+
+    /**
+     * Creates a listener that writes a report with one JSON object per line to
+     * {@code file}.
+     */
+    public static ReportListener ndjson(File file) throws IOException {
+        return new ReportListener(new NdjsonFormat(new ChannelWriter(file)));
+    }
+
+    /**
+     * Creates a listener that writes a report in the XML format of Ant's JUnit
+     * task to {@code file}.
+     */
+    public static ReportListener xml(File file) throws IOException {
+        return new ReportListener(new XmlFormat(new ChannelWriter(file)));
+    }
+
+    private ReportListener(ReportFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public synchronized void testRunStarted(Description description) throws Exception {
+        runStartNanos = System.nanoTime();
+        format.runStarted(description);
+    }
+
+    @Override
+    public synchronized void testRunFinished(Result result) throws Exception {
+        try {
+            format.runFinished(result, System.nanoTime() - runStartNanos);
+        } finally {
+            format.close();
+        }
+    }
+
+    @Override
+    public synchronized void testSuiteFinished(Description description) throws Exception {
+        format.suiteFinished(description);
+    }
+
+    @Override
+    public synchronized void testStarted(Description description) throws Exception {
+        running.put(description, new TestRecord(description, System.nanoTime()));
+    }
+
+    @Override
+    public synchronized void testFinished(Description description) throws Exception {
+        TestRecord record = running.remove(description);
+        if (record == null) {
+            record = new TestRecord(description, System.nanoTime());
+        }
+        record.nanos = System.nanoTime() - record.startNanos;
+        format.test(record);
+    }
+
+    @Override
+    public synchronized void testFailure(Failure failure) throws Exception {
+        TestRecord record = running.get(failure.getDescription());
+        if (record == null) {
+            // a failure outside of a test, such as one of a @BeforeClass method
+            record = new TestRecord(failure.getDescription(), System.nanoTime());
+            record.status = TestRecord.Status.FAILED;
+            record.failures.add(failure);
+            format.test(record);
+        } else {
+            record.status = TestRecord.Status.FAILED;
+            record.failures.add(failure);
+        }
+    }
+
+    @Override
+    public synchronized void testAssumptionFailure(Failure failure) {
+        TestRecord record = running.get(failure.getDescription());
+        if (record != null) {
+            if (record.status == TestRecord.Status.PASSED) {
+                record.status = TestRecord.Status.ASSUMPTION_FAILED;
+            }
+            record.failures.add(failure);
+        }
+    }
+
+    @Override
+    public synchronized void testIgnored(Description description) throws Exception {
+        TestRecord record = new TestRecord(description, System.nanoTime());
+        record.status = TestRecord.Status.IGNORED;
+        format.test(record);
+    }
+
+    @Override
+    public synchronized void testsFinished(TestBatch batch) throws Exception {
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            TestRecord record = new TestRecord(batch.getDescription(i), now);
+            switch (batch.getOutcome(i)) {
+                case FAILED:
+                    record.status = TestRecord.Status.FAILED;
+                    record.failures.add(batch.getFailure(i));
+                    break;
+                case ASSUMPTION_FAILED:
+                    record.status = TestRecord.Status.ASSUMPTION_FAILED;
+                    record.failures.add(batch.getFailure(i));
+                    break;
+                case IGNORED:
+                    record.status = TestRecord.Status.IGNORED;
+                    break;
+                default:
+                    break;
+            }
+            format.test(record);
+        }
+    }
+}
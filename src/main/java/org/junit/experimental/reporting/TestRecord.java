@@ -0,0 +1,87 @@
+package org.junit.experimental.reporting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.internal.ThrowableSnapshot;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+
+/**
+ * The outcome of an atomic test, as it is written to a report.
+ */
+final class TestRecord {
+    enum Status {
+        PASSED("passed"), FAILED("failed"), ASSUMPTION_FAILED("assumptionFailed"), IGNORED("ignored");
+
+        final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+    }
+
+    final Description description;
+    final long startNanos;
+    Status status = Status.PASSED;
+    final List<Failure> failures = new ArrayList<Failure>(1);
+    long nanos;
+
+    TestRecord(Description description, long startNanos) {
+        this.description = description;
+        this.startNanos = startNanos;
+    }
+
+    String getClassName() {
+        return description.getClassName();
+    }
+
+    /**
+     * @return the method name, or the display name of descriptions that do not
+     *         describe a method, such as the ones of failures in {@code @BeforeClass}
+     */
+    String getName() {
+        String methodName = description.getMethodName();
+        return methodName != null ? methodName : description.getDisplayName();
+    }
+
+    static String typeOf(Failure failure) {
+        Throwable exception = failure.getException();
+        if (exception instanceof ThrowableSnapshot) {
+            return ((ThrowableSnapshot) exception).getClassName();
+        }
+        return exception == null ? null : exception.getClass().getName();
+    }
+
+    static String messageOf(Failure failure) {
+        return failure.getException() == null ? null : failure.getMessage();
+    }
+
+    static String traceOf(Failure failure) {
+        return failure.getException() == null ? null : failure.getTrimmedTrace();
+    }
+
+    /**
+     * @return {@code true} if the failure is an assertion failure rather than
+     *         an unexpected exception
+     */
+    static boolean isAssertionFailure(Failure failure) {
+        Throwable exception = failure.getException();
+        if (exception instanceof ThrowableSnapshot) {
+            String type = ((ThrowableSnapshot) exception).getClassName();
+            return type.equals(AssertionError.class.getName())
+                    || type.equals(org.junit.ComparisonFailure.class.getName());
+        }
+        return exception instanceof AssertionError;
+    }
+
+    /**
+     * Formats a duration in seconds with three decimals, independently of the
+     * default locale.
+     */
+    static String seconds(long nanos) {
+        long millis = nanos / 1000000;
+        long fraction = millis % 1000;
+        return (millis / 1000) + (fraction < 10 ? ".00" : fraction < 100 ? ".0" : ".") + fraction;
+    }
+}
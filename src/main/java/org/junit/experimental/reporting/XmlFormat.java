@@ -0,0 +1,186 @@
+package org.junit.experimental.reporting;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+/**
+ * Writes a {@code <testsuites>} document with a {@code <testsuite>} element
+ * in the format of Ant's JUnit task for each test class. The elements of a
+ * class are kept in memory until the class finished. The closing tag of the
+ * document is written after each class and overwritten by the next one, so
+ * that the file is always a complete document.
+ */
+final class XmlFormat extends ReportFormat {
+    private static final String TRAILER = "</testsuites>\n";
+
+    // class name -> test cases of the class that have not been written yet
+    private final Map<String, Suite> suites = new LinkedHashMap<String, Suite>();
+
+    XmlFormat(ChannelWriter writer) throws IOException {
+        super(writer);
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuites>\n");
+        writer.flush(TRAILER);
+    }
+
+    @Override
+    void runStarted(Description description) {
+    }
+
+    @Override
+    void test(TestRecord record) {
+        String className = record.getClassName();
+        Suite suite = suites.get(className);
+        if (suite == null) {
+            suite = new Suite(className);
+            suites.put(className, suite);
+        }
+        suite.add(record);
+    }
+
+    @Override
+    void suiteFinished(Description description) throws IOException {
+        Suite suite = suites.remove(description.getClassName());
+        if (suite != null) {
+            writer.write(suite.toXml());
+            writer.flush(TRAILER);
+        }
+    }
+
+    @Override
+    void runFinished(Result result, long nanos) throws IOException {
+        for (Suite each : suites.values()) {
+            writer.write(each.toXml());
+        }
+        suites.clear();
+        writer.flush(TRAILER);
+    }
+
+    private static class Suite {
+        final String name;
+        final StringBuilder testCases = new StringBuilder();
+        int tests;
+        int failures;
+        int errors;
+        int skipped;
+        long nanos;
+
+        Suite(String name) {
+            this.name = name;
+        }
+
+        void add(TestRecord record) {
+            tests++;
+            nanos += record.nanos;
+            testCases.append("    <testcase classname=\"");
+            appendEscaped(testCases, record.getClassName());
+            testCases.append("\" name=\"");
+            appendEscaped(testCases, record.getName());
+            testCases.append("\" time=\"").append(TestRecord.seconds(record.nanos)).append('"');
+            if (record.status == TestRecord.Status.PASSED) {
+                testCases.append("/>\n");
+                return;
+            }
+            testCases.append(">\n");
+            if (record.status == TestRecord.Status.IGNORED) {
+                skipped++;
+                testCases.append("      <skipped/>\n");
+            }
+            for (Failure each : record.failures) {
+                String element;
+                if (record.status == TestRecord.Status.ASSUMPTION_FAILED) {
+                    skipped++;
+                    element = "skipped";
+                } else if (TestRecord.isAssertionFailure(each)) {
+                    failures++;
+                    element = "failure";
+                } else {
+                    errors++;
+                    element = "error";
+                }
+                appendFailure(element, each);
+            }
+            testCases.append("    </testcase>\n");
+        }
+
+        private void appendFailure(String element, Failure failure) {
+            testCases.append("      <").append(element);
+            String message = TestRecord.messageOf(failure);
+            if (message != null) {
+                testCases.append(" message=\"");
+                appendEscaped(testCases, message);
+                testCases.append('"');
+            }
+            String type = TestRecord.typeOf(failure);
+            if (type != null) {
+                testCases.append(" type=\"");
+                appendEscaped(testCases, type);
+                testCases.append('"');
+            }
+            testCases.append('>');
+            String trace = TestRecord.traceOf(failure);
+            if (trace != null) {
+                appendEscaped(testCases, trace, false);
+            }
+            testCases.append("</").append(element).append(">\n");
+        }
+
+        String toXml() {
+            StringBuilder xml = new StringBuilder(testCases.length() + 200);
+            xml.append("  <testsuite name=\"");
+            appendEscaped(xml, name);
+            xml.append("\" tests=\"").append(tests)
+                    .append("\" failures=\"").append(failures)
+                    .append("\" errors=\"").append(errors)
+                    .append("\" skipped=\"").append(skipped)
+                    .append("\" time=\"").append(TestRecord.seconds(nanos)).append("\">\n");
+            xml.append(testCases);
+            xml.append("  </testsuite>\n");
+            return xml.toString();
+        }
+    }
+
+    private static void appendEscaped(StringBuilder xml, String value) {
+        appendEscaped(xml, value, true);
+    }
+
+    /**
+     * Escapes markup characters and replaces characters that XML 1.0 does not
+     * allow. Line breaks and tabs are escaped in attribute values, where
+     * parsers would otherwise replace them by spaces.
+     */
+    private static void appendEscaped(StringBuilder xml, String value, boolean attribute) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    xml.append("&amp;");
+                    break;
+                case '<':
+                    xml.append("&lt;");
+                    break;
+                case '>':
+                    xml.append("&gt;");
+                    break;
+                case '"':
+                    xml.append("&quot;");
+                    break;
+                case '\n':
+                case '\r':
+                case '\t':
+                    if (attribute) {
+                        xml.append("&#").append((int) c).append(';');
+                    } else {
+                        xml.append(c);
+                    }
+                    break;
+                default:
+                    xml.append(c < 0x20 || c == 0xFFFE || c == 0xFFFF ? '\uFFFD' : c);
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package org.junit.experimental.sharding;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.experimental.max.MaxHistory;
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactory;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * {@link FilterFactory} that splits the tests of a run into disjoint shards,
+ * so that a run can be spread over several JVMs or CI nodes. Running every
+ * shard from {@code 0} to {@code total - 1} runs every test exactly once.
+ *
+ * By default a test is assigned to a shard by a stable hash of its display
+ * name, which balances shards by test count and does not depend on the other
+ * tests of the run. The display name is used rather than the unique ID of the
+ * {@link Description} because the unique ID is not exposed and, for
+ * descriptions created with an arbitrary {@link java.io.Serializable} ID,
+ * need not hash the same in every JVM. For the descriptions created by the
+ * standard runners, the unique ID is the display name. Tests with the same
+ * display name always end up in the same shard. If a {@link MaxHistory} file is given, the tests of the
+ * run are instead distributed so that each shard gets about the same recorded
+ * duration; all shards must then see the same tests and the same history file.
+ *
+ * Usage from command line, writing the result of the shard so that
+ * {@link ShardResults} can merge it with the results of the other shards:
+ * <code>
+ *     --filter=org.junit.experimental.sharding.ShardFilterFactory=3/16 --result-file=shard-3.ser
+ *     --filter=org.junit.experimental.sharding.ShardFilterFactory=3/16,path/to/history
+ * </code>
+ *
+ * Usage from API:
+ * <code>
+ *     ShardFilterFactory.createFilter(3, 16);
+ * </code>
+ *
+ * @see ShardResults
+ * @since 4.14
+ */
+public final class ShardFilterFactory implements FilterFactory {
+    /**
+     * Creates a {@link Filter} given a {@link FilterFactoryParams} argument of
+     * the form {@code index/total} or {@code index/total,historyFile}, where
+     * {@code index} is zero-based.
+     *
+     * @param params Parameters needed to create the {@link Filter}
+     */
+    public Filter createFilter(FilterFactoryParams params) throws FilterNotCreatedException {
+        String[] args = params.getArgs().split(",", 2);
+        String[] shard = args[0].split("/", 2);
+        try {
+            if (shard.length != 2) {
+                throw new IllegalArgumentException(
+                        "Expected a shard of the form index/total but got '" + args[0] + "'");
+            }
+            int index = Integer.parseInt(shard[0].trim());
+            int total = Integer.parseInt(shard[1].trim());
+            if (args.length == 1) {
+                return createFilter(index, total);
+            }
+            MaxHistory history = MaxHistory.forFolder(new File(args[1]));
+            return createFilter(index, total, params.getTopLevelDescription(), history);
+        } catch (IllegalArgumentException e) {
+            throw new FilterNotCreatedException(e);
+        }
+    }
+
+    /**
+     * Creates a {@link Filter} that only runs the tests hashed into shard
+     * {@code index} of {@code total}.
+     *
+     * @param index the zero-based index of the shard to run
+     * @param total the number of shards
+     */
+    public static Filter createFilter(int index, int total) {
+        return new ShardFilter(index, total, null);
+    }
+
+    /**
+     * Creates a {@link Filter} that only runs the tests of {@code tests} that
+     * fall into shard {@code index} of {@code total} when the tests are
+     * balanced by the durations recorded in {@code history}.
+     *
+     * @param index the zero-based index of the shard to run
+     * @param total the number of shards
+     * @param tests the tests of the whole run
+     * @param history the recorded durations of the tests
+     */
+    public static Filter createFilter(int index, int total, Description tests, MaxHistory history) {
+        return new ShardFilter(index, total, balance(total, tests, history));
+    }
+
+    /**
+     * Assigns the tests to shards, longest first, each to the shard with the
+     * smallest total duration so far. Ties are broken by name, so every shard
+     * computes the same assignment.
+     */
+    private static Map<String, Integer> balance(int total, Description tests, MaxHistory history) {
+        final Map<String, Long> durations = new LinkedHashMap<String, Long>();
+        long known = 0;
+        int knownCount = 0;
+        for (Description each : leaves(tests)) {
+            Long duration = history.getTestDuration(each);
+            durations.put(each.getDisplayName(), duration);
+            if (duration != null) {
+                known += duration;
+                knownCount++;
+            }
+        }
+        long unknownDuration = knownCount == 0 ? 1 : known / knownCount;
+        for (Map.Entry<String, Long> each : durations.entrySet()) {
+            if (each.getValue() == null) {
+                each.setValue(unknownDuration);
+            }
+        }
+
+        List<String> names = new ArrayList<String>(durations.keySet());
+        Collections.sort(names, new Comparator<String>() {
+            public int compare(String o1, String o2) {
+                int result = durations.get(o2).compareTo(durations.get(o1));
+                return result != 0 ? result : o1.compareTo(o2);
+            }
+        });
+        long[] loads = new long[Math.max(total, 1)];
+        Map<String, Integer> assignments = new HashMap<String, Integer>();
+        for (String each : names) {
+            int shard = 0;
+            for (int i = 1; i < loads.length; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += durations.get(each);
+            assignments.put(each, shard);
+        }
+        return assignments;
+    }
+
+    private static List<Description> leaves(Description description) {
+        List<Description> leaves = new ArrayList<Description>();
+        collectLeaves(description, leaves);
+        return leaves;
+    }
+
+    private static void collectLeaves(Description description, List<Description> leaves) {
+        if (description.isTest()) {
+            leaves.add(description);
+        } else {
+            for (Description each : description.getChildrenView()) {
+                collectLeaves(each, leaves);
+            }
+        }
+    }
+
+    private static class ShardFilter extends Filter {
+        private final int index;
+        private final int total;
+        private final Map<String, Integer> assignments;
+
+        ShardFilter(int index, int total, Map<String, Integer> assignments) {
+            if (total < 1) {
+                throw new IllegalArgumentException("The number of shards must be positive");
+            }
+            if (index < 0 || index >= total) {
+                throw new IllegalArgumentException(
+                        "The shard index must be between 0 and " + (total - 1) + " but was " + index);
+            }
+            this.index = index;
+            this.total = total;
+            this.assignments = assignments;
+        }
+
+        @Override
+        public boolean shouldRun(Description description) {
+            if (description.isTest()) {
+                return shardOf(description) == index;
+            }
+            for (Description each : description.getChildrenView()) {
+                if (shouldRun(each)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int shardOf(Description test) {
+            String name = test.getDisplayName();
+            if (assignments != null) {
+                Integer shard = assignments.get(name);
+                if (shard != null) {
+                    return shard;
+                }
+            }
+            return (stableHash(name) & Integer.MAX_VALUE) % total;
+        }
+
+        /**
+         * Spreads the bits of {@link String#hashCode()}, which is the same on
+         * every JVM, so that similar names end up in different shards.
+         */
+        private static int stableHash(String name) {
+            int hash = name.hashCode();
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            hash *= 0xc2b2ae35;
+            hash ^= hash >>> 16;
+            return hash;
+        }
+
+        @Override
+        public String describe() {
+            return "shard " + index + " of " + total;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.junit.experimental.sharding;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.internal.RealSystem;
+import org.junit.internal.TextListener;
+import org.junit.runner.Result;
+
+/**
+ * Reads, writes and merges the serialized {@link Result}s of the shards of a
+ * test run, see {@link ShardFilterFactory}.
+ *
+ * <p>Each shard writes its result when {@link org.junit.runner.JUnitCore} is
+ * run with the {@code --result-file} option, or through
+ * {@link #write(Result, File)}:
+ * <pre>
+ * java org.junit.runner.JUnitCore --filter=org.junit.experimental.sharding.ShardFilterFactory=0/2 --result-file=shard-0.ser ...
+ * java org.junit.runner.JUnitCore --filter=org.junit.experimental.sharding.ShardFilterFactory=1/2 --result-file=shard-1.ser ...
+ * </pre>
+ *
+ * <p>From the command line, merges the given shard results into one file and
+ * prints a summary of the merged result:
+ * <pre>
+ * java org.junit.experimental.sharding.ShardResults merged.ser shard-0.ser shard-1.ser
+ * </pre>
+ *
+ * @since 4.14
+ */
+public final class ShardResults {
+    private ShardResults() {
+    }
+
+    /**
+     * Merges the results in {@code args[1..]} into {@code args[0]} and prints
+     * a summary. Exits with status 0 if all the merged tests passed, 1 otherwise.
+     */
+    public static void main(String... args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardResults <merged-result> <shard-result>...");
+            System.exit(2);
+        }
+        try {
+            List<File> shards = new ArrayList<File>();
+            for (int i = 1; i < args.length; i++) {
+                shards.add(new File(args[i]));
+            }
+            Result result = merge(shards);
+            write(result, new File(args[0]));
+            new TextListener(new RealSystem()).testRunFinished(result);
+            System.exit(result.wasSuccessful() ? 0 : 1);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Reads and merges the results stored in {@code shards}.
+     *
+     * @see Result#merge(java.util.Collection)
+     */
+    public static Result merge(List<File> shards) throws IOException {
+        List<Result> results = new ArrayList<Result>(shards.size());
+        for (File each : shards) {
+            results.add(read(each));
+        }
+        return Result.merge(results);
+    }
+
+    /**
+     * Reads a {@link Result} written by {@link #write(Result, File)}.
+     */
+    public static Result read(File file) throws IOException {
+        ObjectInputStream stream = new ObjectInputStream(new FileInputStream(file));
+        try {
+            return (Result) stream.readObject();
+        } catch (ClassNotFoundException e) {
+            IOException exception = new IOException("Could not read result from " + file);
+            exception.initCause(e);
+            throw exception;
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Serializes {@code result} to {@code file}.
+     */
+    public static void write(Result result, File file) throws IOException {
+        ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream(file));
+        try {
+            stream.writeObject(result);
+        } finally {
+            stream.close();
+        }
+    }
+}
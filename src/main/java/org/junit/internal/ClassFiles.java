@@ -0,0 +1,87 @@
+package org.junit.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Functions for reading and hashing class files.
+ *
+ * @since 4.14
+ */
+public final class ClassFiles {
+    private ClassFiles() {
+    }
+
+    /**
+     * Returns the resource name of the class file of {@code className}.
+     */
+    public static String fileName(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+
+    /**
+     * Returns a hex encoded SHA-1 hash of the class file of {@code clazz}, or
+     * {@code null} if it cannot be read.
+     */
+    public static String hash(Class<?> clazz) {
+        ClassLoader loader = clazz.getClassLoader();
+        URL url = loader == null
+                ? ClassLoader.getSystemResource(fileName(clazz.getName()))
+                : loader.getResource(fileName(clazz.getName()));
+        if (url == null) {
+            return null;
+        }
+        try {
+            return hash(read(url));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a hex encoded SHA-1 hash of {@code content}.
+     */
+    public static String hash(byte[] content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported", e);
+        }
+        byte[] hash = digest.digest(content);
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte each : hash) {
+            hex.append(Character.forDigit((each >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(each & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Reads the content of the resource at {@code url}.
+     */
+    public static byte[] read(URL url) throws IOException {
+        InputStream stream = url.openStream();
+        try {
+            byte[] buffer = new byte[8192];
+            int length = 0;
+            int read;
+            while ((read = stream.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                if (length == buffer.length) {
+                    byte[] larger = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    buffer = larger;
+                }
+            }
+            byte[] content = new byte[length];
+            System.arraycopy(buffer, 0, content, 0, length);
+            return content;
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.junit.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reads and writes strings in the binary files of JUnit, such as the
+ * checkpoint, event journal and history files, as their length followed by
+ * their UTF-8 bytes.
+ *
+ * @since 4.14
+ */
+public final class DataStrings {
+
+    private DataStrings() {}
+
+    /**
+     * Writes a string that may be {@code null} or longer than
+     * {@link DataOutput#writeUTF(String)} allows.
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string that was written by {@link #writeString(DataOutput, String)}.
+     */
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+}
@@ -0,0 +1,97 @@
+package org.junit.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Functions for reading and writing the UTF-8 encoded text files in which
+ * JUnit keeps data between runs. Lines that start with {@code #} are comments.
+ *
+ * @since 4.14
+ */
+public final class TextFiles {
+    private static final String CHARSET = "UTF-8";
+
+    private TextFiles() {
+    }
+
+    /**
+     * Returns the lines of {@code file} that are neither empty nor comments.
+     */
+    public static List<String> readLines(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), CHARSET));
+        try {
+            List<String> lines = new ArrayList<String>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() > 0 && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Replaces the content of {@code file} with the comment {@code header}
+     * followed by {@code lines}.
+     */
+    public static void writeLines(File file, String header, Iterable<String> lines)
+            throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), CHARSET));
+        try {
+            writer.write("# " + header + "\n");
+            for (String each : lines) {
+                writer.write(each + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Adds the entries of {@code file} to {@code entries}. Each line holds a
+     * key and a value that are separated by the last space of the line, so
+     * keys may contain spaces but values may not.
+     *
+     * @param name what the file holds, for error messages
+     */
+    public static void readEntries(File file, String name, Map<String, String> entries)
+            throws IOException {
+        for (String each : readLines(file)) {
+            int separator = each.lastIndexOf(' ');
+            if (separator < 0) {
+                throw new IOException("Malformed " + name + " " + file + ": " + each);
+            }
+            entries.put(each.substring(0, separator), each.substring(separator + 1));
+        }
+    }
+
+    /**
+     * Replaces the content of {@code file} with the comment {@code header}
+     * followed by {@code entries} in the format read by
+     * {@link #readEntries(File, String, Map)}.
+     */
+    public static void writeEntries(File file, String header, Map<String, String> entries)
+            throws IOException {
+        List<String> lines = new ArrayList<String>(entries.size());
+        for (Map.Entry<String, String> each : entries.entrySet()) {
+            lines.add(each.getKey() + " " + each.getValue());
+        }
+        writeLines(file, header, lines);
+    }
+}
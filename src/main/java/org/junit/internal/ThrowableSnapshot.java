@@ -0,0 +1,169 @@
+package org.junit.internal;
+
+import static org.junit.internal.DataStrings.readString;
+import static org.junit.internal.DataStrings.writeString;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A copy of a {@link Throwable} that keeps the class name, the message and
+ * the stack trace of the original and of its causes, but no reference to the
+ * original or to anything the original references.
+ *
+ * <p>The stack trace of the original is trimmed like the one of
+ * {@link org.junit.runner.notification.Failure#getTrimmedTrace()}, and the
+ * stack traces of the causes leave out the frames they have in common with
+ * the trace they caused. Suppressed exceptions are not copied.
+ *
+ * @since 4.14
+ */
+public class ThrowableSnapshot extends Throwable {
+    private static final long serialVersionUID = 1L;
+
+    private final String className;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param className the name of the class of the original {@code Throwable}
+     * @param message the message of the original {@code Throwable}
+     * @param stackTrace the stack trace of the original {@code Throwable}
+     * @param cause the snapshot of the cause of the original {@code Throwable}, or {@code null}
+     */
+    public ThrowableSnapshot(String className, String message,
+            StackTraceElement[] stackTrace, ThrowableSnapshot cause) {
+        super(message, cause);
+        this.className = className;
+        setStackTrace(stackTrace);
+    }
+
+    /**
+     * Creates a snapshot of {@code throwable}, or returns it if it already is
+     * a snapshot.
+     */
+    public static ThrowableSnapshot of(Throwable throwable) {
+        if (throwable instanceof ThrowableSnapshot) {
+            return (ThrowableSnapshot) throwable;
+        }
+        return of(throwable, Throwables.getTrimmedStackTraceElements(throwable),
+                new IdentityHashMap<Throwable, Boolean>());
+    }
+
+    private static ThrowableSnapshot of(Throwable throwable, StackTraceElement[] stackTrace,
+            Map<Throwable, Boolean> enclosing) {
+        enclosing.put(throwable, Boolean.TRUE);
+        Throwable cause = throwable.getCause();
+        ThrowableSnapshot causeSnapshot = null;
+        if (cause instanceof ThrowableSnapshot) {
+            causeSnapshot = (ThrowableSnapshot) cause;
+        } else if (cause != null && !enclosing.containsKey(cause)) {
+            causeSnapshot = of(cause,
+                    withoutFramesInCommon(cause.getStackTrace(), throwable.getStackTrace()),
+                    enclosing);
+        }
+        return new ThrowableSnapshot(throwable.getClass().getName(), messageOf(throwable),
+                stackTrace, causeSnapshot);
+    }
+
+    private static String messageOf(Throwable throwable) {
+        try {
+            return throwable.getMessage();
+        } catch (RuntimeException e) {
+            return "<getMessage() threw " + e.getClass().getName() + ">";
+        }
+    }
+
+    private static StackTraceElement[] withoutFramesInCommon(StackTraceElement[] stackTrace,
+            StackTraceElement[] enclosingTrace) {
+        int length = stackTrace.length;
+        int enclosingLength = enclosingTrace.length;
+        while (length > 0 && enclosingLength > 0
+                && stackTrace[length - 1].equals(enclosingTrace[enclosingLength - 1])) {
+            length--;
+            enclosingLength--;
+        }
+        StackTraceElement[] unique = new StackTraceElement[length];
+        System.arraycopy(stackTrace, 0, unique, 0, length);
+        return unique;
+    }
+
+    /**
+     * Writes this snapshot and its causes to {@code out}, in a form that
+     * {@link #readFrom(DataInput)} reads.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        List<ThrowableSnapshot> chain = new ArrayList<ThrowableSnapshot>();
+        for (Throwable each = this; each instanceof ThrowableSnapshot; each = each.getCause()) {
+            chain.add((ThrowableSnapshot) each);
+        }
+        out.writeInt(chain.size());
+        for (ThrowableSnapshot each : chain) {
+            writeString(out, each.getClassName());
+            writeString(out, each.getMessage());
+            StackTraceElement[] stackTrace = each.getStackTrace();
+            out.writeInt(stackTrace.length);
+            for (StackTraceElement element : stackTrace) {
+                writeString(out, element.getClassName());
+                writeString(out, element.getMethodName());
+                writeString(out, element.getFileName());
+                out.writeInt(element.getLineNumber());
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot that was written by {@link #writeTo(DataOutput)}.
+     */
+    public static ThrowableSnapshot readFrom(DataInput in) throws IOException {
+        int chainLength = in.readInt();
+        String[] classNames = new String[chainLength];
+        String[] messages = new String[chainLength];
+        StackTraceElement[][] stackTraces = new StackTraceElement[chainLength][];
+        for (int i = 0; i < chainLength; i++) {
+            classNames[i] = readString(in);
+            messages[i] = readString(in);
+            stackTraces[i] = new StackTraceElement[in.readInt()];
+            for (int j = 0; j < stackTraces[i].length; j++) {
+                stackTraces[i][j] = new StackTraceElement(
+                        readString(in), readString(in), readString(in), in.readInt());
+            }
+        }
+        ThrowableSnapshot snapshot = null;
+        for (int i = chainLength - 1; i >= 0; i--) {
+            snapshot = new ThrowableSnapshot(classNames[i], messages[i], stackTraces[i], snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the name of the class of the original {@code Throwable}
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Does not capture the stack of the caller, because the stack trace is
+     * the one of the original.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    /**
+     * Returns the same text as the original {@code Throwable} would, unless
+     * the original overrides {@code toString()}.
+     */
+    @Override
+    public String toString() {
+        String message = getLocalizedMessage();
+        return message == null ? className : className + ": " + message;
+    }
+}
@@ -84,25 +84,54 @@ public final class Throwables {
 
     private static List<String> getTrimmedStackTraceLines(Throwable exception) {
         List<StackTraceElement> stackTraceElements = Arrays.asList(exception.getStackTrace());
+        int linesToInclude = trimmedLength(stackTraceElements);
+        if (linesToInclude < 0) {
+            return Collections.emptyList();
+        }
+        List<String> trimmedLines = new ArrayList<String>(linesToInclude + 2);
+        trimmedLines.add("");
+        for (StackTraceElement each : stackTraceElements.subList(0, linesToInclude)) {
+            trimmedLines.add("\tat " + each);
+        }
+        if (exception.getCause() != null) {
+            trimmedLines.add("\t... " + (stackTraceElements.size() - trimmedLines.size()) + " trimmed");
+        }
+        return trimmedLines;
+    }
+
+    /**
+     * Gets the stack trace of the given exception without the elements that
+     * are below the test method.
+     *
+     * @return the trimmed stack trace, or the original one if trimming wasn't possible
+     */
+    static StackTraceElement[] getTrimmedStackTraceElements(Throwable exception) {
+        StackTraceElement[] stackTrace = exception.getStackTrace();
+        int length = trimmedLength(Arrays.asList(stackTrace));
+        if (length < 0) {
+            return stackTrace;
+        }
+        StackTraceElement[] trimmed = new StackTraceElement[length];
+        System.arraycopy(stackTrace, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    /**
+     * Returns the number of stack trace elements above the test method, or -1
+     * if the test method cannot be found.
+     */
+    private static int trimmedLength(List<StackTraceElement> stackTraceElements) {
         int linesToInclude = stackTraceElements.size();
 
         State state = State.PROCESSING_OTHER_CODE;
         for (StackTraceElement stackTraceElement : asReversedList(stackTraceElements)) {
             state = state.processStackTraceElement(stackTraceElement);
             if (state == State.DONE) {
-                List<String> trimmedLines = new ArrayList<String>(linesToInclude + 2);
-                trimmedLines.add("");
-                for (StackTraceElement each : stackTraceElements.subList(0, linesToInclude)) {
-                    trimmedLines.add("\tat " + each);
-                }
-                if (exception.getCause() != null) {
-                    trimmedLines.add("\t... " + (stackTraceElements.size() - trimmedLines.size()) + " trimmed");
-                }
-                return trimmedLines;
+                return linesToInclude;
             }
             linesToInclude--;
         }
-        return Collections.emptyList();
+        return -1;
     }
 
     private static final Method getSuppressed = initGetSuppressed();
@@ -0,0 +1,94 @@
+package org.junit.internal;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Reflective access to the virtual threads of Java 21 and later, so that JUnit
+ * can use them while still running on older JVMs.
+ *
+ * @since 4.14
+ */
+public final class VirtualThreads {
+    private static final class Holder {
+        static final Method OF_VIRTUAL;
+        static final Method NAME;
+        static final Method UNSTARTED;
+
+        static {
+            Method ofVirtual = null;
+            Method name = null;
+            Method unstarted = null;
+            try {
+                Class<?> builderClass = Classes.getClass("java.lang.Thread$Builder");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                name = builderClass.getMethod("name", String.class);
+                unstarted = builderClass.getMethod("unstarted", Runnable.class);
+            } catch (ClassNotFoundException e) {
+                // do nothing, the methods will be null if virtual threads are not supported
+            } catch (NoSuchMethodException e) {
+                // do nothing, the methods will be null if virtual threads are not supported
+            } catch (SecurityException e) {
+                // do nothing, the methods will be null if virtual threads are not supported
+            }
+            OF_VIRTUAL = ofVirtual;
+            NAME = name;
+            UNSTARTED = unstarted;
+        }
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns {@code true} if this JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return Holder.UNSTARTED != null;
+    }
+
+    /**
+     * Creates an unstarted virtual thread that runs {@code runnable}.
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static Thread newThread(String name, Runnable runnable) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        Exception error;
+        try {
+            Object builder = Holder.NAME.invoke(Holder.OF_VIRTUAL.invoke(null), name);
+            return (Thread) Holder.UNSTARTED.invoke(builder, runnable);
+        } catch (IllegalAccessException e) {
+            error = e;
+        } catch (InvocationTargetException e) {
+            error = e;
+        }
+        throw new UnsupportedOperationException("Unable to create a virtual thread", error);
+    }
+
+    /**
+     * Returns a factory of virtual threads named {@code namePrefix} followed
+     * by a sequence number.
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static ThreadFactory threadFactory(final String namePrefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        return new ThreadFactory() {
+            private int threadNumber = 1;
+
+            public Thread newThread(Runnable runnable) {
+                int number;
+                synchronized (this) {
+                    number = threadNumber++;
+                }
+                return VirtualThreads.newThread(namePrefix + number, runnable);
+            }
+        };
+    }
+}
@@ -23,5 +23,14 @@ final class FakeThreadMXBean implements ThreadMXBean {
     return false;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Always returns false.
+   */
+  public boolean isThreadCpuTimeEnabled() {
+    return false;
+  }
+
 }
 
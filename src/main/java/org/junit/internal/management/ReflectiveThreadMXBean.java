@@ -15,16 +15,19 @@ final class ReflectiveThreadMXBean implements ThreadMXBean {
   private static final class Holder {
     static final Method getThreadCpuTimeMethod;
     static final Method isThreadCpuTimeSupportedMethod;
+    static final Method isThreadCpuTimeEnabledMethod;
 
     private static final String FAILURE_MESSAGE = "Unable to access ThreadMXBean";
 
     static {
       Method threadCpuTime = null;
       Method threadCpuTimeSupported = null;
+      Method threadCpuTimeEnabled = null;
       try {
         Class<?> threadMXBeanClass = Classes.getClass("java.lang.management.ThreadMXBean");
         threadCpuTime = threadMXBeanClass.getMethod("getThreadCpuTime", long.class);
         threadCpuTimeSupported = threadMXBeanClass.getMethod("isThreadCpuTimeSupported");
+        threadCpuTimeEnabled = threadMXBeanClass.getMethod("isThreadCpuTimeEnabled");
       } catch (ClassNotFoundException e) {
         // do nothing, the methods will be null on failure
       } catch (NoSuchMethodException e) {
@@ -34,6 +37,7 @@ final class ReflectiveThreadMXBean implements ThreadMXBean {
       }
       getThreadCpuTimeMethod = threadCpuTime;
       isThreadCpuTimeSupportedMethod = threadCpuTimeSupported;
+      isThreadCpuTimeEnabledMethod = threadCpuTimeEnabled;
     }
   }
 
@@ -88,5 +92,24 @@ final class ReflectiveThreadMXBean implements ThreadMXBean {
     return false;
   }
 
-}
+  /**
+   * {@inheritDoc}
+   */
+  public boolean isThreadCpuTimeEnabled() {
+    if (Holder.isThreadCpuTimeEnabledMethod != null) {
+      try {
+        return (Boolean) Holder.isThreadCpuTimeEnabledMethod.invoke(threadMxBean);
+      } catch (ClassCastException e) {
+        // fallthrough
+      } catch (IllegalAccessException e) {
+        // fallthrough
+      } catch (IllegalArgumentException e) {
+        // fallthrough
+      } catch (InvocationTargetException e) {
+        // fallthrough
+      }
+    }
+    return false;
+  }
 
+}
@@ -13,5 +13,11 @@ public interface ThreadMXBean {
    * @see java.lang.management.ThreadMXBean#isThreadCpuTimeSupported()
    */
   boolean isThreadCpuTimeSupported();
+
+  /**
+   * @see java.lang.management.ThreadMXBean#isThreadCpuTimeEnabled()
+   * @since 4.14
+   */
+  boolean isThreadCpuTimeEnabled();
 }
 
@@ -0,0 +1,28 @@
+package org.junit.internal.requests;
+
+import org.junit.internal.runners.LimitedRunner;
+import org.junit.runner.Request;
+import org.junit.runner.RunLimits;
+import org.junit.runner.Runner;
+
+/**
+ * A {@link Request} whose run stops when one of its {@link RunLimits} is
+ * reached.
+ *
+ * @since 4.14
+ */
+public final class LimitedRequest extends MemoizingRequest {
+    private final Request request;
+    private final RunLimits limits;
+
+    public LimitedRequest(Request request, RunLimits limits) {
+        this.request = request;
+        this.limits = limits;
+    }
+
+    @Override
+    protected Runner createRunner() {
+        Runner runner = request.getRunner();
+        return limits.isLimited() ? new LimitedRunner(runner, limits) : runner;
+    }
+}
@@ -0,0 +1,226 @@
+package org.junit.internal.runners;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.internal.runners.statements.FailOnTimeout;
+import org.junit.runner.Description;
+import org.junit.runner.RunLimits;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.InvalidOrderingException;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Orderable;
+import org.junit.runner.manipulation.Orderer;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+import org.junit.runner.notification.TestBatch;
+
+/**
+ * Runs the tests of another runner until one of its {@link RunLimits} is
+ * reached.
+ *
+ * <p>The tests run with their own {@link RunNotifier}, which is stopped when
+ * a limit is reached, so that the notifier of the caller can be used for
+ * later runs. A watcher thread stops the run when the time budget is used up
+ * and interrupts the threads of the tests that are still running when the
+ * grace period is over. For tests with a timeout, that is the thread that
+ * runs the test rather than the thread that waits for it. The tests that did not start are reported as
+ * skipped afterwards, and the run ends normally.
+ *
+ * @since 4.14
+ */
+public final class LimitedRunner extends Runner implements Filterable, Orderable {
+    private final Runner runner;
+    private final RunLimits limits;
+
+    public LimitedRunner(Runner runner, RunLimits limits) {
+        this.runner = runner;
+        this.limits = limits;
+    }
+
+    @Override
+    public Description getDescription() {
+        return runner.getDescription();
+    }
+
+    @Override
+    public int testCount() {
+        return runner.testCount();
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        Run run = new Run(new StoppableRunNotifier(notifier));
+        notifier.addListener(run);
+        Thread watcher = new Thread(run, "junit-run-limits");
+        watcher.setDaemon(true);
+        watcher.start();
+        try {
+            runner.run(run.notifier);
+        } catch (StoppedByUserException e) {
+            if (run.notifier.getStopReason() == null || notifier.isStopRequested()) {
+                throw e;
+            }
+        } finally {
+            notifier.removeListener(run);
+            run.finish();
+        }
+        String reason = run.notifier.getStopReason();
+        if (reason != null) {
+            TestBatch skipped = new TestBatch();
+            addUnstartedTests(getDescription(), run, new AssumptionViolatedException(reason), skipped);
+            if (skipped.size() > 0) {
+                notifier.fireTestsFinished(skipped);
+            }
+        }
+    }
+
+    private static void addUnstartedTests(Description description, Run run,
+            AssumptionViolatedException reason, TestBatch batch) {
+        if (run.reported.containsKey(description)) {
+            return;
+        }
+        if (description.isTest()) {
+            batch.assumptionFailed(new Failure(description, reason));
+        }
+        for (Description each : description.getChildrenView()) {
+            addUnstartedTests(each, run, reason, batch);
+        }
+    }
+
+    public void filter(Filter filter) throws NoTestsRemainException {
+        filter.apply(runner);
+    }
+
+    public void sort(Sorter sorter) {
+        sorter.apply(runner);
+    }
+
+    public void order(Orderer orderer) throws InvalidOrderingException {
+        if (runner instanceof Orderable) {
+            ((Orderable) runner).order(orderer);
+        }
+    }
+
+    /**
+     * The state of one run: the tests that have been reported, the threads of
+     * the tests that are running, and the watcher that stops the run.
+     */
+    @RunListener.ThreadSafe
+    private final class Run extends RunListener implements Runnable {
+        final StoppableRunNotifier notifier;
+        final Map<Description, Boolean> reported = new ConcurrentHashMap<Description, Boolean>();
+        private final Map<Description, Thread> running = new ConcurrentHashMap<Description, Thread>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final Thread caller = Thread.currentThread();
+        private final long startNanos = System.nanoTime();
+
+        // guarded by this
+        private boolean finished;
+        private boolean interruptedCaller;
+
+        Run(StoppableRunNotifier notifier) {
+            this.notifier = notifier;
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            reported.put(description, Boolean.TRUE);
+            running.put(description, Thread.currentThread());
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            running.remove(description);
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            reported.put(failure.getDescription(), Boolean.TRUE);
+            int maxFailures = limits.getMaxFailures();
+            if (maxFailures > 0 && failures.incrementAndGet() == maxFailures) {
+                stop("Run stopped after " + maxFailures
+                        + (maxFailures == 1 ? " failure" : " failures"));
+            }
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            reported.put(failure.getDescription(), Boolean.TRUE);
+        }
+
+        @Override
+        public void testIgnored(Description description) {
+            reported.put(description, Boolean.TRUE);
+        }
+
+        private synchronized void stop(String reason) {
+            if (!finished && notifier.stop(reason)) {
+                notifyAll();
+            }
+        }
+
+        /**
+         * Waits until the time budget is used up or the run is stopped, then
+         * for the grace period, and then interrupts the tests that are still
+         * running.
+         */
+        public synchronized void run() {
+            try {
+                long timeBudgetNanos = limits.getTimeBudgetNanos();
+                while (!finished && notifier.getStopReason() == null) {
+                    if (timeBudgetNanos == 0) {
+                        wait();
+                    } else {
+                        long remainingNanos = startNanos + timeBudgetNanos - System.nanoTime();
+                        if (remainingNanos <= 0) {
+                            stop("Run stopped after its time budget of "
+                                    + TimeUnit.NANOSECONDS.toMillis(timeBudgetNanos) + " ms");
+                        } else {
+                            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                        }
+                    }
+                }
+                long graceDeadline = System.nanoTime() + limits.getGracePeriodNanos();
+                while (!finished) {
+                    long remainingNanos = graceDeadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        interruptRunningTests();
+                        return;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                // the watcher is a daemon thread that nobody else interrupts
+            }
+        }
+
+        private void interruptRunningTests() {
+            for (Thread each : running.values()) {
+                Thread statementThread = FailOnTimeout.statementThreadOf(each);
+                interruptedCaller |= statementThread == caller;
+                statementThread.interrupt();
+            }
+        }
+
+        /**
+         * Stops the watcher and clears the interrupt status of the caller if
+         * the watcher set it.
+         */
+        synchronized void finish() {
+            finished = true;
+            notifyAll();
+            if (interruptedCaller) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.junit.internal.runners;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+import org.junit.runner.notification.TestBatch;
+
+/**
+ * A {@link RunNotifier} that passes all events to another one and that can be
+ * stopped on its own, without stopping the other one for later runs.
+ */
+final class StoppableRunNotifier extends RunNotifier {
+    private final RunNotifier delegate;
+    private volatile String stopReason;
+
+    StoppableRunNotifier(RunNotifier delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Stops the tests that use this notifier before they start the next test,
+     * unless they have already been stopped.
+     *
+     * @return whether this call stopped them
+     */
+    synchronized boolean stop(String reason) {
+        if (stopReason != null) {
+            return false;
+        }
+        stopReason = reason;
+        return true;
+    }
+
+    /**
+     * Returns the reason given to {@link #stop(String)}, or {@code null} if
+     * this notifier has not been stopped.
+     */
+    String getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public boolean isStopRequested() {
+        return stopReason != null || delegate.isStopRequested();
+    }
+
+    @Override
+    public void pleaseStop() {
+        delegate.pleaseStop();
+    }
+
+    @Override
+    public void addListener(RunListener listener) {
+        delegate.addListener(listener);
+    }
+
+    @Override
+    public void addFirstListener(RunListener listener) {
+        delegate.addFirstListener(listener);
+    }
+
+    @Override
+    public void removeListener(RunListener listener) {
+        delegate.removeListener(listener);
+    }
+
+    @Override
+    public void fireTestRunStarted(Description description) {
+        delegate.fireTestRunStarted(description);
+    }
+
+    @Override
+    public void fireTestRunFinished(Result result) {
+        delegate.fireTestRunFinished(result);
+    }
+
+    @Override
+    public void fireTestSuiteStarted(Description description) {
+        delegate.fireTestSuiteStarted(description);
+    }
+
+    @Override
+    public void fireTestSuiteFinished(Description description) {
+        delegate.fireTestSuiteFinished(description);
+    }
+
+    @Override
+    public void fireTestStarted(Description description) throws StoppedByUserException {
+        if (stopReason != null) {
+            throw new StoppedByUserException();
+        }
+        delegate.fireTestStarted(description);
+    }
+
+    @Override
+    public void fireTestFailure(Failure failure) {
+        delegate.fireTestFailure(failure);
+    }
+
+    @Override
+    public void fireTestAssumptionFailed(Failure failure) {
+        delegate.fireTestAssumptionFailed(failure);
+    }
+
+    @Override
+    public void fireTestIgnored(Description description) {
+        delegate.fireTestIgnored(description);
+    }
+
+    @Override
+    public void fireTestFinished(Description description) {
+        delegate.fireTestFinished(description);
+    }
+
+    @Override
+    public void fireTestsFinished(TestBatch batch) throws StoppedByUserException {
+        delegate.fireTestsFinished(batch);
+        if (stopReason != null) {
+            throw new StoppedByUserException();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.junit.internal.runners;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.junit.experimental.theories.Theories;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.JUnit4;
+import org.junit.runners.model.TestClass;
+import org.junit.runners.parameterized.BlockJUnit4ClassRunnerWithParameters;
+
+/**
+ * Remembers which test classes passed the validation of which built-in runner
+ * class, so that every further runner of the same class for the same test
+ * class can skip its validation.
+ *
+ * <p>Only the runners of JUnit itself are remembered: {@link JUnit4},
+ * {@link BlockJUnit4ClassRunner}, {@link BlockJUnit4ClassRunnerWithParameters}
+ * and {@link Theories}. Their validation only depends on the test class.
+ * Runners of any other class, including subclasses of these, may validate
+ * state that changes between instances, so they always validate their test
+ * class unless the current {@link Trust} trusts it. Failed validations are not
+ * remembered, and neither are test classes that are wrapped in a subclass of
+ * {@link TestClass}.
+ *
+ * <p>Both classes are held weakly, so that class loaders can still be
+ * unloaded.
+ *
+ * @since 4.14
+ */
+public final class ValidatedClasses {
+    /**
+     * Decides about test classes that passed validation in earlier runs.
+     */
+    public interface Trust {
+        /**
+         * Returns {@code true} if {@code testClass} can be run by a runner of
+         * {@code runnerClass} without validating it.
+         */
+        boolean isTrusted(Class<?> runnerClass, Class<?> testClass);
+
+        /**
+         * Called when {@code testClass} passed the validation of a runner of
+         * {@code runnerClass}, or was trusted to pass it.
+         */
+        void validated(Class<?> runnerClass, Class<?> testClass);
+    }
+
+    private static final Set<Class<?>> BUILT_IN_RUNNERS = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            JUnit4.class, BlockJUnit4ClassRunner.class,
+            BlockJUnit4ClassRunnerWithParameters.class, Theories.class));
+
+    // runner class -> test classes that passed its validation; guarded by VALIDATED
+    private static final Map<Class<?>, Map<Class<?>, Boolean>> VALIDATED =
+            new WeakHashMap<Class<?>, Map<Class<?>, Boolean>>();
+
+    private static volatile Trust trust;
+
+    private ValidatedClasses() {
+    }
+
+    /**
+     * Returns {@code true} if {@code testClass} already passed the validation
+     * of a runner of the built-in {@code runnerClass}, or the current {@link Trust} trusts
+     * it to pass.
+     */
+    public static boolean isValid(Class<?> runnerClass, TestClass testClass) {
+        Class<?> javaClass = testClass.getJavaClass();
+        if (!isCacheable(testClass)) {
+            return false;
+        }
+        boolean validated = false;
+        if (BUILT_IN_RUNNERS.contains(runnerClass)) {
+            synchronized (VALIDATED) {
+                Map<Class<?>, Boolean> testClasses = VALIDATED.get(runnerClass);
+                validated = testClasses != null && testClasses.containsKey(javaClass);
+            }
+        }
+        Trust currentTrust = trust;
+        if (validated) {
+            if (currentTrust != null) {
+                currentTrust.validated(runnerClass, javaClass);
+            }
+            return true;
+        }
+        if (currentTrust != null && currentTrust.isTrusted(runnerClass, javaClass)) {
+            // not remembered, so that runs without trust validate it
+            currentTrust.validated(runnerClass, javaClass);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records that {@code testClass} passed the validation of a runner of
+     * {@code runnerClass}. It is remembered for this JVM only if
+     * {@code runnerClass} is a built-in runner class.
+     */
+    public static void validated(Class<?> runnerClass, TestClass testClass) {
+        if (!isCacheable(testClass)) {
+            return;
+        }
+        Class<?> javaClass = testClass.getJavaClass();
+        if (BUILT_IN_RUNNERS.contains(runnerClass)) {
+            synchronized (VALIDATED) {
+                Map<Class<?>, Boolean> testClasses = VALIDATED.get(runnerClass);
+                if (testClasses == null) {
+                    testClasses = new WeakHashMap<Class<?>, Boolean>();
+                    VALIDATED.put(runnerClass, testClasses);
+                }
+                testClasses.put(javaClass, Boolean.TRUE);
+            }
+        }
+        Trust currentTrust = trust;
+        if (currentTrust != null) {
+            currentTrust.validated(runnerClass, javaClass);
+        }
+    }
+
+    /**
+     * Makes {@code newTrust} decide about the test classes that have not been
+     * validated in this JVM yet, and returns the previous one.
+     *
+     * @param newTrust the new {@link Trust}, or {@code null} to validate all
+     * test classes that have not been validated in this JVM yet
+     */
+    public static Trust setTrust(Trust newTrust) {
+        Trust previous = trust;
+        trust = newTrust;
+        return previous;
+    }
+
+    private static boolean isCacheable(TestClass testClass) {
+        return testClass.getClass() == TestClass.class && testClass.getJavaClass() != null;
+    }
+}
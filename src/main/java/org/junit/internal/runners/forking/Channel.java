@@ -0,0 +1,61 @@
+package org.junit.internal.runners.forking;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * One end of the connection between the parent JVM and a worker JVM. Every
+ * message is serialized on its own and sent with a length prefix, so a
+ * message that cannot be serialized does not corrupt the stream.
+ */
+class Channel {
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    Channel(InputStream in, OutputStream out) {
+        this.in = new DataInputStream(in);
+        this.out = new DataOutputStream(out);
+    }
+
+    static byte[] serialize(Serializable message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream stream = new ObjectOutputStream(bytes);
+        stream.writeObject(message);
+        stream.close();
+        return bytes.toByteArray();
+    }
+
+    synchronized void send(Serializable message) throws IOException {
+        sendSerialized(serialize(message));
+    }
+
+    synchronized void sendSerialized(byte[] message) throws IOException {
+        out.writeInt(message.length);
+        out.write(message);
+        out.flush();
+    }
+
+    /**
+     * Reads the next message; blocks until one is available.
+     *
+     * @throws IOException if the other end went away
+     */
+    Object receive() throws IOException, ClassNotFoundException {
+        byte[] message = new byte[in.readInt()];
+        in.readFully(message);
+        ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(message));
+        try {
+            return stream.readObject();
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.junit.internal.runners.forking;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Runs the tests of a class in a worker JVM. The class is also described and
+ * filtered by a runner in this JVM, so the test tree is known up front; only
+ * the run itself happens in the worker.
+ *
+ * <p>Filtering and sorting are applied to the local runner. Its test tree is
+ * then sent to the worker, which runs only those tests, in that order.
+ *
+ * <p>If the worker dies, the test it was running is reported as failed, and
+ * the tests it did not get to are sent to another worker. If a worker dies
+ * before it reports any test, the remaining tests are reported as failed
+ * instead, so that every test of the class is reported exactly once.
+ */
+public class ForkedClassRunner extends Runner implements Filterable, Sortable {
+    private final Class<?> testClass;
+    private final Runner localRunner;
+    private final WorkerJvms workers;
+    private boolean changed = false;
+
+    public ForkedClassRunner(Class<?> testClass, Runner localRunner, WorkerJvms workers) {
+        this.testClass = testClass;
+        this.localRunner = localRunner;
+        this.workers = workers;
+    }
+
+    @Override
+    public Description getDescription() {
+        return localRunner.getDescription();
+    }
+
+    @Override
+    public int testCount() {
+        return localRunner.testCount();
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        Description description = getDescription();
+        Description tests = changed ? description : null;
+        Set<Description> reported = new HashSet<Description>();
+        while (true) {
+            WorkerJvm worker;
+            try {
+                worker = workers.acquire();
+            } catch (IOException e) {
+                if (tests == null) {
+                    notifier.fireTestFailure(new Failure(description, e));
+                } else {
+                    failTests(tests, e, notifier);
+                }
+                return;
+            }
+            int reportedBefore = reported.size();
+            Exception crash;
+            try {
+                crash = worker.run(testClass.getName(), tests, description, notifier, reported);
+            } finally {
+                workers.release(worker);
+            }
+            if (crash == null) {
+                return;
+            }
+            tests = unreportedTests(description, reported);
+            if (tests == null) {
+                return;
+            }
+            if (reported.size() == reportedBefore) {
+                // another worker would most likely die the same way
+                failTests(tests, crash, notifier);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of {@code description} with only the tests that are not
+     * in {@code reported}, or {@code null} if there are none.
+     */
+    private static Description unreportedTests(Description description, Set<Description> reported) {
+        if (description.isTest()) {
+            return reported.contains(description) ? null : description;
+        }
+        Description copy = description.childlessCopy();
+        for (Description each : description.getChildrenView()) {
+            Description child = unreportedTests(each, reported);
+            if (child != null) {
+                copy.addChild(child);
+            }
+        }
+        return copy.isTest() ? null : copy;
+    }
+
+    private static void failTests(Description description, Exception e, RunNotifier notifier) {
+        if (description.isTest()) {
+            notifier.fireTestStarted(description);
+            notifier.fireTestFailure(new Failure(description, e));
+            notifier.fireTestFinished(description);
+        }
+        for (Description each : description.getChildrenView()) {
+            failTests(each, e, notifier);
+        }
+    }
+
+    public void filter(Filter filter) throws NoTestsRemainException {
+        filter.apply(localRunner);
+        if (!(localRunner instanceof Filterable) && !filter.shouldRun(getDescription())) {
+            throw new NoTestsRemainException();
+        }
+        changed = true;
+    }
+
+    public void sort(Sorter sorter) {
+        sorter.apply(localRunner);
+        changed = true;
+    }
+}
@@ -0,0 +1,38 @@
+package org.junit.internal.runners.forking;
+
+import java.io.Serializable;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+
+/**
+ * A {@link org.junit.runner.notification.RunListener} event sent from a worker
+ * JVM to the parent JVM.
+ */
+class ForkedEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    enum Type {
+        SUITE_STARTED, SUITE_FINISHED, STARTED, FINISHED, FAILURE, ASSUMPTION_FAILURE, IGNORED,
+        /** The worker has run the whole class it was given. */
+        DONE
+    }
+
+    final Type type;
+    final Description description;
+    final Failure failure;
+
+    ForkedEvent(Type type, Description description) {
+        this(type, description, null);
+    }
+
+    ForkedEvent(Type type, Failure failure) {
+        this(type, failure.getDescription(), failure);
+    }
+
+    private ForkedEvent(Type type, Description description, Failure failure) {
+        this.type = type;
+        this.description = description;
+        this.failure = failure;
+    }
+}
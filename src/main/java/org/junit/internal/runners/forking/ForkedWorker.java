@@ -0,0 +1,201 @@
+package org.junit.internal.runners.forking;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.internal.Classes;
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Entry point of a worker JVM. Connects to the parent JVM on the loopback port
+ * given as the only argument, then runs the classes the parent sends one at a
+ * time, reporting every event back, until the parent closes the connection.
+ */
+public class ForkedWorker {
+    public static void main(String... args) throws Exception {
+        Socket socket = new Socket(InetAddress.getByName(null), Integer.parseInt(args[0]));
+        try {
+            Channel channel = new Channel(socket.getInputStream(), socket.getOutputStream());
+            RunClass runClass;
+            while ((runClass = nextRequest(channel)) != null) {
+                run(runClass, channel);
+                channel.send(new ForkedEvent(ForkedEvent.Type.DONE, (Description) null));
+            }
+        } finally {
+            socket.close();
+        }
+        System.exit(0);
+    }
+
+    private static RunClass nextRequest(Channel channel) throws ClassNotFoundException {
+        try {
+            return (RunClass) channel.receive();
+        } catch (IOException e) {
+            return null; // the parent is gone
+        }
+    }
+
+    private static void run(RunClass runClass, Channel channel) {
+        RunNotifier notifier = new RunNotifier();
+        notifier.addListener(new ForwardingListener(channel));
+        Class<?> testClass;
+        try {
+            testClass = Classes.getClass(runClass.className);
+        } catch (Throwable e) {
+            notifier.fireTestFailure(new Failure(Description.createSuiteDescription(runClass.className), e));
+            return;
+        }
+        Request request = Request.aClass(testClass);
+        if (runClass.tests != null) {
+            request = request.filterWith(new SelectedTests(runClass.tests))
+                    .sortWith(new ParentOrder(runClass.tests));
+        }
+        request.getRunner().run(notifier);
+    }
+
+    private static class SelectedTests extends Filter {
+        private final Set<Description> tests = new HashSet<Description>();
+
+        SelectedTests(Description description) {
+            addTests(description);
+        }
+
+        private void addTests(Description description) {
+            if (description.isTest()) {
+                tests.add(description);
+            }
+            for (Description each : description.getChildrenView()) {
+                addTests(each);
+            }
+        }
+
+        @Override
+        public boolean shouldRun(Description description) {
+            if (description.isTest()) {
+                return tests.contains(description);
+            }
+            for (Description each : description.getChildrenView()) {
+                if (shouldRun(each)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() {
+            return "tests selected by the parent JVM";
+        }
+    }
+
+    /**
+     * Orders the tests like the test tree of the parent JVM. A suite is placed
+     * where it first appears in that tree.
+     */
+    private static class ParentOrder implements Comparator<Description> {
+        private final Map<Description, Integer> positions = new HashMap<Description, Integer>();
+
+        ParentOrder(Description description) {
+            addPositions(description);
+        }
+
+        private void addPositions(Description description) {
+            if (!positions.containsKey(description)) {
+                positions.put(description, positions.size());
+            }
+            for (Description each : description.getChildrenView()) {
+                addPositions(each);
+            }
+        }
+
+        public int compare(Description o1, Description o2) {
+            return position(o1).compareTo(position(o2));
+        }
+
+        private Integer position(Description description) {
+            Integer position = positions.get(description);
+            return position == null ? Integer.MAX_VALUE : position;
+        }
+    }
+
+    @RunListener.ThreadSafe
+    private static class ForwardingListener extends RunListener {
+        private final Channel channel;
+
+        ForwardingListener(Channel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void testSuiteStarted(Description description) throws Exception {
+            channel.send(new ForkedEvent(ForkedEvent.Type.SUITE_STARTED, description));
+        }
+
+        @Override
+        public void testSuiteFinished(Description description) throws Exception {
+            channel.send(new ForkedEvent(ForkedEvent.Type.SUITE_FINISHED, description));
+        }
+
+        @Override
+        public void testStarted(Description description) throws Exception {
+            channel.send(new ForkedEvent(ForkedEvent.Type.STARTED, description));
+        }
+
+        @Override
+        public void testFinished(Description description) throws Exception {
+            channel.send(new ForkedEvent(ForkedEvent.Type.FINISHED, description));
+        }
+
+        @Override
+        public void testFailure(Failure failure) throws Exception {
+            sendFailure(ForkedEvent.Type.FAILURE, failure);
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            try {
+                sendFailure(ForkedEvent.Type.ASSUMPTION_FAILURE, failure);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void testIgnored(Description description) throws Exception {
+            channel.send(new ForkedEvent(ForkedEvent.Type.IGNORED, description));
+        }
+
+        private void sendFailure(ForkedEvent.Type type, Failure failure) throws IOException {
+            byte[] message;
+            try {
+                message = Channel.serialize(new ForkedEvent(type, failure));
+            } catch (NotSerializableException e) {
+                message = Channel.serialize(new ForkedEvent(type, serializableCopy(failure)));
+            }
+            channel.sendSerialized(message);
+        }
+
+        /**
+         * Replaces an exception that cannot be serialized by a plain one with
+         * the same message and stack trace.
+         */
+        private static Failure serializableCopy(Failure failure) {
+            Throwable original = failure.getException();
+            Throwable copy = new Throwable(original.getClass().getName() + ": " + original.getMessage());
+            copy.setStackTrace(original.getStackTrace());
+            return new Failure(failure.getDescription(), copy);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.junit.internal.runners.forking;
+
+import java.io.Serializable;
+
+import org.junit.runner.Description;
+
+/**
+ * Asks a worker JVM to run the tests of a class.
+ */
+class RunClass implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final String className;
+
+    /**
+     * The tests to run, in the order in which to run them, or {@code null}
+     * to run all the tests of the class in their default order.
+     */
+    final Description tests;
+
+    RunClass(String className, Description tests) {
+        this.className = className;
+        this.tests = tests;
+    }
+}
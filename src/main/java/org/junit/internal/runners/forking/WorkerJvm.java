@@ -0,0 +1,207 @@
+package org.junit.internal.runners.forking;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+/**
+ * A worker JVM started by the parent JVM, see {@link ForkedWorker}.
+ */
+class WorkerJvm {
+    private static final int CONNECT_TIMEOUT_MILLIS = 60 * 1000;
+
+    private final Process process;
+    private final Socket socket;
+    private final Channel channel;
+    private volatile boolean alive = true;
+
+    WorkerJvm(List<String> jvmArgs) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName(null));
+        try {
+            serverSocket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            List<String> command = new ArrayList<String>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.addAll(jvmArgs);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ForkedWorker.class.getName());
+            command.add(String.valueOf(serverSocket.getLocalPort()));
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            startPumping(process.getInputStream());
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                process.destroy();
+                throw e;
+            }
+        } finally {
+            serverSocket.close();
+        }
+        channel = new Channel(socket.getInputStream(), socket.getOutputStream());
+    }
+
+    /**
+     * Copies the output of the worker to the output of this JVM. The output
+     * must be consumed, or the worker blocks once the pipe is full.
+     */
+    private static void startPumping(final InputStream output) {
+        Thread pump = new Thread("forked-jvm-output") {
+            @Override
+            public void run() {
+                byte[] buffer = new byte[8192];
+                try {
+                    int read;
+                    while ((read = output.read(buffer)) != -1) {
+                        System.out.write(buffer, 0, read);
+                    }
+                    System.out.flush();
+                } catch (IOException e) {
+                    // the worker is gone
+                }
+            }
+        };
+        pump.setDaemon(true);
+        pump.start();
+    }
+
+    boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * Runs {@code tests} of {@code className} in the worker, firing the
+     * worker's events on {@code notifier}. If the worker dies while running a
+     * test, that test is reported as failed. The tests that were not reported
+     * are left to the caller.
+     *
+     * @param tests the tests to run, or {@code null} to run the whole class
+     * @param reported the set to which the tests that started or were
+     * ignored are added
+     * @return the failure for the death of the worker, or {@code null} if it
+     * ran all the tests
+     */
+    Exception run(String className, Description tests, Description classDescription,
+            RunNotifier notifier, Set<Description> reported) {
+        Map<Description, Description> localDescriptions = new HashMap<Description, Description>();
+        index(classDescription, localDescriptions);
+        Description inFlight = null;
+        List<Description> openSuites = new ArrayList<Description>();
+        boolean completed = false;
+        try {
+            channel.send(new RunClass(className, tests));
+            while (true) {
+                ForkedEvent event = (ForkedEvent) channel.receive();
+                if (event.type == ForkedEvent.Type.DONE) {
+                    completed = true;
+                    return null;
+                }
+                Description description = local(event.description, localDescriptions);
+                switch (event.type) {
+                    case SUITE_STARTED:
+                        openSuites.add(description);
+                        notifier.fireTestSuiteStarted(description);
+                        break;
+                    case SUITE_FINISHED:
+                        openSuites.remove(description);
+                        notifier.fireTestSuiteFinished(description);
+                        break;
+                    case STARTED:
+                        inFlight = description;
+                        reported.add(description);
+                        notifier.fireTestStarted(description);
+                        break;
+                    case FINISHED:
+                        inFlight = null;
+                        notifier.fireTestFinished(description);
+                        break;
+                    case FAILURE:
+                        notifier.fireTestFailure(new Failure(description, event.failure.getException()));
+                        break;
+                    case ASSUMPTION_FAILURE:
+                        notifier.fireTestAssumptionFailed(
+                                new Failure(description, event.failure.getException()));
+                        break;
+                    case IGNORED:
+                        reported.add(description);
+                        notifier.fireTestIgnored(description);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (StoppedByUserException e) {
+            throw e;
+        } catch (Exception e) {
+            Exception crash = crashed(e);
+            if (inFlight != null) {
+                notifier.fireTestFailure(new Failure(inFlight, crash));
+                notifier.fireTestFinished(inFlight);
+            }
+            for (int i = openSuites.size() - 1; i >= 0; i--) {
+                notifier.fireTestSuiteFinished(openSuites.get(i));
+            }
+            return crash;
+        } finally {
+            if (!completed) {
+                destroy();
+            }
+        }
+    }
+
+    private Exception crashed(Exception cause) {
+        destroy();
+        String exitCode;
+        try {
+            exitCode = String.valueOf(process.waitFor());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exitCode = "unknown";
+        }
+        Exception exception = new Exception(
+                "Forked JVM terminated unexpectedly (exit code " + exitCode + ")");
+        exception.initCause(cause);
+        return exception;
+    }
+
+    private static void index(Description description, Map<Description, Description> index) {
+        index.put(description, description);
+        for (Description each : description.getChildrenView()) {
+            index(each, index);
+        }
+    }
+
+    private static Description local(Description remote, Map<Description, Description> index) {
+        Description local = index.get(remote);
+        return local != null ? local : remote;
+    }
+
+    /**
+     * Asks the worker to exit once it is idle.
+     */
+    void close() {
+        alive = false;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // the worker exits when it sees the connection closed
+        }
+    }
+
+    void destroy() {
+        close();
+        process.destroy();
+    }
+}
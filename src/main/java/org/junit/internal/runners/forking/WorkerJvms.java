@@ -0,0 +1,77 @@
+package org.junit.internal.runners.forking;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The worker JVMs of one forked run. At most a fixed number of workers are in
+ * use at a time; they are started on demand and reused, and a worker that
+ * died is replaced by a fresh one.
+ */
+public class WorkerJvms {
+    private final Semaphore permits;
+    private final List<String> jvmArgs;
+    private final List<WorkerJvm> idle = new ArrayList<WorkerJvm>();
+    private final List<WorkerJvm> all = new ArrayList<WorkerJvm>();
+
+    public WorkerJvms(int maxWorkers, List<String> jvmArgs) {
+        this.permits = new Semaphore(maxWorkers);
+        this.jvmArgs = new ArrayList<String>(jvmArgs);
+    }
+
+    /**
+     * Returns an idle worker, waiting for one if all workers are busy.
+     */
+    WorkerJvm acquire() throws IOException {
+        permits.acquireUninterruptibly();
+        try {
+            return idleOrNewWorker();
+        } catch (IOException e) {
+            permits.release();
+            throw e;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private WorkerJvm idleOrNewWorker() throws IOException {
+        synchronized (this) {
+            while (!idle.isEmpty()) {
+                WorkerJvm worker = idle.remove(idle.size() - 1);
+                if (worker.isAlive()) {
+                    return worker;
+                }
+            }
+        }
+        WorkerJvm worker = new WorkerJvm(jvmArgs);
+        synchronized (this) {
+            all.add(worker);
+        }
+        return worker;
+    }
+
+    void release(WorkerJvm worker) {
+        synchronized (this) {
+            if (worker.isAlive()) {
+                idle.add(worker);
+            } else {
+                all.remove(worker);
+            }
+        }
+        permits.release();
+    }
+
+    /**
+     * Shuts down all the workers.
+     */
+    public synchronized void close() {
+        for (WorkerJvm each : all) {
+            each.close();
+        }
+        all.clear();
+        idle.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package org.junit.internal.runners.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * A {@link RunnerScheduler} that forks the children of one parent runner onto
+ * a shared {@link WorkerPool}.
+ *
+ * <p>Children are queued in order and taken by idle workers. When the parent
+ * calls {@link #finished()}, the calling thread does not just block: it runs
+ * the children that no worker has claimed yet, starting from the most
+ * recently scheduled one, and only then waits for the children that are
+ * running elsewhere. A suite waiting for its children therefore never waits
+ * for a task that needs a free worker, so nested class and method
+ * parallelism cannot deadlock, however small the pool is.
+ *
+ * <p>If a dispatch order is given, children are held back until all of them
+ * have been scheduled and are then handed to the pool sorted by their
+ * {@link Description}s; children that cannot be described keep their
+ * relative position at the end.
+ *
+ * <p>Children hold the resources they declare with
+ * {@link org.junit.experimental.ResourceLock} while they run, see
+ * {@link ResourceLocks}.
+ */
+class PoolScheduler implements RunnerScheduler {
+    private final WorkerPool pool;
+    private final Comparator<Description> dispatchOrder;
+    private final Describable parent;
+    private final List<ForkedChild> children = new ArrayList<ForkedChild>();
+    private ResourceLocks topLevelResourceLocks;
+
+    PoolScheduler(WorkerPool pool, Describable parent, Comparator<Description> dispatchOrder) {
+        this.pool = pool;
+        this.parent = parent;
+        this.dispatchOrder = dispatchOrder;
+    }
+
+    public void schedule(Runnable childStatement) {
+        ForkedChild child = new ForkedChild(childStatement, resourceLocks());
+        children.add(child);
+        if (dispatchOrder == null) {
+            pool.execute(child);
+        }
+    }
+
+    public void finished() {
+        try {
+            if (dispatchOrder != null) {
+                dispatchInOrder();
+            }
+            for (int i = children.size() - 1; i >= 0; i--) {
+                children.get(i).run();
+            }
+            boolean interrupted = false;
+            Throwable failure = null;
+            for (ForkedChild each : children) {
+                interrupted |= each.awaitDone();
+                if (failure == null) {
+                    failure = each.failure;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            rethrow(failure);
+        } finally {
+            children.clear();
+            topLevelResourceLocks = null;
+        }
+    }
+
+    /**
+     * Returns the scope in which the children compete for resources: the one
+     * set up by the task that is running the parent, or, if the parent is not
+     * run by a worker, a scope that only reflects the parent's annotations.
+     */
+    private ResourceLocks resourceLocks() {
+        ResourceLocks current = ResourceLocks.current();
+        if (current != null) {
+            return current;
+        }
+        if (topLevelResourceLocks == null) {
+            topLevelResourceLocks = pool.resourceLocks().childScope(
+                    parent == null ? null : parent.getDescription(), false);
+        }
+        return topLevelResourceLocks;
+    }
+
+    private void dispatchInOrder() {
+        Collections.sort(children, new Comparator<ForkedChild>() {
+            public int compare(ForkedChild o1, ForkedChild o2) {
+                Description d1 = o1.getDescription();
+                Description d2 = o2.getDescription();
+                if (d1 == null || d2 == null) {
+                    return d1 == null ? (d2 == null ? 0 : 1) : -1;
+                }
+                return dispatchOrder.compare(d1, d2);
+            }
+        });
+        for (ForkedChild each : children) {
+            pool.execute(each);
+        }
+    }
+
+    private static void rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    private static class ForkedChild implements Runnable {
+        private final Runnable statement;
+        private final ResourceLocks resourceLocks;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Throwable failure;
+        private volatile Description description;
+
+        ForkedChild(Runnable statement, ResourceLocks resourceLocks) {
+            this.statement = statement;
+            this.resourceLocks = resourceLocks;
+        }
+
+        Description getDescription() {
+            if (description == null && statement instanceof Describable) {
+                description = ((Describable) statement).getDescription();
+            }
+            return description;
+        }
+
+        /**
+         * Runs the child unless another thread has already claimed it.
+         */
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                resourceLocks.run(statement, getDescription());
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        /**
+         * Waits until the child has run, returning whether the current thread
+         * was interrupted while waiting.
+         */
+        boolean awaitDone() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    return interrupted;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.junit.internal.runners.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.experimental.NotThreadSafe;
+import org.junit.experimental.ResourceLock;
+import org.junit.runner.Description;
+
+/**
+ * A scope in which the children of a parent compete for the resources
+ * declared with {@link ResourceLock}.
+ *
+ * <p>A child takes the locks of its whole subtree at once, in name order, and
+ * its own children then compete for those resources in a new, nested scope,
+ * where each of them also needs the resources declared on the child itself.
+ * As no task ever takes a lock in the scope of an ancestor while holding one,
+ * tasks cannot deadlock on resource locks. In the nested scope of a class
+ * annotated with {@link NotThreadSafe}, every child also takes a lock of its
+ * own, so the children run one at a time.
+ */
+class ResourceLocks {
+    private static final ThreadLocal<ResourceLocks> CURRENT = new ThreadLocal<ResourceLocks>();
+
+    private final ConcurrentMap<String, ReadWriteLock> locks = new ConcurrentHashMap<String, ReadWriteLock>();
+    private final Map<String, Boolean> inherited;
+    private final Lock serialLock;
+
+    ResourceLocks() {
+        this(Collections.<String, Boolean>emptyMap(), false);
+    }
+
+    private ResourceLocks(Map<String, Boolean> inherited, boolean serial) {
+        this.inherited = inherited;
+        serialLock = serial ? new ReentrantLock() : null;
+    }
+
+    /**
+     * Returns the scope of the children scheduled by the current thread, or
+     * {@code null} if the current thread is not running a scheduled child.
+     */
+    static ResourceLocks current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code child} while holding the resources it needs, with
+     * {@link #current()} set to the scope of its own children.
+     */
+    void run(Runnable child, Description description) {
+        Map<String, Boolean> resources = new TreeMap<String, Boolean>(inherited);
+        if (description != null) {
+            addSubtreeResources(description, resources);
+        }
+        List<Lock> held = lock(resources);
+        ResourceLocks previous = CURRENT.get();
+        CURRENT.set(childScope(description, !resources.isEmpty()));
+        try {
+            child.run();
+        } finally {
+            CURRENT.set(previous);
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the scope in which the children of {@code parent} compete for
+     * resources.
+     *
+     * @param parent the parent, or {@code null} if it cannot be described
+     * @param parentHoldsLocks whether the parent holds locks in this scope
+     */
+    ResourceLocks childScope(Description parent, boolean parentHoldsLocks) {
+        Map<String, Boolean> declared = new TreeMap<String, Boolean>(inherited);
+        boolean notThreadSafe = false;
+        if (parent != null) {
+            addResources(parent, declared);
+            notThreadSafe = parent.getAnnotation(NotThreadSafe.class) != null;
+        }
+        if (!parentHoldsLocks && !notThreadSafe && declared.equals(inherited)) {
+            return this;
+        }
+        return new ResourceLocks(declared, notThreadSafe);
+    }
+
+    private List<Lock> lock(Map<String, Boolean> resources) {
+        List<Lock> held = new ArrayList<Lock>(resources.size() + 1);
+        if (serialLock != null) {
+            serialLock.lock();
+            held.add(serialLock);
+        }
+        for (Map.Entry<String, Boolean> each : resources.entrySet()) {
+            ReadWriteLock lock = lockFor(each.getKey());
+            Lock mode = each.getValue() ? lock.writeLock() : lock.readLock();
+            mode.lock();
+            held.add(mode);
+        }
+        return held;
+    }
+
+    private ReadWriteLock lockFor(String resource) {
+        ReadWriteLock lock = locks.get(resource);
+        if (lock == null) {
+            ReadWriteLock newLock = new ReentrantReadWriteLock();
+            lock = locks.putIfAbsent(resource, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Adds the resources declared on {@code description}, mapped to whether
+     * they are written, to {@code resources}.
+     */
+    private static void addResources(Description description, Map<String, Boolean> resources) {
+        ResourceLock resourceLock = description.getAnnotation(ResourceLock.class);
+        if (resourceLock != null) {
+            boolean write = resourceLock.mode() == ResourceLock.Mode.READ_WRITE;
+            for (String each : resourceLock.value()) {
+                resources.put(each, write || Boolean.TRUE.equals(resources.get(each)));
+            }
+        }
+    }
+
+    private static void addSubtreeResources(Description description, Map<String, Boolean> resources) {
+        addResources(description, resources);
+        for (Description each : description.getChildrenView()) {
+            addSubtreeResources(each, resources);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.junit.internal.runners.scheduling;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * A bounded pool of worker threads shared by all the {@link RunnerScheduler}s
+ * created from it.
+ *
+ * <p>Workers are started on demand, up to the configured parallelism, and
+ * terminate after being idle for a while, so a pool that is not in use does
+ * not hold on to any threads.
+ *
+ * @since 4.14
+ */
+public final class WorkerPool {
+    private static final long KEEP_ALIVE_MILLIS = 1000;
+
+    private final int parallelism;
+    private final ThreadFactory threadFactory;
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+    private final ResourceLocks resourceLocks = new ResourceLocks();
+
+    // Guarded by this
+    private int workers = 0;
+    // Guarded by this
+    private int idleWorkers = 0;
+
+    /**
+     * Creates a pool with one worker per available processor.
+     */
+    public WorkerPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a pool that runs at most {@code parallelism} tasks at a time.
+     */
+    public WorkerPool(int parallelism) {
+        this(parallelism, new WorkerThreadFactory());
+    }
+
+    /**
+     * Creates a pool that runs at most {@code parallelism} tasks at a time on
+     * threads created by {@code threadFactory}.
+     */
+    public WorkerPool(int parallelism, ThreadFactory threadFactory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (threadFactory == null) {
+            throw new NullPointerException("threadFactory cannot be null");
+        }
+        this.parallelism = parallelism;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Returns the maximum number of worker threads of this pool.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns a new scheduler that runs the children it is given on this pool.
+     * Each {@link org.junit.runners.ParentRunner} needs its own scheduler.
+     */
+    public RunnerScheduler newScheduler() {
+        return newScheduler(null, null);
+    }
+
+    /**
+     * Returns a new scheduler that runs the children of {@code parent} on this
+     * pool, handing them to the workers in the order defined by
+     * {@code dispatchOrder}. Each {@link org.junit.runners.ParentRunner} needs
+     * its own scheduler.
+     *
+     * @param parent the runner whose children are scheduled, or {@code null}
+     * if unknown; its annotations apply to its children if it is not itself
+     * run on this pool
+     * @param dispatchOrder the order in which children are dispatched, or
+     * {@code null} to dispatch them in the order they are scheduled
+     */
+    public RunnerScheduler newScheduler(Describable parent, Comparator<Description> dispatchOrder) {
+        return new PoolScheduler(this, parent, dispatchOrder);
+    }
+
+    ResourceLocks resourceLocks() {
+        return resourceLocks;
+    }
+
+    void execute(Runnable task) {
+        queue.add(task);
+        synchronized (this) {
+            if (idleWorkers == 0 && workers < parallelism) {
+                workers++;
+                Thread thread = threadFactory.newThread(new Worker());
+                thread.start();
+            }
+        }
+    }
+
+    private Runnable nextTask() throws InterruptedException {
+        while (true) {
+            synchronized (this) {
+                idleWorkers++;
+            }
+            Runnable task = queue.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                idleWorkers--;
+                if (task != null) {
+                    return task;
+                }
+                if (queue.isEmpty()) {
+                    workers--;
+                    return null;
+                }
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+        public void run() {
+            try {
+                Runnable task;
+                while ((task = nextTask()) != null) {
+                    task.run();
+                }
+            } catch (InterruptedException e) {
+                synchronized (WorkerPool.this) {
+                    workers--;
+                }
+            }
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String namePrefix = "junit-worker-" + POOL_NUMBER.getAndIncrement() + "-";
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -2,25 +2,40 @@ package org.junit.internal.runners.statements;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.junit.internal.VirtualThreads;
 import org.junit.internal.management.ManagementFactory;
 import org.junit.internal.management.ThreadMXBean;
 import org.junit.runners.model.MultipleFailureException;
 import org.junit.runners.model.Statement;
+import org.junit.runners.model.TestCpuTimeExceededException;
 import org.junit.runners.model.TestTimedOutException;
 
 public class FailOnTimeout extends Statement {
+    // thread evaluating a FailOnTimeout -> thread running its statement
+    private static final ConcurrentMap<Thread, Thread> STATEMENT_THREADS =
+            new ConcurrentHashMap<Thread, Thread>();
+
     private final Statement originalStatement;
     private final TimeUnit timeUnit;
     private final long timeout;
     private final boolean lookForStuckThread;
+    private final boolean virtualThread;
+    private final boolean pooledThreads;
+    private final long cpuTimeout;
+    private final TimeUnit cpuTimeUnit;
+    private final boolean cpuTimeOfThreadGroup;
 
     /**
      * Returns a new builder for building an instance.
@@ -31,6 +46,24 @@ public class FailOnTimeout extends Statement {
         return new Builder();
     }
 
+    /**
+     * Returns the thread that runs the statement of the {@code FailOnTimeout}
+     * that {@code thread} is currently evaluating, or {@code thread} itself if
+     * it does not evaluate one. Nested instances are followed to the innermost
+     * one. Interrupting the returned thread interrupts the test, while
+     * interrupting {@code thread} only stops waiting for it.
+     *
+     * @since 4.14
+     */
+    public static Thread statementThreadOf(Thread thread) {
+        Thread current = thread;
+        Thread next;
+        while ((next = STATEMENT_THREADS.get(current)) != null) {
+            current = next;
+        }
+        return current;
+    }
+
     /**
      * Creates an instance wrapping the given statement with the given timeout in milliseconds.
      *
@@ -48,6 +81,11 @@ public class FailOnTimeout extends Statement {
         timeout = builder.timeout;
         timeUnit = builder.unit;
         lookForStuckThread = builder.lookForStuckThread;
+        virtualThread = builder.virtualThread;
+        pooledThreads = builder.pooledThreads;
+        cpuTimeout = builder.cpuTimeout;
+        cpuTimeUnit = builder.cpuTimeUnit;
+        cpuTimeOfThreadGroup = builder.cpuTimeOfThreadGroup;
     }
 
     /**
@@ -57,8 +95,13 @@ public class FailOnTimeout extends Statement {
      */
     public static class Builder {
         private boolean lookForStuckThread = false;
+        private boolean virtualThread = false;
+        private boolean pooledThreads = false;
         private long timeout = 0;
         private TimeUnit unit = TimeUnit.SECONDS;
+        private long cpuTimeout = 0;
+        private TimeUnit cpuTimeUnit = TimeUnit.SECONDS;
+        private boolean cpuTimeOfThreadGroup = false;
 
         private Builder() {
         }
@@ -88,6 +131,50 @@ public class FailOnTimeout extends Statement {
             return this;
         }
 
+        /**
+         * Specifies the CPU time the test may use before timing out. Unlike
+         * the time given to {@link #withTimeout(long, TimeUnit)}, which then
+         * only serves as an upper bound, this does not include time the test
+         * spends waiting for a processor, so a test does not time out just
+         * because the machine is busy.
+         *
+         * <p>By default only the CPU time of the thread running the test is
+         * counted; see {@link #withCpuTimeOfThreadGroup(boolean)}. If the JVM
+         * cannot measure the CPU time of threads, the wall-clock time since the
+         * test started is counted instead.
+         *
+         * @param timeout the maximum CPU time, or {@code 0} for no CPU time limit
+         * @param unit the time unit of the {@code timeout} argument
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withCpuTimeout(long timeout, TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout must be non-negative");
+            }
+            if (unit == null) {
+                throw new NullPointerException("TimeUnit cannot be null");
+            }
+            this.cpuTimeout = timeout;
+            this.cpuTimeUnit = unit;
+            return this;
+        }
+
+        /**
+         * Specifies whether the CPU time limit applies to the CPU time of all
+         * the threads the test starts, rather than just the thread running the
+         * test. The test then runs in a thread group of its own, and threads
+         * that already terminated no longer count.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withCpuTimeOfThreadGroup(boolean enable) {
+            this.cpuTimeOfThreadGroup = enable;
+            return this;
+        }
+
         /**
          * Specifies whether to look for a stuck thread.  If a timeout occurs and this
          * feature is enabled, the test will look for a thread that appears to be stuck
@@ -102,6 +189,39 @@ public class FailOnTimeout extends Statement {
             return this;
         }
 
+        /**
+         * Specifies whether to run the test on a virtual thread rather than on a
+         * new platform thread. Virtual threads are only used if the JVM supports
+         * them (Java 21 or later), looking for a stuck thread is disabled, as
+         * that needs a thread group of its own, and no CPU time limit is set.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withVirtualThread(boolean enable) {
+            this.virtualThread = enable;
+            return this;
+        }
+
+        /**
+         * Specifies whether to run the test on a thread from a shared pool
+         * rather than on a new thread. The deadlines of all pooled tests are
+         * tracked by a single watchdog thread. A pooled thread is reused only
+         * after its interrupt flag and thread locals are cleared; where the JVM
+         * does not allow clearing them (by default as of Java 16), the test
+         * runs on a new thread as if this feature was disabled. A virtual
+         * thread, if enabled and supported, takes precedence.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withPooledThreads(boolean enable) {
+            this.pooledThreads = enable;
+            return this;
+        }
+
         /**
          * Builds a {@link FailOnTimeout} instance using the values in this builder,
          * wrapping the given statement.
@@ -118,21 +238,56 @@ public class FailOnTimeout extends Statement {
 
     @Override
     public void evaluate() throws Throwable {
+        if (pooledThreads && !useVirtualThread() && TimeLimitedExecutor.canReuseThreads()) {
+            evaluateOnPooledThread();
+            return;
+        }
         CallableStatement callable = new CallableStatement();
         FutureTask<Throwable> task = new FutureTask<Throwable>(callable);
-        ThreadGroup threadGroup = threadGroupForNewThread();
-        Thread thread = new Thread(threadGroup, task, "Time-limited test");
-        thread.setDaemon(true);
+        Thread thread = newThread(task);
         thread.start();
         callable.awaitStarted();
-        Throwable throwable = getResult(task, thread);
+        Throwable throwable = cpuTimeout > 0
+                ? getResult(task, thread, new CpuTimeBudget())
+                : getResult(task, thread);
         if (throwable != null) {
             throw throwable;
         }
     }
 
+    private void evaluateOnPooledThread() throws Throwable {
+        final CpuTimeBudget budget = cpuTimeout > 0 ? new CpuTimeBudget() : null;
+        Throwable throwable = TimeLimitedExecutor.INSTANCE.run(new CallableStatement(),
+                timeout, timeUnit, new TimeLimitedExecutor.TimeoutHandler() {
+                    public long nanosUntilNextCheck(Thread thread) {
+                        return budget == null ? Long.MAX_VALUE : budget.nanosUntilNextCheck(thread);
+                    }
+
+                    public Throwable timedOut(Thread thread) {
+                        return createTimeoutException(thread, budget);
+                    }
+                });
+        if (throwable != null) {
+            throw throwable;
+        }
+    }
+
+    private boolean useVirtualThread() {
+        return virtualThread && !lookForStuckThread && cpuTimeout == 0
+                && VirtualThreads.isSupported();
+    }
+
+    private Thread newThread(Runnable task) {
+        if (useVirtualThread()) {
+            return VirtualThreads.newThread("Time-limited test", task);
+        }
+        Thread thread = new Thread(threadGroupForNewThread(), task, "Time-limited test");
+        thread.setDaemon(true);
+        return thread;
+    }
+
     private ThreadGroup threadGroupForNewThread() {
-        if (!lookForStuckThread) {
+        if (!lookForStuckThread && !(cpuTimeout > 0 && cpuTimeOfThreadGroup)) {
             // Use the default ThreadGroup (usually the one from the current
             // thread).
             return null;
@@ -174,14 +329,49 @@ public class FailOnTimeout extends Statement {
             // test failed; have caller re-throw the exception thrown by the test
             return e.getCause();
         } catch (TimeoutException e) {
-            return createTimeoutException(thread);
+            return createTimeoutException(thread, null);
+        }
+    }
+
+    /**
+     * Like {@link #getResult(FutureTask, Thread)}, but also checks whether the
+     * test used up its CPU time budget, using the timeout as an upper bound.
+     */
+    private Throwable getResult(FutureTask<Throwable> task, Thread thread, CpuTimeBudget budget) {
+        long hardDeadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        try {
+            while (true) {
+                long waitNanos = budget.nanosUntilNextCheck(thread);
+                if (waitNanos <= 0) {
+                    return createTimeoutException(thread, budget);
+                }
+                if (timeout > 0) {
+                    long remainingNanos = hardDeadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        return createTimeoutException(thread, null);
+                    }
+                    waitNanos = Math.min(waitNanos, remainingNanos);
+                }
+                try {
+                    return task.get(waitNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // check again
+                }
+            }
+        } catch (InterruptedException e) {
+            return e; // caller will re-throw; no need to call Thread.interrupt()
+        } catch (ExecutionException e) {
+            // test failed; have caller re-throw the exception thrown by the test
+            return e.getCause();
         }
     }
 
-    private Exception createTimeoutException(Thread thread) {
+    private Exception createTimeoutException(Thread thread, CpuTimeBudget budget) {
         StackTraceElement[] stackTrace = thread.getStackTrace();
         final Thread stuckThread = lookForStuckThread ? getStuckThread(thread) : null;
-        Exception currThreadException = new TestTimedOutException(timeout, timeUnit);
+        Exception currThreadException = budget != null && budget.isExceeded()
+                ? new TestCpuTimeExceededException(cpuTimeout, cpuTimeUnit)
+                : new TestTimedOutException(timeout, timeUnit);
         if (stackTrace != null) {
             currThreadException.setStackTrace(stackTrace);
             thread.interrupt();
@@ -290,10 +480,95 @@ public class FailOnTimeout extends Statement {
         return 0;
     }
 
+    /**
+     * The CPU time a single evaluation of the test may still use.
+     */
+    private class CpuTimeBudget {
+        private static final long MIN_CHECK_INTERVAL_NANOS = 1000000L;
+        private static final long MAX_CHECK_INTERVAL_NANOS = 100000000L;
+
+        private final ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        private final long budgetNanos = cpuTimeUnit.toNanos(cpuTimeout);
+        private final Map<Long, Long> initialCpuTimes = new HashMap<Long, Long>();
+        private long startNanos;
+        private boolean measurable;
+        private boolean started = false;
+        private boolean exceeded = false;
+
+        /**
+         * Returns the number of nanoseconds after which the budget has to be
+         * checked again, or zero if it is used up. The first call starts
+         * measuring.
+         */
+        synchronized long nanosUntilNextCheck(Thread thread) {
+            if (!started) {
+                start(thread);
+            }
+            long remainingNanos = budgetNanos - usedNanos(thread);
+            if (remainingNanos <= 0) {
+                exceeded = true;
+                return 0;
+            }
+            if (cpuTimeOfThreadGroup && measurable) {
+                // Several threads can use up the budget faster than wall-clock time passes
+                remainingNanos = Math.min(remainingNanos, MAX_CHECK_INTERVAL_NANOS);
+            }
+            return Math.max(remainingNanos, MIN_CHECK_INTERVAL_NANOS);
+        }
+
+        synchronized boolean isExceeded() {
+            return exceeded;
+        }
+
+        private void start(Thread thread) {
+            started = true;
+            startNanos = System.nanoTime();
+            measurable = mxBean.isThreadCpuTimeSupported() && mxBean.isThreadCpuTimeEnabled();
+            if (measurable) {
+                for (Thread each : threadsToMeasure(thread)) {
+                    initialCpuTimes.put(each.getId(), threadCpuTime(each));
+                }
+            }
+        }
+
+        private long usedNanos(Thread thread) {
+            if (!measurable) {
+                return System.nanoTime() - startNanos;
+            }
+            long used = 0;
+            for (Thread each : threadsToMeasure(thread)) {
+                Long initial = initialCpuTimes.get(each.getId());
+                used += threadCpuTime(each) - (initial == null ? 0 : initial);
+            }
+            return used;
+        }
+
+        private List<Thread> threadsToMeasure(Thread thread) {
+            if (!cpuTimeOfThreadGroup) {
+                return Collections.singletonList(thread);
+            }
+            ThreadGroup group = thread.getThreadGroup();
+            // null if the thread has terminated in the meantime
+            return group == null ? Collections.<Thread>emptyList() : getThreadsInGroup(group);
+        }
+
+        private long threadCpuTime(Thread thread) {
+            try {
+                // -1 if the thread has terminated in the meantime
+                return Math.max(mxBean.getThreadCpuTime(thread.getId()), 0);
+            } catch (UnsupportedOperationException e) {
+                return 0;
+            }
+        }
+    }
+
     private class CallableStatement implements Callable<Throwable> {
         private final CountDownLatch startLatch = new CountDownLatch(1);
+        private final Thread caller = Thread.currentThread();
 
         public Throwable call() throws Exception {
+            Thread thread = Thread.currentThread();
+            STATEMENT_THREADS.put(caller, thread);
             try {
                 startLatch.countDown();
                 originalStatement.evaluate();
@@ -301,6 +576,9 @@ public class FailOnTimeout extends Statement {
                 throw e;
             } catch (Throwable e) {
                 return e;
+            } finally {
+                // the caller may already evaluate the next statement if this one timed out
+                STATEMENT_THREADS.remove(caller, thread);
             }
             return null;
         }
@@ -0,0 +1,397 @@
+package org.junit.internal.runners.statements;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs time-limited statements on a shared pool of reusable threads, with a
+ * single watchdog thread that keeps track of the deadlines of all of them.
+ *
+ * <p>Each worker thread lives in a thread group of its own, so
+ * {@link FailOnTimeout} can still look for a stuck thread. A worker is only
+ * reused if the statement it ran left no other threads running in its group.
+ * Otherwise the worker terminates and a fresh one is started for the next
+ * statement. Clearing the thread locals of a worker needs reflective access
+ * to {@link Thread}, which is denied by default as of Java 16, so the
+ * executor must only be used if {@link #canReuseThreads()} returns
+ * {@code true}.
+ */
+final class TimeLimitedExecutor {
+    static final TimeLimitedExecutor INSTANCE = new TimeLimitedExecutor();
+
+    private static final long KEEP_ALIVE_MILLIS = 10000;
+
+    private static final int RUNNING = 0;
+    private static final int FINISHED = 1;
+    private static final int TIMED_OUT = 2;
+
+    /**
+     * Decides when a running statement is out of time, in addition to the
+     * wall-clock time limit, and creates the failure reported for it.
+     */
+    interface TimeoutHandler {
+        /**
+         * Returns the number of nanoseconds to wait before calling this method
+         * again, zero if the statement is out of time, or
+         * {@link Long#MAX_VALUE} if only the wall-clock time limit applies.
+         * Called once when the statement starts and then on the watchdog thread.
+         */
+        long nanosUntilNextCheck(Thread thread);
+
+        /**
+         * Creates the failure reported for a statement that did not finish in
+         * time. Called on the watchdog thread while the statement is still running.
+         */
+        Throwable timedOut(Thread thread);
+    }
+
+    private final ThreadGroup parentGroup = rootThreadGroup();
+    private final BlockingQueue<Execution> queue = new LinkedBlockingQueue<Execution>();
+    private final DelayQueue<Execution> deadlines = new DelayQueue<Execution>();
+
+    // Guarded by this
+    private int idleWorkers = 0;
+    // Guarded by this
+    private Thread watchdog;
+
+    private TimeLimitedExecutor() {
+    }
+
+    /**
+     * Runs {@code callable} on a pooled thread and waits for it. Returns the
+     * result of {@code callable}, the exception it threw, or the failure
+     * created by {@code timeoutHandler} if it did not finish in time.
+     *
+     * @param timeout the wall-clock time limit, or zero for no time limit
+     */
+    Throwable run(Callable<Throwable> callable, long timeout, TimeUnit unit,
+            TimeoutHandler timeoutHandler) throws InterruptedException {
+        Execution execution = new Execution(callable, unit.toNanos(timeout), timeoutHandler,
+                Thread.currentThread().getContextClassLoader());
+        submit(execution);
+        try {
+            execution.started.await();
+            if (execution.updateDeadline(execution.timeoutHandler.nanosUntilNextCheck(
+                    execution.thread))) {
+                schedule(execution);
+            }
+            execution.done.await();
+            return execution.result;
+        } finally {
+            deadlines.remove(execution);
+        }
+    }
+
+    /**
+     * Returns {@code true} if worker threads can be reused, which depends on
+     * whether their thread locals can be cleared.
+     */
+    static boolean canReuseThreads() {
+        return ThreadLocals.isSupported();
+    }
+
+    private void submit(Execution execution) {
+        synchronized (this) {
+            if (idleWorkers > 0) {
+                idleWorkers--;
+                queue.add(execution);
+                return;
+            }
+        }
+        ThreadGroup group = new ThreadGroup(parentGroup, "FailOnTimeoutGroup");
+        Thread thread = new Thread(group, new Worker(execution), "Time-limited test");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for the next execution handed to the current worker, which has to
+     * be counted as idle already. Returns {@code null} if there is none.
+     */
+    private Execution nextExecution() {
+        while (true) {
+            Execution execution = null;
+            try {
+                execution = queue.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // a stray interrupt, e.g. from a thread left behind by a test
+            }
+            if (execution != null) {
+                return execution;
+            }
+            synchronized (this) {
+                if (queue.isEmpty() && idleWorkers > 0) {
+                    idleWorkers--;
+                    return null;
+                }
+            }
+        }
+    }
+
+    private void schedule(Execution execution) {
+        deadlines.add(execution);
+        synchronized (this) {
+            if (watchdog == null) {
+                watchdog = new Thread(parentGroup, new Watchdog(), "junit-timeout-watchdog");
+                watchdog.setDaemon(true);
+                watchdog.start();
+            }
+        }
+    }
+
+    private Execution nextDeadline() {
+        while (true) {
+            Execution execution = null;
+            try {
+                execution = deadlines.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // keep watching until there are no more deadlines
+            }
+            if (execution != null) {
+                return execution;
+            }
+            synchronized (this) {
+                if (deadlines.isEmpty()) {
+                    watchdog = null;
+                    return null;
+                }
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final Execution firstExecution;
+
+        Worker(Execution firstExecution) {
+            this.firstExecution = firstExecution;
+        }
+
+        public void run() {
+            Execution execution = firstExecution;
+            while (execution != null) {
+                boolean finished = execution.execute();
+                boolean reusable = resetCurrentThread();
+                if (reusable) {
+                    // Become idle before waking up the caller, so that its next
+                    // statement can be handed to this thread.
+                    synchronized (TimeLimitedExecutor.this) {
+                        idleWorkers++;
+                    }
+                }
+                if (finished) {
+                    execution.finish();
+                }
+                if (!reusable) {
+                    return;
+                }
+                execution = nextExecution();
+            }
+        }
+    }
+
+    private class Watchdog implements Runnable {
+        public void run() {
+            Execution execution;
+            while ((execution = nextDeadline()) != null) {
+                if (execution.deadlinePassed()) {
+                    deadlines.add(execution);
+                }
+            }
+        }
+    }
+
+    private static final class Execution implements Delayed {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        private final CountDownLatch timeoutHandled = new CountDownLatch(1);
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private final Callable<Throwable> callable;
+        private final long timeoutNanos;
+        final TimeoutHandler timeoutHandler;
+        private final ClassLoader contextClassLoader;
+        volatile Thread thread;
+        private volatile long hardDeadline;
+        private volatile long deadline;
+        volatile Throwable result;
+
+        Execution(Callable<Throwable> callable, long timeoutNanos,
+                TimeoutHandler timeoutHandler, ClassLoader contextClassLoader) {
+            this.callable = callable;
+            this.timeoutNanos = timeoutNanos;
+            this.timeoutHandler = timeoutHandler;
+            this.contextClassLoader = contextClassLoader;
+        }
+
+        /**
+         * Runs the statement. Returns {@code true} if it finished in time, in
+         * which case the caller has to {@link #finish()} the execution.
+         */
+        boolean execute() {
+            thread = Thread.currentThread();
+            thread.setContextClassLoader(contextClassLoader);
+            hardDeadline = System.nanoTime() + timeoutNanos;
+            started.countDown();
+            Throwable throwable;
+            try {
+                throwable = callable.call();
+            } catch (Throwable e) {
+                throwable = e;
+            }
+            if (state.compareAndSet(RUNNING, FINISHED)) {
+                result = throwable;
+                return true;
+            }
+            // Wait for the watchdog, so its interrupt does not hit the next
+            // statement run on this thread.
+            while (true) {
+                try {
+                    timeoutHandled.await();
+                    return false;
+                } catch (InterruptedException e) {
+                    // the interrupt is cleared before the next statement anyway
+                }
+            }
+        }
+
+        void finish() {
+            done.countDown();
+        }
+
+        /**
+         * Sets the deadline of the next check to {@code delayNanos} from now,
+         * but no later than the wall-clock time limit. Returns {@code false}
+         * if there is nothing to check.
+         */
+        boolean updateDeadline(long delayNanos) {
+            long now = System.nanoTime();
+            if (timeoutNanos > 0 && delayNanos >= hardDeadline - now) {
+                deadline = hardDeadline;
+                return true;
+            }
+            if (delayNanos == Long.MAX_VALUE) {
+                return false;
+            }
+            deadline = now + Math.max(delayNanos, 0);
+            return true;
+        }
+
+        /**
+         * Called by the watchdog once the deadline has passed. Returns
+         * {@code true} if the statement has to be checked again later.
+         */
+        boolean deadlinePassed() {
+            if (state.get() != RUNNING) {
+                return false;
+            }
+            if (timeoutNanos > 0 && System.nanoTime() - hardDeadline >= 0) {
+                timeOut();
+                return false;
+            }
+            long delayNanos = timeoutHandler.nanosUntilNextCheck(thread);
+            if (delayNanos <= 0) {
+                timeOut();
+                return false;
+            }
+            return updateDeadline(delayNanos);
+        }
+
+        private void timeOut() {
+            if (state.compareAndSet(RUNNING, TIMED_OUT)) {
+                try {
+                    result = timeoutHandler.timedOut(thread);
+                } catch (Throwable e) {
+                    result = e;
+                } finally {
+                    timeoutHandled.countDown();
+                    done.countDown();
+                }
+            }
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            long diff = deadline - ((Execution) other).deadline;
+            return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+        }
+    }
+
+    /**
+     * Returns the outermost thread group we are allowed to access, so that the
+     * pooled threads are independent of the group of whoever used them first.
+     */
+    private static ThreadGroup rootThreadGroup() {
+        ThreadGroup group = Thread.currentThread().getThreadGroup();
+        try {
+            while (group.getParent() != null) {
+                group = group.getParent();
+            }
+        } catch (SecurityException e) {
+            // use the outermost group we got to
+        }
+        return group;
+    }
+
+    /**
+     * Clears the state the last statement may have left on the current worker
+     * thread. Returns {@code false} if the thread cannot be reused.
+     */
+    private static boolean resetCurrentThread() {
+        Thread thread = Thread.currentThread();
+        Thread.interrupted();
+        if (thread.getThreadGroup().activeCount() > 1) {
+            return false;
+        }
+        if (!ThreadLocals.clear(thread)) {
+            return false;
+        }
+        thread.setName("Time-limited test");
+        thread.setUncaughtExceptionHandler(null);
+        return true;
+    }
+
+    private static final class ThreadLocals {
+        private static final Field THREAD_LOCALS = accessibleField("threadLocals");
+        private static final Field INHERITABLE_THREAD_LOCALS =
+                accessibleField("inheritableThreadLocals");
+
+        static boolean isSupported() {
+            return THREAD_LOCALS != null && INHERITABLE_THREAD_LOCALS != null;
+        }
+
+        static boolean clear(Thread thread) {
+            if (!isSupported()) {
+                return false;
+            }
+            try {
+                THREAD_LOCALS.set(thread, null);
+                INHERITABLE_THREAD_LOCALS.set(thread, null);
+                return true;
+            } catch (IllegalAccessException e) {
+                return false;
+            }
+        }
+
+        private static Field accessibleField(String name) {
+            try {
+                Field field = Thread.class.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                return null;
+            } catch (RuntimeException e) {
+                // SecurityException, or InaccessibleObjectException on Java 9 and later
+                return null;
+            }
+        }
+    }
+}
@@ -41,6 +41,11 @@ public class Timeout implements TestRule {
     private final long timeout;
     private final TimeUnit timeUnit;
     private final boolean lookForStuckThread;
+    private final boolean virtualThread;
+    private final boolean pooledThreads;
+    private final long cpuTimeout;
+    private final TimeUnit cpuTimeUnit;
+    private final boolean cpuTimeOfThreadGroup;
 
     /**
      * Returns a new builder for building an instance.
@@ -81,6 +86,11 @@ public class Timeout implements TestRule {
         this.timeout = timeout;
         this.timeUnit = timeUnit;
         lookForStuckThread = false;
+        virtualThread = false;
+        pooledThreads = false;
+        cpuTimeout = 0;
+        cpuTimeUnit = TimeUnit.SECONDS;
+        cpuTimeOfThreadGroup = false;
     }
 
     /**
@@ -93,6 +103,11 @@ public class Timeout implements TestRule {
         timeout = builder.getTimeout();
         timeUnit = builder.getTimeUnit();
         lookForStuckThread = builder.getLookingForStuckThread();
+        virtualThread = builder.getUsingVirtualThread();
+        pooledThreads = builder.getUsingPooledThreads();
+        cpuTimeout = builder.getCpuTimeout();
+        cpuTimeUnit = builder.getCpuTimeUnit();
+        cpuTimeOfThreadGroup = builder.getCountingCpuTimeOfThreadGroup();
     }
 
     /**
@@ -124,6 +139,26 @@ public class Timeout implements TestRule {
         return unit.convert(timeout, timeUnit);
     }
 
+    /**
+     * Gets the CPU time limit configured for this rule, in the given units,
+     * or {@code 0} if there is none.
+     *
+     * @since 4.14
+     */
+    protected final long getCpuTimeout(TimeUnit unit) {
+        return unit.convert(cpuTimeout, cpuTimeUnit);
+    }
+
+    /**
+     * Gets whether the CPU time limit of this {@code Timeout} applies to all
+     * the threads started by a test.
+     *
+     * @since 4.14
+     */
+    protected final boolean getCountingCpuTimeOfThreadGroup() {
+        return cpuTimeOfThreadGroup;
+    }
+
     /**
      * Gets whether this {@code Timeout} will look for a stuck thread
      * when the test times out.
@@ -134,6 +169,26 @@ public class Timeout implements TestRule {
         return lookForStuckThread;
     }
 
+    /**
+     * Gets whether this {@code Timeout} will run tests on virtual threads,
+     * where supported.
+     *
+     * @since 4.14
+     */
+    protected final boolean getUsingVirtualThread() {
+        return virtualThread;
+    }
+
+    /**
+     * Gets whether this {@code Timeout} will run tests on threads from a
+     * shared pool.
+     *
+     * @since 4.14
+     */
+    protected final boolean getUsingPooledThreads() {
+        return pooledThreads;
+    }
+
     /**
      * Creates a {@link Statement} that will run the given
      * {@code statement}, and timeout the operation based
@@ -147,6 +202,10 @@ public class Timeout implements TestRule {
         return FailOnTimeout.builder()
             .withTimeout(timeout, timeUnit)
             .withLookingForStuckThread(lookForStuckThread)
+            .withVirtualThread(virtualThread)
+            .withPooledThreads(pooledThreads)
+            .withCpuTimeout(cpuTimeout, cpuTimeUnit)
+            .withCpuTimeOfThreadGroup(cpuTimeOfThreadGroup)
             .build(statement);
     }
 
@@ -169,8 +228,13 @@ public class Timeout implements TestRule {
      */
     public static class Builder {
         private boolean lookForStuckThread = false;
+        private boolean virtualThread = false;
+        private boolean pooledThreads = false;
         private long timeout = 0;
         private TimeUnit timeUnit = TimeUnit.SECONDS;
+        private long cpuTimeout = 0;
+        private TimeUnit cpuTimeUnit = TimeUnit.SECONDS;
+        private boolean cpuTimeOfThreadGroup = false;
 
         protected Builder() {
         }
@@ -204,6 +268,54 @@ public class Timeout implements TestRule {
             return timeUnit;
         }
 
+        /**
+         * Specifies the CPU time a test may use before timing out. Time a test
+         * spends waiting for a processor does not count, so tests do not time
+         * out just because the machine is busy, for example when running many
+         * tests in parallel. The time given to
+         * {@link #withTimeout(long, TimeUnit)} then only serves as an upper
+         * bound on the wall-clock time of a test.
+         *
+         * <p>If the JVM cannot measure the CPU time of threads, the wall-clock
+         * time since the test started is counted instead.
+         *
+         * @param timeout the maximum CPU time, or {@code 0} for no CPU time limit
+         * @param unit the time unit of the {@code timeout} argument
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withCpuTimeout(long timeout, TimeUnit unit) {
+            this.cpuTimeout = timeout;
+            this.cpuTimeUnit = unit;
+            return this;
+        }
+
+        protected long getCpuTimeout() {
+            return cpuTimeout;
+        }
+
+        protected TimeUnit getCpuTimeUnit() {
+            return cpuTimeUnit;
+        }
+
+        /**
+         * Specifies whether the CPU time limit applies to the CPU time of all
+         * the threads a test starts, as long as they are running, rather than
+         * just to the thread running the test.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withCpuTimeOfThreadGroup(boolean enable) {
+            this.cpuTimeOfThreadGroup = enable;
+            return this;
+        }
+
+        protected boolean getCountingCpuTimeOfThreadGroup() {
+            return cpuTimeOfThreadGroup;
+        }
+
         /**
          * Specifies whether to look for a stuck thread.  If a timeout occurs and this
          * feature is enabled, the rule will look for a thread that appears to be stuck
@@ -222,6 +334,46 @@ public class Timeout implements TestRule {
             return lookForStuckThread;
         }
 
+        /**
+         * Specifies whether to run each test on a virtual thread rather than on
+         * a new platform thread. Virtual threads are only used if the JVM
+         * supports them (Java 21 or later) and looking for a stuck thread is
+         * disabled.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withVirtualThread(boolean enable) {
+            this.virtualThread = enable;
+            return this;
+        }
+
+        protected boolean getUsingVirtualThread() {
+            return virtualThread;
+        }
+
+        /**
+         * Specifies whether to run each test on a thread from a shared pool
+         * rather than on a new thread, with a single watchdog thread that
+         * tracks the deadlines of all tests. This avoids creating a thread per
+         * test when a {@code Timeout} applies to a large number of tests.
+         * Where the JVM does not allow clearing the thread locals of a pooled
+         * thread (by default as of Java 16), each test runs on a new thread.
+         *
+         * @param enable {@code true} to enable the feature
+         * @return {@code this} for method chaining.
+         * @since 4.14
+         */
+        public Builder withPooledThreads(boolean enable) {
+            this.pooledThreads = enable;
+            return this;
+        }
+
+        protected boolean getUsingPooledThreads() {
+            return pooledThreads;
+        }
+
 
         /**
          * Builds a {@link Timeout} instance using the values in this builder.,
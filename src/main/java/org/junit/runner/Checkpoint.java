@@ -0,0 +1,352 @@
+package org.junit.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.internal.DataStrings;
+import org.junit.internal.ThrowableSnapshot;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Records each test that finished in a file, so that a run that did not
+ * finish can be resumed with the tests that did not finish.
+ *
+ * <p>A record is handed to the operating system as soon as its test
+ * finished, so it survives the end of the process, but not necessarily a
+ * crash of the operating system. A record that was not completely written is
+ * ignored and overwritten when the run is resumed. Tests are identified by
+ * their display names.
+ *
+ * @see JUnitCore#run(Request, File, boolean)
+ */
+@RunListener.ThreadSafe
+final class Checkpoint extends RunListener {
+    private static final long MAGIC = 0x4A556E6974436B70L; // "JUnitCkp"
+
+    private static final byte TEST = 1;
+    private static final byte IGNORED = 2;
+    private static final byte FAILURE_OUTSIDE_TEST = 3;
+
+    private final File file;
+
+    // the tests that finished before the run was resumed
+    private final Set<String> finishedTests = new HashSet<String>();
+    private final List<Description> previousTests = new ArrayList<Description>();
+    private final List<Description> previousIgnored = new ArrayList<Description>();
+    private final List<Failure> previousFailures = new ArrayList<Failure>();
+    private final List<Failure> previousAssumptionFailures = new ArrayList<Failure>();
+    private final List<Failure> previousFailuresOutsideTests = new ArrayList<Failure>();
+
+    // guarded by this
+    private DataOutputStream out;
+    private final Map<Description, Pending> running = new HashMap<Description, Pending>();
+
+    /**
+     * Creates a checkpoint that replaces {@code file}.
+     */
+    static Checkpoint create(File file) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(file);
+        checkpoint.open(0);
+        return checkpoint;
+    }
+
+    /**
+     * Reads the tests that finished according to {@code file}, if it exists,
+     * and creates a checkpoint that appends to it.
+     */
+    static Checkpoint resume(File file) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(file);
+        checkpoint.open(file.exists() ? checkpoint.read() : 0);
+        return checkpoint;
+    }
+
+    private Checkpoint(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the complete records of the file and returns their length.
+     */
+    private long read() throws IOException {
+        CountingInputStream counter = new CountingInputStream(
+                new BufferedInputStream(new FileInputStream(file)));
+        DataInputStream in = new DataInputStream(counter);
+        long length = 0;
+        try {
+            if (in.readLong() != MAGIC) {
+                throw new IOException(file + " is not a checkpoint");
+            }
+            length = counter.count;
+            while (true) {
+                byte type = in.readByte();
+                Description description = Description.createSuiteDescription(
+                        DataStrings.readString(in));
+                switch (type) {
+                    case TEST:
+                        List<Failure> failures = readFailures(in, description);
+                        List<Failure> assumptionFailures = readFailures(in, description);
+                        previousTests.add(description);
+                        previousFailures.addAll(failures);
+                        previousAssumptionFailures.addAll(assumptionFailures);
+                        break;
+                    case IGNORED:
+                        previousIgnored.add(description);
+                        break;
+                    case FAILURE_OUTSIDE_TEST:
+                        previousFailuresOutsideTests.add(
+                                new Failure(description, ThrowableSnapshot.readFrom(in)));
+                        break;
+                    default:
+                        throw new IOException(file + " contains a record of the unknown type " + type);
+                }
+                if (type != FAILURE_OUTSIDE_TEST) {
+                    finishedTests.add(description.getDisplayName());
+                }
+                length = counter.count;
+            }
+        } catch (EOFException e) {
+            // the file ends with the last complete record, or within a record
+            // that was written when the run ended
+            return length;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static List<Failure> readFailures(DataInputStream in, Description description)
+            throws IOException {
+        int count = in.readInt();
+        List<Failure> failures = new ArrayList<Failure>(count);
+        for (int i = 0; i < count; i++) {
+            failures.add(new Failure(description, ThrowableSnapshot.readFrom(in)));
+        }
+        return failures;
+    }
+
+    private void open(long length) throws IOException {
+        if (length > 0) {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                randomAccessFile.setLength(length);
+            } finally {
+                randomAccessFile.close();
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        } else {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            out.writeLong(MAGIC);
+            out.flush();
+        }
+    }
+
+    /**
+     * Returns {@code runner} without the tests that finished before the run
+     * was resumed.
+     */
+    Runner remainingTests(Runner runner) {
+        if (finishedTests.isEmpty()) {
+            return runner;
+        }
+        try {
+            new Filter() {
+                @Override
+                public boolean shouldRun(Description description) {
+                    if (description.isTest()) {
+                        return !finishedTests.contains(description.getDisplayName());
+                    }
+                    for (Description each : description.getChildrenView()) {
+                        if (shouldRun(each)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public String describe() {
+                    return "tests that did not finish according to " + file;
+                }
+            }.apply(runner);
+            return runner;
+        } catch (NoTestsRemainException e) {
+            return new NothingToRun(runner.getDescription().getDisplayName());
+        }
+    }
+
+    /**
+     * Notifies {@code listener} of the tests that finished before the run
+     * was resumed, and of the failures outside of tests of the parts of the
+     * run that are not part of {@code remaining}.
+     */
+    void replayFinished(RunListener listener, Description remaining) throws Exception {
+        for (Description each : previousTests) {
+            listener.testStarted(each);
+            listener.testFinished(each);
+        }
+        for (Description each : previousIgnored) {
+            listener.testIgnored(each);
+        }
+        for (Failure each : previousFailures) {
+            listener.testFailure(each);
+        }
+        for (Failure each : previousAssumptionFailures) {
+            listener.testAssumptionFailure(each);
+        }
+        Set<String> remainingNames = new HashSet<String>();
+        addDisplayNames(remainingNames, remaining);
+        for (Failure each : previousFailuresOutsideTests) {
+            if (!remainingNames.contains(each.getDescription().getDisplayName())) {
+                listener.testFailure(each);
+            }
+        }
+    }
+
+    private static void addDisplayNames(Set<String> names, Description description) {
+        names.add(description.getDisplayName());
+        for (Description each : description.getChildrenView()) {
+            addDisplayNames(names, each);
+        }
+    }
+
+    synchronized void close() throws IOException {
+        out.close();
+    }
+
+    @Override
+    public synchronized void testStarted(Description description) throws Exception {
+        running.put(description, new Pending());
+    }
+
+    @Override
+    public synchronized void testFinished(Description description) throws Exception {
+        Pending pending = running.remove(description);
+        out.writeByte(TEST);
+        DataStrings.writeString(out, description.getDisplayName());
+        writeFailures(pending == null ? null : pending.failures);
+        writeFailures(pending == null ? null : pending.assumptionFailures);
+        out.flush();
+    }
+
+    private void writeFailures(List<Failure> failures) throws IOException {
+        if (failures == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(failures.size());
+        for (Failure each : failures) {
+            writeException(each.getException());
+        }
+    }
+
+    private void writeException(Throwable exception) throws IOException {
+        if (exception == null) {
+            // read as a snapshot without causes, which is null
+            out.writeInt(0);
+        } else {
+            ThrowableSnapshot.of(exception).writeTo(out);
+        }
+    }
+
+    @Override
+    public synchronized void testFailure(Failure failure) throws Exception {
+        Pending pending = running.get(failure.getDescription());
+        if (pending != null) {
+            pending.failures.add(failure);
+        } else {
+            // a failure outside of a test, such as one of an @AfterClass method
+            out.writeByte(FAILURE_OUTSIDE_TEST);
+            DataStrings.writeString(out, failure.getDescription().getDisplayName());
+            writeException(failure.getException());
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void testAssumptionFailure(Failure failure) {
+        Pending pending = running.get(failure.getDescription());
+        if (pending != null) {
+            pending.assumptionFailures.add(failure);
+        }
+    }
+
+    @Override
+    public synchronized void testIgnored(Description description) throws Exception {
+        out.writeByte(IGNORED);
+        DataStrings.writeString(out, description.getDisplayName());
+        out.flush();
+    }
+
+    private static class Pending {
+        final List<Failure> failures = new ArrayList<Failure>();
+        final List<Failure> assumptionFailures = new ArrayList<Failure>();
+    }
+
+    /**
+     * Counts the bytes that have been read.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * The runner of a resumed run in which all tests had finished.
+     */
+    private static class NothingToRun extends Runner {
+        private final Description description;
+
+        NothingToRun(String displayName) {
+            description = Description.createSuiteDescription(displayName);
+        }
+
+        @Override
+        public Description getDescription() {
+            return description;
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+        }
+    }
+}
@@ -25,12 +25,14 @@ public class Computer {
      */
     public Runner getSuite(final RunnerBuilder builder,
             Class<?>[] classes) throws InitializationError {
-        return new Suite(new RunnerBuilder() {
+        RunnerBuilder suiteBuilder = new RunnerBuilder() {
             @Override
             public Runner runnerForClass(Class<?> testClass) throws Throwable {
                 return getRunner(builder, testClass);
             }
-        }, classes) {
+        };
+        suiteBuilder.setBuildingRunnersInParallel(builder.isBuildingRunnersInParallel());
+        return new Suite(suiteBuilder, classes) {
             @Override
             protected String getName() {
                 /*
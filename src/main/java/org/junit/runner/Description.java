@@ -1,11 +1,22 @@
 package org.junit.runner;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,6 +29,11 @@ import java.util.regex.Pattern;
  * <code>Descriptions</code> are implemented as a single class rather than a Composite because
  * they are entirely informational. They contain no logic aside from counting their tests.
  * <p>
+ * A tree of <code>Descriptions</code> is usually built once and then only read. Leaves do not allocate
+ * any storage for children, the number of tests and the parsed class and method names are computed
+ * once, and {@link #getChildrenView()} and {@link #findDescendant(Description)} answer without copying
+ * or walking the tree again, as long as no <code>Description</code> in the tree gets new children.
+ * <p>
  * In the past, we used the raw {@link junit.framework.TestCase}s and {@link junit.framework.TestSuite}s
  * to display the tree of tests. This was no longer viable in JUnit 4 because atomic tests no longer have
  * a superclass below {@link Object}. We needed a way to pass a class and name together. Description
@@ -151,13 +167,53 @@ public class Description implements Serializable {
      * We have to use the f prefix until the next major release to ensure
      * serialization compatibility. 
      * See https://github.com/junit-team/junit4/issues/976
+     *
+     * The children are written as a ConcurrentLinkedQueue, like they were
+     * before they were kept in an array.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("fChildren", Collection.class),
+            new ObjectStreamField("fDisplayName", String.class),
+            new ObjectStreamField("fUniqueId", Serializable.class),
+            new ObjectStreamField("fAnnotations", Annotation[].class),
+            new ObjectStreamField("fTestClass", Class.class)
+    };
+
+    /**
+     * Incremented whenever a child is added to a <code>Description</code>
+     * that a cached value depends on, so that the cached values of all trees
+     * can be recognized as stale. Trees that are still being built do not
+     * change it.
      */
-    private final Collection<Description> fChildren = new ConcurrentLinkedQueue<Description>();
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
+
     private final String fDisplayName;
     private final Serializable fUniqueId;
     private final Annotation[] fAnnotations;
     private volatile /* write-once */ Class<?> fTestClass;
 
+    /** Only set during deserialization process. */
+    private transient SerializedForm serializedForm;
+
+    /*
+     * The first childCount elements of children are the children, and
+     * children is null until the first one is added. Both are only written
+     * while holding the lock of this Description, and children is only
+     * replaced by a larger copy.
+     */
+    private transient volatile Description[] children;
+    private transient volatile int childCount;
+
+    // {method name, class name}, parsed from the display name on first use
+    private transient volatile String[] parsedNames;
+    private transient volatile TreeCache treeCache;
+    /*
+     * Set before the children are read to compute a cached value, and read
+     * after a child has been added, so that either the cached value includes
+     * the new child or the new child changes MODIFICATIONS.
+     */
+    private transient volatile boolean cached;
+
     private Description(Class<?> clazz, String displayName, Annotation... annotations) {
         this(clazz, displayName, displayName, annotations);
     }
@@ -190,7 +246,21 @@ public class Description implements Serializable {
      * @param description the soon-to-be child.
      */
     public void addChild(Description description) {
-        fChildren.add(description);
+        synchronized (this) {
+            int count = childCount;
+            if (count == 0) {
+                children = new Description[4];
+            } else if (count == children.length) {
+                Description[] larger = new Description[2 * count];
+                System.arraycopy(children, 0, larger, 0, count);
+                children = larger;
+            }
+            children[count] = description;
+            childCount = count + 1;
+        }
+        if (cached) {
+            MODIFICATIONS.incrementAndGet();
+        }
     }
 
     /**
@@ -198,7 +268,22 @@ public class Description implements Serializable {
      * Returns an empty list if there are no children.
      */
     public ArrayList<Description> getChildren() {
-        return new ArrayList<Description>(fChildren);
+        return new ArrayList<Description>(getChildrenView());
+    }
+
+    /**
+     * Gets an unmodifiable list of the children that this {@code Description}
+     * has when this method is called. Unlike {@link #getChildren()}, the
+     * children are not copied.
+     *
+     * @since 4.14
+     */
+    public List<Description> getChildrenView() {
+        int count = childCount;
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        return new ChildList(children, count);
     }
 
     /**
@@ -212,23 +297,75 @@ public class Description implements Serializable {
      * @return <code>true</code> if the receiver is an atomic test
      */
     public boolean isTest() {
-        return fChildren.isEmpty();
+        return childCount == 0;
     }
 
     /**
      * @return the total number of atomic tests in the receiver
      */
     public int testCount() {
+        long modifications = MODIFICATIONS.get();
+        markCached();
         if (isTest()) {
             return 1;
         }
+        TreeCache cache = treeCache;
+        if (cache != null && cache.modifications == modifications) {
+            return cache.testCount;
+        }
         int result = 0;
-        for (Description child : fChildren) {
+        for (Description child : getChildrenView()) {
             result += child.testCount();
         }
+        treeCache = new TreeCache(modifications, result, null);
         return result;
     }
 
+    /**
+     * Finds a {@code Description} in the tree of this {@code Description}.
+     * The index of the tree is built by the first call, and rebuilt only when
+     * children have been added since.
+     *
+     * @param description the {@code Description} to look for
+     * @return this {@code Description} or the first of its descendants, in
+     *         depth-first order, that is equal to {@code description},
+     *         or {@code null} if there is none
+     * @since 4.14
+     */
+    public Description findDescendant(Description description) {
+        if (isTest()) {
+            return equals(description) ? this : null;
+        }
+        long modifications = MODIFICATIONS.get();
+        markCached();
+        TreeCache cache = treeCache;
+        if (cache == null || cache.modifications != modifications || cache.index == null) {
+            Map<Serializable, Description> index = new HashMap<Serializable, Description>();
+            addToIndex(index);
+            int count = cache != null && cache.modifications == modifications
+                    ? cache.testCount : testCount();
+            cache = new TreeCache(modifications, count, index);
+            treeCache = cache;
+        }
+        return cache.index.get(description.fUniqueId);
+    }
+
+    private void markCached() {
+        if (!cached) {
+            cached = true;
+        }
+    }
+
+    private void addToIndex(Map<Serializable, Description> index) {
+        markCached();
+        if (!index.containsKey(fUniqueId)) {
+            index.put(fUniqueId, this);
+        }
+        for (Description child : getChildrenView()) {
+            child.addToIndex(index);
+        }
+    }
+
     @Override
     public int hashCode() {
         return fUniqueId.hashCode();
@@ -308,7 +445,7 @@ public class Description implements Serializable {
      *         the name of the class of the test instance
      */
     public String getClassName() {
-        return fTestClass != null ? fTestClass.getName() : methodAndClassNamePatternGroupOrDefault(2, toString());
+        return fTestClass != null ? fTestClass.getName() : parsedNames()[1];
     }
 
     /**
@@ -316,12 +453,115 @@ public class Description implements Serializable {
      *         the name of the method (or null if not)
      */
     public String getMethodName() {
-        return methodAndClassNamePatternGroupOrDefault(1, null);
+        return parsedNames()[0];
+    }
+
+    private String[] parsedNames() {
+        String[] names = parsedNames;
+        if (names == null) {
+            Matcher matcher = METHOD_AND_CLASS_NAME_PATTERN.matcher(toString());
+            names = matcher.matches()
+                    ? new String[] {matcher.group(1), matcher.group(2)}
+                    : new String[] {null, toString()};
+            parsedNames = names;
+        }
+        return names;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("fChildren", new ConcurrentLinkedQueue<Description>(getChildrenView()));
+        fields.put("fDisplayName", fDisplayName);
+        fields.put("fUniqueId", fUniqueId);
+        fields.put("fAnnotations", fAnnotations);
+        fields.put("fTestClass", fTestClass);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        serializedForm = new SerializedForm(in.readFields());
+    }
+
+    private Object readResolve() {
+        Description description = new Description(serializedForm.fTestClass,
+                serializedForm.fDisplayName, serializedForm.fUniqueId, serializedForm.fAnnotations);
+        if (serializedForm.fChildren != null && !serializedForm.fChildren.isEmpty()) {
+            description.children = serializedForm.fChildren.toArray(
+                    new Description[serializedForm.fChildren.size()]);
+            description.childCount = description.children.length;
+        }
+        return description;
+    }
+
+    /**
+     * The fields read by {@link #readObject(ObjectInputStream)}, from which
+     * {@link #readResolve()} creates the <code>Description</code>, so that
+     * its fields can be final.
+     */
+    private static final class SerializedForm {
+        final Collection<Description> fChildren;
+        final String fDisplayName;
+        final Serializable fUniqueId;
+        final Annotation[] fAnnotations;
+        final Class<?> fTestClass;
+
+        @SuppressWarnings("unchecked")
+        SerializedForm(ObjectInputStream.GetField fields) throws IOException {
+            fChildren = (Collection<Description>) fields.get("fChildren", null);
+            fDisplayName = (String) fields.get("fDisplayName", null);
+            fUniqueId = (Serializable) fields.get("fUniqueId", null);
+            fAnnotations = (Annotation[]) fields.get("fAnnotations", null);
+            fTestClass = (Class<?>) fields.get("fTestClass", null);
+        }
     }
 
-    private String methodAndClassNamePatternGroupOrDefault(int group,
-            String defaultString) {
-        Matcher matcher = METHOD_AND_CLASS_NAME_PATTERN.matcher(toString());
-        return matcher.matches() ? matcher.group(group) : defaultString;
+    /**
+     * An unmodifiable list of the first elements of an array.
+     */
+    private static final class ChildList extends AbstractList<Description>
+            implements RandomAccess {
+        private final Description[] elements;
+        private final int size;
+
+        ChildList(Description[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        public Description get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] copy = new Object[size];
+            System.arraycopy(elements, 0, copy, 0, size);
+            return copy;
+        }
+    }
+
+    /**
+     * Values computed from a tree of <code>Descriptions</code>, which are
+     * valid as long as no <code>Description</code> got new children.
+     */
+    private static final class TreeCache {
+        final long modifications;
+        final int testCount;
+        final Map<Serializable, Description> index;
+
+        TreeCache(long modifications, int testCount, Map<Serializable, Description> index) {
+            this.modifications = modifications;
+            this.testCount = testCount;
+            this.index = index;
+        }
     }
 }
\ No newline at end of file
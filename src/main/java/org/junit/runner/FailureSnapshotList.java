@@ -0,0 +1,369 @@
+package org.junit.runner;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.internal.ThrowableSnapshot;
+import org.junit.runner.notification.Failure;
+
+/**
+ * The failures of a {@link Result} that keeps {@link ThrowableSnapshot}s
+ * instead of the exceptions that were thrown.
+ *
+ * <p>The first failures are kept in memory. The exceptions of all further
+ * failures are written to a temporary file and read again in batches when the
+ * list is iterated. Random access to a spilled failure reads the batch that
+ * starts with it, unless it was read by the previous call of
+ * {@link #get(int)}, so that an indexed loop reads the file only once.
+ *
+ * <p>The file is only open while a batch of exceptions is written to it or
+ * read from it. Once the list is no longer referenced, its file is deleted
+ * the next time any {@code FailureSnapshotList} is created, writes to a file
+ * or is iterated, or else when the JVM exits.
+ */
+final class FailureSnapshotList extends AbstractList<Failure> {
+    /** The number of bytes of exceptions that are collected before they are written. */
+    private static final int WRITE_BATCH_SIZE = 64 * 1024;
+
+    /** The number of exceptions that are read from the file at a time. */
+    private static final int READ_BATCH_SIZE = 64;
+
+    private final int maxFailuresInMemory;
+
+    /** The number of calls of {@link #add(Failure)} that claimed a place in {@link #inMemory}. */
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Failure> inMemory = new ConcurrentLinkedQueue<Failure>();
+    private final AtomicInteger inMemoryCount = new AtomicInteger();
+
+    // guarded by this
+    private SpillFile file;
+    private boolean fileFailed;
+    private long fileLength;
+    /** The exceptions that have not been written to the file yet. */
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private final List<Description> spilledDescriptions = new ArrayList<Description>();
+    /** The position of the exception of each spilled failure in the file followed by {@link #pending}. */
+    private long[] spilledOffsets = new long[16];
+    /** The iterator used by the last call of {@link #get(int)} for a spilled failure. */
+    private FailureIterator cursor;
+    private volatile int overflowCount;
+
+    FailureSnapshotList(int maxFailuresInMemory) {
+        this.maxFailuresInMemory = maxFailuresInMemory;
+        SpillFile.deleteFilesOfCollectedLists();
+    }
+
+    @Override
+    public boolean add(Failure failure) {
+        Failure snapshot = snapshotOf(failure);
+        if (claimed.get() < maxFailuresInMemory && claimed.getAndIncrement() < maxFailuresInMemory) {
+            inMemory.add(snapshot);
+            inMemoryCount.incrementAndGet();
+        } else {
+            spill(snapshot);
+        }
+        return true;
+    }
+
+    private static Failure snapshotOf(Failure failure) {
+        Throwable exception = failure.getException();
+        if (exception == null || exception instanceof ThrowableSnapshot) {
+            return failure;
+        }
+        return new Failure(failure.getDescription(), ThrowableSnapshot.of(exception));
+    }
+
+    private synchronized void spill(Failure failure) {
+        int index = spilledDescriptions.size();
+        if (index == spilledOffsets.length) {
+            long[] largerOffsets = new long[2 * index];
+            System.arraycopy(spilledOffsets, 0, largerOffsets, 0, index);
+            spilledOffsets = largerOffsets;
+        }
+        spilledOffsets[index] = fileLength + pending.size();
+        try {
+            ((ThrowableSnapshot) failure.getException()).writeTo(pendingOut);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write to memory", e);
+        }
+        spilledDescriptions.add(failure.getDescription());
+        if (pending.size() >= WRITE_BATCH_SIZE) {
+            writePending();
+        }
+        overflowCount++;
+    }
+
+    /**
+     * Appends the pending exceptions to the file. If the file cannot be
+     * written, they and all further exceptions are kept in memory.
+     */
+    private void writePending() {
+        if (fileFailed || pending.size() == 0) {
+            return;
+        }
+        SpillFile.deleteFilesOfCollectedLists();
+        try {
+            if (file == null) {
+                file = SpillFile.create(this);
+            }
+            FileOutputStream out = new FileOutputStream(file.path, true);
+            try {
+                pending.writeTo(out);
+            } finally {
+                out.close();
+            }
+            fileLength += pending.size();
+            pending.reset();
+        } catch (IOException e) {
+            fileFailed = true;
+        }
+    }
+
+    @Override
+    public int size() {
+        return inMemoryCount.get() + overflowCount;
+    }
+
+    @Override
+    public Failure get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        int inMemorySize = inMemoryCount.get();
+        if (index < inMemorySize) {
+            Iterator<Failure> iterator = inMemory.iterator();
+            for (int i = 0; i < index; i++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+        int spilledIndex = index - inMemorySize;
+        synchronized (this) {
+            if (spilledIndex >= spilledDescriptions.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            if (cursor == null || !cursor.canSkipTo(spilledIndex)) {
+                cursor = newIterator(null, 0);
+            }
+            cursor.skipTo(spilledIndex);
+            return cursor.next();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        List<Failure> copy = new ArrayList<Failure>();
+        for (Failure each : this) {
+            copy.add(each);
+        }
+        return copy.toArray();
+    }
+
+    @Override
+    public Iterator<Failure> iterator() {
+        return newIterator(inMemory.iterator(), inMemoryCount.get());
+    }
+
+    private synchronized FailureIterator newIterator(Iterator<Failure> inMemory, int inMemoryCount) {
+        writePending();
+        SpillFile.deleteFilesOfCollectedLists();
+        return new FailureIterator(inMemory, inMemoryCount, spilledDescriptions.size(),
+                fileLength, pending.toByteArray());
+    }
+
+    /**
+     * Iterates over the failures that had been added when it was created: the
+     * ones in memory, then the ones in the file and in the pending bytes.
+     * Being an inner class, it keeps the file from being deleted.
+     */
+    private class FailureIterator implements Iterator<Failure> {
+        private final Iterator<Failure> inMemory;
+        private int inMemoryRemaining;
+        private final int spilledCount;
+        private final long fileLength;
+        private final byte[] pendingBytes;
+        private int spilledIndex;
+        private final List<Failure> readAhead = new ArrayList<Failure>();
+        private int readAheadIndex;
+
+        FailureIterator(Iterator<Failure> inMemory, int inMemoryCount, int spilledCount,
+                long fileLength, byte[] pendingBytes) {
+            this.inMemory = inMemory;
+            this.inMemoryRemaining = inMemoryCount;
+            this.spilledCount = spilledCount;
+            this.fileLength = fileLength;
+            this.pendingBytes = pendingBytes;
+        }
+
+        public boolean hasNext() {
+            return (inMemoryRemaining > 0 && inMemory.hasNext()) || spilledIndex < spilledCount;
+        }
+
+        public Failure next() {
+            if (inMemoryRemaining > 0 && inMemory.hasNext()) {
+                inMemoryRemaining--;
+                return inMemory.next();
+            } else if (spilledIndex < spilledCount) {
+                if (readAheadIndex == readAhead.size()) {
+                    readSpilled();
+                }
+                spilledIndex++;
+                return readAhead.get(readAheadIndex++);
+            }
+            throw new NoSuchElementException();
+        }
+
+        /**
+         * Returns {@code true} if the spilled failure with the given index can
+         * be reached by {@link #skipTo(int)}. Only used after all failures in
+         * memory have been returned.
+         */
+        boolean canSkipTo(int index) {
+            return index >= spilledIndex && index < spilledCount;
+        }
+
+        /**
+         * Skips the spilled failures before the given index, which must not
+         * be before the next one. Skipped failures that have not been read
+         * yet are not read.
+         */
+        void skipTo(int index) {
+            int skipped = index - spilledIndex;
+            if (skipped < readAhead.size() - readAheadIndex) {
+                readAheadIndex += skipped;
+            } else {
+                readAhead.clear();
+                readAheadIndex = 0;
+            }
+            spilledIndex = index;
+        }
+
+        /**
+         * Reads the next batch of spilled failures, either from the file or
+         * from the bytes that had not been written to it.
+         */
+        private void readSpilled() {
+            readAhead.clear();
+            readAheadIndex = 0;
+            List<Description> descriptions = new ArrayList<Description>();
+            long[] offsets;
+            synchronized (FailureSnapshotList.this) {
+                int end = Math.min(spilledIndex + READ_BATCH_SIZE, spilledCount);
+                descriptions.addAll(spilledDescriptions.subList(spilledIndex, end));
+                offsets = new long[end - spilledIndex];
+                System.arraycopy(spilledOffsets, spilledIndex, offsets, 0, offsets.length);
+            }
+            long offset = offsets[0];
+            if (offset >= fileLength) {
+                int start = (int) (offset - fileLength);
+                try {
+                    readSpilled(new DataInputStream(new ByteArrayInputStream(
+                            pendingBytes, start, pendingBytes.length - start)),
+                            descriptions, offsets, false);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot read failures from memory", e);
+                }
+                return;
+            }
+            File path = file.path;
+            try {
+                FileInputStream in = new FileInputStream(path);
+                try {
+                    in.getChannel().position(offset);
+                    readSpilled(new DataInputStream(new BufferedInputStream(in)),
+                            descriptions, offsets, true);
+                } finally {
+                    in.close();
+                }
+            } catch (EOFException e) {
+                throw new IllegalStateException("Failures are missing in " + path, e);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read failures from " + path, e);
+            }
+        }
+
+        private void readSpilled(DataInputStream in, List<Description> descriptions,
+                long[] offsets, boolean fromFile) throws IOException {
+            for (int i = 0; i < offsets.length && (offsets[i] < fileLength) == fromFile; i++) {
+                readAhead.add(new Failure(descriptions.get(i), ThrowableSnapshot.readFrom(in)));
+            }
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A temporary file that is deleted after the list that writes to it has
+     * been garbage collected, or else when the JVM exits. Files of collected
+     * lists are deleted whenever a list is created, writes to its file or is
+     * iterated, so that the JVM does not keep a growing list of files to
+     * delete, as {@link File#deleteOnExit()} would.
+     */
+    private static final class SpillFile extends PhantomReference<FailureSnapshotList> {
+        private static final ReferenceQueue<FailureSnapshotList> collected =
+                new ReferenceQueue<FailureSnapshotList>();
+        // guarded by itself
+        private static final Set<SpillFile> files = new HashSet<SpillFile>();
+        private static boolean shutdownHookAdded;
+
+        final File path;
+
+        private SpillFile(FailureSnapshotList list, File path) {
+            super(list, collected);
+            this.path = path;
+        }
+
+        static SpillFile create(FailureSnapshotList list) throws IOException {
+            SpillFile file = new SpillFile(list, File.createTempFile("junit-failures", ".bin"));
+            synchronized (files) {
+                files.add(file);
+                if (!shutdownHookAdded) {
+                    Runtime.getRuntime().addShutdownHook(new Thread("junit-failures-cleanup") {
+                        @Override
+                        public void run() {
+                            synchronized (files) {
+                                for (SpillFile each : files) {
+                                    each.path.delete();
+                                }
+                            }
+                        }
+                    });
+                    shutdownHookAdded = true;
+                }
+            }
+            return file;
+        }
+
+        static void deleteFilesOfCollectedLists() {
+            SpillFile file;
+            while ((file = (SpillFile) collected.poll()) != null) {
+                file.path.delete();
+                synchronized (files) {
+                    files.remove(file);
+                }
+            }
+        }
+    }
+}
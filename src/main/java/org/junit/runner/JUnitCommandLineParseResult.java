@@ -1,18 +1,29 @@
 package org.junit.runner;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.internal.Classes;
+import org.junit.internal.runners.ErrorReportingRunner;
 import org.junit.runner.FilterFactory.FilterNotCreatedException;
 import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.InvalidOrderingException;
+import org.junit.runner.manipulation.Ordering;
 import org.junit.runners.model.InitializationError;
 
 class JUnitCommandLineParseResult {
     private final List<String> filterSpecs = new ArrayList<String>();
     private final List<Class<?>> classes = new ArrayList<Class<?>>();
     private final List<Throwable> parserErrors = new ArrayList<Throwable>();
+    private File checkpoint;
+    private File resultFile;
+    private boolean resume;
+    private String orderingFactoryName;
+    private long timeBudgetSeconds;
+    private int maxFailures;
 
     /**
      * Do not use. Testing purposes only.
@@ -33,6 +44,27 @@ class JUnitCommandLineParseResult {
         return Collections.unmodifiableList(classes);
     }
 
+    /**
+     * Returns the checkpoint file parsed from command line, or {@code null}.
+     */
+    public File getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Returns the file to write the result of the run to, or {@code null}.
+     */
+    public File getResultFile() {
+        return resultFile;
+    }
+
+    /**
+     * Returns whether a run should be resumed from its checkpoint.
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
     /**
      * Parses the arguments.
      *
@@ -48,6 +80,9 @@ class JUnitCommandLineParseResult {
 
     private void parseArgs(String[] args) {
         parseParameters(parseOptions(args));
+        if (resume && checkpoint == null) {
+            parserErrors.add(new CommandLineParserError("--resume requires --checkpoint"));
+        }
     }
 
     String[] parseOptions(String... args) {
@@ -73,6 +108,78 @@ class JUnitCommandLineParseResult {
                     }
 
                     filterSpecs.add(filterSpec);
+                } else if (arg.startsWith("--checkpoint=") || arg.equals("--checkpoint")) {
+                    if (arg.equals("--checkpoint")) {
+                        ++i;
+
+                        if (i < args.length) {
+                            checkpoint = new File(args[i]);
+                        } else {
+                            parserErrors.add(new CommandLineParserError(arg + " value not specified"));
+                            break;
+                        }
+                    } else {
+                        checkpoint = new File(arg.substring(arg.indexOf('=') + 1));
+                    }
+                } else if (arg.startsWith("--result-file=") || arg.equals("--result-file")) {
+                    if (arg.equals("--result-file")) {
+                        ++i;
+
+                        if (i < args.length) {
+                            resultFile = new File(args[i]);
+                        } else {
+                            parserErrors.add(new CommandLineParserError(arg + " value not specified"));
+                            break;
+                        }
+                    } else {
+                        resultFile = new File(arg.substring(arg.indexOf('=') + 1));
+                    }
+                } else if (arg.startsWith("--order=") || arg.equals("--order")) {
+                    if (arg.equals("--order")) {
+                        ++i;
+
+                        if (i < args.length) {
+                            orderingFactoryName = args[i];
+                        } else {
+                            parserErrors.add(new CommandLineParserError(arg + " value not specified"));
+                            break;
+                        }
+                    } else {
+                        orderingFactoryName = arg.substring(arg.indexOf('=') + 1);
+                    }
+                } else if (arg.startsWith("--time-budget=") || arg.equals("--time-budget")
+                        || arg.startsWith("--max-failures=") || arg.equals("--max-failures")) {
+                    String name = arg.indexOf('=') < 0 ? arg : arg.substring(0, arg.indexOf('='));
+                    String value;
+                    if (arg.equals(name)) {
+                        ++i;
+
+                        if (i < args.length) {
+                            value = args[i];
+                        } else {
+                            parserErrors.add(new CommandLineParserError(arg + " value not specified"));
+                            break;
+                        }
+                    } else {
+                        value = arg.substring(arg.indexOf('=') + 1);
+                    }
+
+                    try {
+                        int limit = Integer.parseInt(value);
+                        if (limit <= 0) {
+                            throw new NumberFormatException();
+                        }
+                        if (name.equals("--time-budget")) {
+                            timeBudgetSeconds = limit;
+                        } else {
+                            maxFailures = limit;
+                        }
+                    } catch (NumberFormatException e) {
+                        parserErrors.add(new CommandLineParserError(
+                                name + " value must be a positive integer: " + value));
+                    }
+                } else if (arg.equals("--resume")) {
+                    resume = true;
                 } else {
                     parserErrors.add(new CommandLineParserError("JUnit knows nothing about the " + arg + " option"));
                 }
@@ -115,7 +222,7 @@ class JUnitCommandLineParseResult {
         if (parserErrors.isEmpty()) {
             Request request = Request.classes(
                     computer, classes.toArray(new Class<?>[classes.size()]));
-            return applyFilterSpecs(request);
+            return applyLimits(applyOrdering(applyFilterSpecs(request)));
         } else {
             return errorReport(new InitializationError(parserErrors));
         }
@@ -134,6 +241,44 @@ class JUnitCommandLineParseResult {
         }
     }
 
+    private Request applyLimits(Request request) {
+        if (timeBudgetSeconds == 0 && maxFailures == 0) {
+            return request;
+        }
+        return request.withLimits(RunLimits.builder()
+                .withTimeBudget(timeBudgetSeconds, TimeUnit.SECONDS)
+                .withMaxFailures(maxFailures)
+                .build());
+    }
+
+    private Request applyOrdering(final Request request) {
+        if (orderingFactoryName == null) {
+            return request;
+        }
+        final Class<? extends Ordering.Factory> factoryClass;
+        try {
+            factoryClass = Classes.getClass(orderingFactoryName).asSubclass(Ordering.Factory.class);
+        } catch (ClassNotFoundException e) {
+            return errorReport(new IllegalArgumentException(
+                    "Could not find class [" + orderingFactoryName + "]", e));
+        } catch (ClassCastException e) {
+            return errorReport(new IllegalArgumentException(
+                    orderingFactoryName + " does not implement " + Ordering.Factory.class.getName(), e));
+        }
+        return new Request() {
+            @Override
+            public Runner getRunner() {
+                Runner runner = request.getRunner();
+                try {
+                    Ordering.definedBy(factoryClass, runner.getDescription()).apply(runner);
+                } catch (InvalidOrderingException e) {
+                    return new ErrorReportingRunner(factoryClass, e);
+                }
+                return runner;
+            }
+        };
+    }
+
     /**
      * Exception used if there's a problem parsing the command line.
      */
@@ -1,5 +1,11 @@
 package org.junit.runner;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
 import junit.runner.Version;
 import org.junit.internal.JUnitSystem;
 import org.junit.internal.RealSystem;
@@ -78,7 +84,44 @@ public class JUnitCore {
         RunListener listener = new TextListener(system);
         addListener(listener);
 
-        return run(jUnitCommandLineParseResult.createRequest(defaultComputer()));
+        Request request = jUnitCommandLineParseResult.createRequest(defaultComputer());
+        Result result = runMain(request, jUnitCommandLineParseResult);
+        File resultFile = jUnitCommandLineParseResult.getResultFile();
+        if (resultFile == null) {
+            return result;
+        }
+        try {
+            writeResult(result, resultFile);
+            return result;
+        } catch (IOException e) {
+            return Result.merge(Arrays.asList(result, run(Request.errorReport(JUnitCore.class, e))));
+        }
+    }
+
+    private Result runMain(Request request, JUnitCommandLineParseResult jUnitCommandLineParseResult) {
+        File checkpoint = jUnitCommandLineParseResult.getCheckpoint();
+        if (checkpoint == null) {
+            return run(request);
+        }
+        try {
+            return run(request, checkpoint, jUnitCommandLineParseResult.isResume());
+        } catch (IOException e) {
+            return run(Request.errorReport(JUnitCore.class, e));
+        }
+    }
+
+    /**
+     * Serializes <code>result</code> to <code>file</code>, so that the results
+     * of the shards of a run can be merged, see
+     * {@link org.junit.experimental.sharding.ShardResults}.
+     */
+    private static void writeResult(Result result, File file) throws IOException {
+        ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream(file));
+        try {
+            stream.writeObject(result);
+        } finally {
+            stream.close();
+        }
     }
 
     /**
@@ -119,6 +162,64 @@ public class JUnitCore {
         return run(request.getRunner());
     }
 
+    /**
+     * Run all the tests contained in <code>request</code>, recording them in
+     * <code>result</code>, for example in one created by
+     * {@link Result#withFailureSnapshots(int)}.
+     *
+     * @param request the request describing tests
+     * @param result the {@link Result} to record the tests in
+     * @return <code>result</code>
+     * @since 4.14
+     */
+    public Result run(Request request, Result result) {
+        return run(request.getRunner(), result);
+    }
+
+    /**
+     * Run all the tests contained in <code>request</code> and record each test
+     * that finished in the file <code>checkpoint</code>, so that a run that did
+     * not finish, for example because the JVM was killed, can be resumed.
+     *
+     * <p>If <code>resume</code> is <code>true</code> and <code>checkpoint</code>
+     * exists, only the tests that did not finish according to it are run, and
+     * the returned {@link Result} also counts the ones that did, including
+     * their failures. Otherwise <code>checkpoint</code> is replaced. It is
+     * deleted when the run finished.
+     *
+     * <p>Tests are identified by their display names, so <code>request</code>
+     * should describe the same tests as the one of the run that is resumed.
+     *
+     * @param request the request describing tests
+     * @param checkpoint the file to record the finished tests in
+     * @param resume whether to skip the tests that finished according to <code>checkpoint</code>
+     * @return a {@link Result} describing the details of the test run and the failed tests.
+     * @throws IOException if <code>checkpoint</code> cannot be read or written
+     * @since 4.14
+     */
+    public Result run(Request request, File checkpoint, boolean resume) throws IOException {
+        Checkpoint journal = resume ? Checkpoint.resume(checkpoint) : Checkpoint.create(checkpoint);
+        Result result = new Result();
+        try {
+            Runner runner = journal.remainingTests(request.getRunner());
+            try {
+                journal.replayFinished(result.createListener(), runner.getDescription());
+            } catch (Exception e) {
+                throw new IllegalStateException("Result cannot record tests", e);
+            }
+            addListener(journal);
+            try {
+                run(runner, result);
+            } finally {
+                removeListener(journal);
+            }
+        } finally {
+            journal.close();
+        }
+        checkpoint.delete();
+        return result;
+    }
+
     /**
      * Run all the tests contained in JUnit 3.8.x <code>test</code>. Here for backward compatibility.
      *
@@ -133,7 +234,10 @@ public class JUnitCore {
      * Do not use. Testing purposes only.
      */
     public Result run(Runner runner) {
-        Result result = new Result();
+        return run(runner, new Result());
+    }
+
+    private Result run(Runner runner, Result result) {
         RunListener listener = result.createListener();
         notifier.addFirstListener(listener);
         try {
@@ -5,6 +5,7 @@ import java.util.Comparator;
 import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
 import org.junit.internal.requests.ClassRequest;
 import org.junit.internal.requests.FilterRequest;
+import org.junit.internal.requests.LimitedRequest;
 import org.junit.internal.requests.OrderingRequest;
 import org.junit.internal.requests.SortingRequest;
 import org.junit.internal.runners.ErrorReportingRunner;
@@ -199,4 +200,25 @@ public abstract class Request {
     public Request orderWith(Ordering ordering) {
         return new OrderingRequest(this, ordering);
     }
+
+    /**
+     * Returns a Request whose run stops when one of the given
+     * <code>limits</code> is reached, for example when it has taken longer
+     * than its time budget. Tests that are running then get a grace period
+     * before they are interrupted, and tests that did not start are reported
+     * as skipped.
+     * <p>
+     * For example, here is code to stop a run after ten failures:
+     * <pre>
+     * new JUnitCore().run(Request.aClass(AllTests.class)
+     *     .withLimits(RunLimits.builder().withMaxFailures(10).build()));
+     * </pre>
+     *
+     * @param limits the conditions under which the run stops
+     * @return a Request whose run stops when one of <code>limits</code> is reached
+     * @since 4.14
+     */
+    public Request withLimits(RunLimits limits) {
+        return new LimitedRequest(this, limits);
+    }
 }
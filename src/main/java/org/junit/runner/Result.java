@@ -7,6 +7,7 @@ import java.io.ObjectStreamClass;
 import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -15,6 +16,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.TestBatch;
 
 /**
  * A <code>Result</code> collects and summarizes information from running multiple tests.
@@ -29,7 +31,7 @@ public class Result implements Serializable {
     private final AtomicInteger count;
     private final AtomicInteger ignoreCount;
     private final AtomicInteger assumptionFailureCount;
-    private final CopyOnWriteArrayList<Failure> failures;
+    private final List<Failure> failures;
     private final AtomicLong runTime;
     private final AtomicLong startTime;
 
@@ -37,14 +39,44 @@ public class Result implements Serializable {
     private SerializedForm serializedForm;
 
     public Result() {
+        this(new CopyOnWriteArrayList<Failure>());
+    }
+
+    private Result(List<Failure> failures) {
         count = new AtomicInteger();
         ignoreCount = new AtomicInteger();
         assumptionFailureCount = new AtomicInteger();
-        failures = new CopyOnWriteArrayList<Failure>();
+        this.failures = failures;
         runTime = new AtomicLong();
         startTime = new AtomicLong();
     }
 
+    /**
+     * Returns a {@code Result} that keeps compact snapshots of the failures
+     * instead of the failures themselves, for runs in which many tests may
+     * fail. The exception of each snapshot is a
+     * {@link org.junit.internal.ThrowableSnapshot} with the class name, the
+     * message and the trimmed stack trace of the exception that was thrown, so
+     * that the objects referenced by the exception can be garbage collected.
+     * <p>
+     * Beyond {@code maxFailuresInMemory} failures, the snapshots are written
+     * to a temporary file and read from it when {@link #getFailures()} is
+     * iterated. Indexed access reads the file in batches as well, so an
+     * indexed loop reads the file once, but each access in random order may
+     * read a batch from the file. The file is deleted some time after the
+     * {@code Result} is no longer referenced, or else when the JVM exits.
+     *
+     * @param maxFailuresInMemory the number of failures that are kept in memory
+     * @since 4.14
+     */
+    public static Result withFailureSnapshots(int maxFailuresInMemory) {
+        if (maxFailuresInMemory < 0) {
+            throw new IllegalArgumentException(
+                    "The number of failures in memory must not be negative: " + maxFailuresInMemory);
+        }
+        return new Result(new FailureSnapshotList(maxFailuresInMemory));
+    }
+
     private Result(SerializedForm serializedForm) {
         count = serializedForm.fCount;
         ignoreCount = serializedForm.fIgnoreCount;
@@ -110,6 +142,36 @@ public class Result implements Serializable {
         return getFailureCount() == 0;
     }
 
+    /**
+     * Returns a {@code Result} that sums up {@code results}, for example the
+     * results of the shards of a test run that was split across several JVMs.
+     * The run time of the merged result spans from the earliest start to the
+     * latest end of the given results. Results serialized by a version of JUnit
+     * that did not count assumption failures contribute none to that count.
+     *
+     * @since 4.14
+     */
+    public static Result merge(Collection<Result> results) {
+        Result merged = new Result();
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (Result each : results) {
+            merged.count.addAndGet(each.getRunCount());
+            merged.ignoreCount.addAndGet(each.getIgnoreCount());
+            merged.failures.addAll(each.getFailures());
+            if (each.assumptionFailureCount != null) {
+                merged.assumptionFailureCount.addAndGet(each.assumptionFailureCount.get());
+            }
+            start = Math.min(start, each.startTime.get());
+            end = Math.max(end, each.startTime.get() + each.getRunTime());
+        }
+        if (!results.isEmpty()) {
+            merged.startTime.set(start);
+            merged.runTime.set(end - start);
+        }
+        return merged;
+    }
+
     private void writeObject(ObjectOutputStream s) throws IOException {
         SerializedForm serializedForm = new SerializedForm(this);
         serializedForm.serialize(s);
@@ -156,6 +218,20 @@ public class Result implements Serializable {
         public void testAssumptionFailure(Failure failure) {
             assumptionFailureCount.getAndIncrement();
         }
+
+        @Override
+        public void testsFinished(TestBatch batch) throws Exception {
+            count.addAndGet(batch.size() - batch.count(TestBatch.Outcome.IGNORED));
+            ignoreCount.addAndGet(batch.count(TestBatch.Outcome.IGNORED));
+            assumptionFailureCount.addAndGet(batch.count(TestBatch.Outcome.ASSUMPTION_FAILED));
+            if (batch.count(TestBatch.Outcome.FAILED) > 0) {
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.getOutcome(i) == TestBatch.Outcome.FAILED) {
+                        failures.add(batch.getFailure(i));
+                    }
+                }
+            }
+        }
     }
 
     /**
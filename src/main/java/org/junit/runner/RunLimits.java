@@ -0,0 +1,145 @@
+package org.junit.runner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conditions under which a run stops before all of its tests have run: a
+ * time budget for the whole run and a maximum number of failures.
+ *
+ * <p>When a condition is met, no more tests are started, including by
+ * parallel schedulers. The tests that are running get a grace period to
+ * finish, after which their threads are interrupted. The tests that did not
+ * start are reported as skipped, with a failed assumption that gives the
+ * reason. Use the limits with {@link Request#withLimits(RunLimits)}:
+ *
+ * <pre>
+ * RunLimits limits = RunLimits.builder()
+ *     .withTimeBudget(10, TimeUnit.MINUTES)
+ *     .withMaxFailures(20)
+ *     .build();
+ * new JUnitCore().run(Request.aClass(AllTests.class).withLimits(limits));
+ * </pre>
+ *
+ * @since 4.14
+ */
+public final class RunLimits {
+    private final long timeBudgetNanos;
+    private final int maxFailures;
+    private final long gracePeriodNanos;
+
+    /**
+     * Returns a new builder for building an instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private RunLimits(Builder builder) {
+        timeBudgetNanos = builder.timeBudgetNanos;
+        maxFailures = builder.maxFailures;
+        gracePeriodNanos = builder.gracePeriodNanos;
+    }
+
+    /**
+     * Returns the time that the run may take, in nanoseconds, or {@code 0} if
+     * it is not limited.
+     */
+    public long getTimeBudgetNanos() {
+        return timeBudgetNanos;
+    }
+
+    /**
+     * Returns the number of failures after which the run stops, or {@code 0}
+     * if it is not limited.
+     */
+    public int getMaxFailures() {
+        return maxFailures;
+    }
+
+    /**
+     * Returns the time that running tests get to finish once the run stops,
+     * in nanoseconds.
+     */
+    public long getGracePeriodNanos() {
+        return gracePeriodNanos;
+    }
+
+    /**
+     * Returns whether any condition has been set.
+     */
+    public boolean isLimited() {
+        return timeBudgetNanos > 0 || maxFailures > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RunLimits[timeBudgetNanos=" + timeBudgetNanos + ", maxFailures=" + maxFailures
+                + ", gracePeriodNanos=" + gracePeriodNanos + "]";
+    }
+
+    /**
+     * Builder for {@link RunLimits}.
+     */
+    public static final class Builder {
+        private long timeBudgetNanos = 0;
+        private int maxFailures = 0;
+        private long gracePeriodNanos = TimeUnit.SECONDS.toNanos(10);
+
+        private Builder() {
+        }
+
+        /**
+         * Specifies the time that the run may take. A value of {@code 0}, the
+         * default, does not limit it.
+         *
+         * @param timeBudget the time that the run may take
+         * @param unit the time unit of {@code timeBudget}
+         * @return {@code this} for method chaining
+         */
+        public Builder withTimeBudget(long timeBudget, TimeUnit unit) {
+            if (timeBudget < 0) {
+                throw new IllegalArgumentException("timeBudget must not be negative");
+            }
+            timeBudgetNanos = unit.toNanos(timeBudget);
+            return this;
+        }
+
+        /**
+         * Specifies the number of failures after which the run stops. A value
+         * of {@code 0}, the default, does not limit it.
+         *
+         * @param maxFailures the number of failures after which the run stops
+         * @return {@code this} for method chaining
+         */
+        public Builder withMaxFailures(int maxFailures) {
+            if (maxFailures < 0) {
+                throw new IllegalArgumentException("maxFailures must not be negative");
+            }
+            this.maxFailures = maxFailures;
+            return this;
+        }
+
+        /**
+         * Specifies the time that running tests get to finish once the run
+         * stops, before they are interrupted. Defaults to 10 seconds.
+         *
+         * @param gracePeriod the time that running tests get to finish
+         * @param unit the time unit of {@code gracePeriod}
+         * @return {@code this} for method chaining
+         */
+        public Builder withGracePeriod(long gracePeriod, TimeUnit unit) {
+            if (gracePeriod < 0) {
+                throw new IllegalArgumentException("gracePeriod must not be negative");
+            }
+            gracePeriodNanos = unit.toNanos(gracePeriod);
+            return this;
+        }
+
+        /**
+         * Builds a {@link RunLimits} instance using the values in this builder.
+         */
+        public RunLimits build() {
+            return new RunLimits(this);
+        }
+    }
+}
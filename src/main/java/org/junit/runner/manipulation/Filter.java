@@ -53,7 +53,7 @@ public abstract class Filter {
                 }
 
                 // explicitly check if any children want to run
-                for (Description each : description.getChildren()) {
+                for (Description each : description.getChildrenView()) {
                     if (shouldRun(each)) {
                         return true;
                     }
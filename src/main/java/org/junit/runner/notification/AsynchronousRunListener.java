@@ -0,0 +1,458 @@
+package org.junit.runner.notification;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+
+/**
+ * Decorator for {@link RunListener} implementations that calls the delegate on
+ * a dedicated thread, so that tests do not wait for slow listeners such as
+ * report writers.
+ *
+ * <p>Events are put into a bounded buffer and passed to the delegate one at a
+ * time, in the order in which they were put into the buffer. What happens to
+ * an event that is fired while the buffer is full is decided by the
+ * {@link BackPressure} of the listener. By default the thread that fires it
+ * waits until there is room for it, so the capacity bounds how far the
+ * delegate can fall behind the tests. {@link #testRunFinished(Result)} returns
+ * after the delegate has been called for all events that were not dropped.
+ *
+ * <p>If the delegate throws an exception, it is not called for any further
+ * event, and the exception is thrown by the next call of this listener, so
+ * that the {@link RunNotifier} reports it.
+ *
+ * <pre>
+ * JUnitCore core = new JUnitCore();
+ * core.addListener(new AsynchronousRunListener(new XmlReportListener(file)));
+ * </pre>
+ *
+ * @since 4.14
+ */
+@RunListener.ThreadSafe
+public final class AsynchronousRunListener extends RunListener {
+    /**
+     * The number of events that are buffered by default.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * What to do with an event that is fired while the buffer is full.
+     *
+     * @since 4.14
+     */
+    public enum BackPressure {
+        /**
+         * The thread that fires the event waits until there is room for it in
+         * the buffer.
+         */
+        BLOCK,
+
+        /**
+         * The event is not passed to the delegate, and counted by
+         * {@link AsynchronousRunListener#getDroppedEventCount()}. The delegate
+         * may then see a test that started but never finished, or the other
+         * way round. The start and the end of the run are never dropped; they
+         * wait for room like with {@link #BLOCK}.
+         */
+        DROP,
+
+        /**
+         * The thread that fires the event calls the delegate itself, for the
+         * buffered events first and then for this one, so the delegate still
+         * sees all events in order and one at a time.
+         */
+        RUN_IN_CALLER
+    }
+
+    private static final long IDLE_TIMEOUT_MILLIS = 1000;
+
+    private final RunListener listener;
+    private final BlockingQueue<Event> events;
+    private final BackPressure backPressure;
+    // one permit per event put into the buffer; an event may be gone already
+    private final Semaphore available = new Semaphore(0);
+    // held while taking an event from the buffer and passing it to the delegate
+    private final Object deliveryLock = new Object();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile Thread dispatcher;
+    private volatile boolean failed;
+    private final AtomicReference<Throwable> unreportedFailure = new AtomicReference<Throwable>();
+
+    /**
+     * Creates a listener that buffers up to {@link #DEFAULT_CAPACITY} events
+     * for {@code listener}.
+     */
+    public AsynchronousRunListener(RunListener listener) {
+        this(listener, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a listener that buffers up to {@code capacity} events for
+     * {@code listener}. A thread that fires an event while the buffer is full
+     * waits until there is room for it.
+     */
+    public AsynchronousRunListener(RunListener listener, int capacity) {
+        this(listener, capacity, BackPressure.BLOCK);
+    }
+
+    /**
+     * Creates a listener that buffers up to {@code capacity} events for
+     * {@code listener} and handles events that are fired while the buffer is
+     * full according to {@code backPressure}.
+     *
+     * @since 4.14
+     */
+    public AsynchronousRunListener(RunListener listener, int capacity,
+            BackPressure backPressure) {
+        if (listener == null) {
+            throw new NullPointerException("Cannot wrap a null listener");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        if (backPressure == null) {
+            throw new NullPointerException("BackPressure cannot be null");
+        }
+        this.listener = listener;
+        this.events = new ArrayBlockingQueue<Event>(capacity);
+        this.backPressure = backPressure;
+    }
+
+    @Override
+    public void testRunStarted(final Description description) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testRunStarted(description);
+            }
+
+            @Override
+            boolean isDroppable() {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Waits until the delegate has been called for this and all earlier events.
+     */
+    @Override
+    public void testRunFinished(final Result result) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testRunFinished(result);
+            }
+
+            @Override
+            boolean isDroppable() {
+                return false;
+            }
+        });
+        boolean interrupted = false;
+        while (true) {
+            try {
+                flush();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        throwUnreportedFailure();
+    }
+
+    @Override
+    public void testSuiteStarted(final Description description) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testSuiteStarted(description);
+            }
+        });
+    }
+
+    @Override
+    public void testSuiteFinished(final Description description) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testSuiteFinished(description);
+            }
+        });
+    }
+
+    @Override
+    public void testStarted(final Description description) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testStarted(description);
+            }
+        });
+    }
+
+    @Override
+    public void testFinished(final Description description) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testFinished(description);
+            }
+        });
+    }
+
+    @Override
+    public void testFailure(final Failure failure) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testFailure(failure);
+            }
+        });
+    }
+
+    @Override
+    public void testAssumptionFailure(final Failure failure) {
+        try {
+            enqueue(new Event() {
+                @Override
+                void deliverTo(RunListener each) {
+                    each.testAssumptionFailure(failure);
+                }
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void testIgnored(final Description description) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testIgnored(description);
+            }
+        });
+    }
+
+    @Override
+    public void testsFinished(final TestBatch batch) throws Exception {
+        enqueue(new Event() {
+            @Override
+            void deliverTo(RunListener each) throws Exception {
+                each.testsFinished(batch);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of events that were not passed to the delegate
+     * because the buffer was full, see {@link BackPressure#DROP}.
+     *
+     * @since 4.14
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Waits until the delegate has been called for all events that have been
+     * received so far.
+     */
+    public void flush() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        put(new Event() {
+            @Override
+            void deliverTo(RunListener each) {
+            }
+
+            @Override
+            void dispatch() {
+                delivered.countDown();
+            }
+        });
+        delivered.await();
+    }
+
+    private void enqueue(Event event) throws Exception {
+        throwUnreportedFailure();
+        if (backPressure != BackPressure.BLOCK && offer(event)) {
+            return;
+        }
+        if (backPressure == BackPressure.DROP && event.isDroppable()) {
+            droppedEvents.incrementAndGet();
+            return;
+        }
+        if (backPressure == BackPressure.RUN_IN_CALLER) {
+            deliverInCaller(event);
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                put(event);
+                break;
+            } catch (InterruptedException e) {
+                // the event must not get lost, because listeners expect pairs of events
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void put(Event event) throws InterruptedException {
+        events.put(event);
+        dispatchLater();
+    }
+
+    private boolean offer(Event event) {
+        if (!events.offer(event)) {
+            return false;
+        }
+        dispatchLater();
+        return true;
+    }
+
+    private void dispatchLater() {
+        available.release();
+        if (dispatcher == null) {
+            startDispatcherIfIdle();
+        }
+    }
+
+    /**
+     * Passes the buffered events and then {@code event} to the delegate on
+     * the current thread.
+     */
+    private void deliverInCaller(Event event) {
+        synchronized (deliveryLock) {
+            Event buffered;
+            while ((buffered = events.poll()) != null) {
+                buffered.dispatch();
+            }
+            event.dispatch();
+        }
+    }
+
+    private void dispatchNext() {
+        synchronized (deliveryLock) {
+            Event event = events.poll();
+            if (event != null) {
+                event.dispatch();
+            }
+        }
+    }
+
+    private synchronized void startDispatcherIfIdle() {
+        if (dispatcher == null) {
+            Thread thread = new Thread(new Dispatcher(), "JUnit listener dispatcher for " + listener);
+            thread.setDaemon(true);
+            dispatcher = thread;
+            thread.start();
+        }
+    }
+
+    private void throwUnreportedFailure() throws Exception {
+        Throwable failure = unreportedFailure.getAndSet(null);
+        if (failure instanceof Exception) {
+            throw (Exception) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return listener.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof AsynchronousRunListener)) {
+            return false;
+        }
+        AsynchronousRunListener that = (AsynchronousRunListener) other;
+
+        return listener.equals(that.listener);
+    }
+
+    @Override
+    public String toString() {
+        return listener.toString() + " (with asynchronous wrapper)";
+    }
+
+    private abstract class Event {
+        abstract void deliverTo(RunListener each) throws Exception;
+
+        boolean isDroppable() {
+            return true;
+        }
+
+        void dispatch() {
+            if (!failed) {
+                try {
+                    deliverTo(listener);
+                } catch (Throwable e) {
+                    failed = true;
+                    unreportedFailure.set(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatches events until there was none for {@link #IDLE_TIMEOUT_MILLIS}.
+     */
+    private class Dispatcher implements Runnable {
+        public void run() {
+            while (true) {
+                boolean signalled;
+                try {
+                    signalled = available.tryAcquire(IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    signalled = false;
+                }
+                if (signalled) {
+                    dispatchNext();
+                } else if (!continueAfterIdle()) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Stops being the dispatcher, unless an event was put into the buffer
+         * by a thread that still saw this dispatcher.
+         */
+        private boolean continueAfterIdle() {
+            dispatcher = null;
+            if (events.isEmpty()) {
+                return false;
+            }
+            synchronized (AsynchronousRunListener.this) {
+                if (dispatcher == null) {
+                    dispatcher = Thread.currentThread();
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+}
@@ -150,6 +150,23 @@ public class RunListener {
     public void testIgnored(Description description) throws Exception {
     }
 
+    /**
+     * Called when a runner reports several atomic tests that have already run
+     * at once, with {@link RunNotifier#fireTestsFinished(TestBatch)}.
+     *
+     * <p>By default, this calls {@link #testStarted(Description)},
+     * {@link #testFailure(Failure)}, {@link #testAssumptionFailure(Failure)},
+     * {@link #testFinished(Description)} and {@link #testIgnored(Description)}
+     * for each test of the batch, in order. Listeners that can handle many
+     * tests at once more efficiently can override it.
+     *
+     * @param batch the tests and their outcomes
+     * @since 4.14
+     */
+    public void testsFinished(TestBatch batch) throws Exception {
+        batch.replay(this);
+    }
+
 
     /**
      * Indicates a {@code RunListener} that can have its methods called
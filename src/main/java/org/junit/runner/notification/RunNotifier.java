@@ -64,18 +64,31 @@ public class RunNotifier {
         }
 
         void run() {
-            int capacity = currentListeners.size();
-            List<RunListener> safeListeners = new ArrayList<RunListener>(capacity);
-            List<Failure> failures = new ArrayList<Failure>(capacity);
-            for (RunListener listener : currentListeners) {
+            // one snapshot; the lists are only needed if a listener fails
+            Object[] snapshot = currentListeners.toArray();
+            boolean[] failed = null;
+            List<Failure> failures = null;
+            for (int i = 0; i < snapshot.length; i++) {
                 try {
-                    notifyListener(listener);
-                    safeListeners.add(listener);
+                    notifyListener((RunListener) snapshot[i]);
                 } catch (Exception e) {
+                    if (failures == null) {
+                        failed = new boolean[snapshot.length];
+                        failures = new ArrayList<Failure>();
+                    }
+                    failed[i] = true;
                     failures.add(new Failure(Description.TEST_MECHANISM, e));
                 }
             }
-            fireTestFailures(safeListeners, failures);
+            if (failures != null) {
+                List<RunListener> safeListeners = new ArrayList<RunListener>(snapshot.length);
+                for (int i = 0; i < snapshot.length; i++) {
+                    if (!failed[i]) {
+                        safeListeners.add((RunListener) snapshot[i]);
+                    }
+                }
+                fireTestFailures(safeListeners, failures);
+            }
         }
 
         protected abstract void notifyListener(RunListener each) throws Exception;
@@ -227,6 +240,30 @@ public class RunNotifier {
         }.run();
     }
 
+    /**
+     * Invoke to tell listeners about several atomic tests that have already
+     * run, instead of invoking {@link #fireTestStarted(Description)},
+     * {@link #fireTestFinished(Description)} and the other methods for each of
+     * them. Listeners that do not handle batches get the events of each test.
+     * The batch must not be changed afterwards.
+     *
+     * @param batch the tests and their outcomes
+     * @throws StoppedByUserException thrown if a user has requested that the test run stop
+     * @since 4.14
+     */
+    public void fireTestsFinished(final TestBatch batch) throws StoppedByUserException {
+        batch.fired();
+        new SafeNotifier() {
+            @Override
+            protected void notifyListener(RunListener each) throws Exception {
+                each.testsFinished(batch);
+            }
+        }.run();
+        if (pleaseStop) {
+            throw new StoppedByUserException();
+        }
+    }
+
     /**
      * Ask that the tests run stop before starting the next test. Phrased politely because
      * the test currently running will not be interrupted. It seems a little odd to put this
@@ -237,6 +274,17 @@ public class RunNotifier {
         pleaseStop = true;
     }
 
+    /**
+     * Returns whether the tests run has been asked to stop. Runners may check
+     * it to avoid preparing tests that will not be started.
+     *
+     * @see #pleaseStop()
+     * @since 4.14
+     */
+    public boolean isStopRequested() {
+        return pleaseStop;
+    }
+
     /**
      * Internal use only. The Result's listener must be first.
      */
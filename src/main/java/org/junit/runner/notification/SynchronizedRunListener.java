@@ -108,6 +108,13 @@ final class SynchronizedRunListener extends RunListener {
         }
     }
 
+    @Override
+    public void testsFinished(TestBatch batch) throws Exception {
+        synchronized (monitor) {
+            listener.testsFinished(batch);
+        }
+    }
+
     @Override
     public int hashCode() {
         return listener.hashCode();
@@ -0,0 +1,207 @@
+package org.junit.runner.notification;
+
+import org.junit.runner.Description;
+
+/**
+ * The outcomes of atomic tests that a runner has already run, for reporting
+ * them with a single call of {@link RunNotifier#fireTestsFinished(TestBatch)}
+ * instead of several calls per test.
+ *
+ * <p>A batch is filled by one thread and must not be changed after it has been
+ * fired.
+ *
+ * <pre>
+ * TestBatch batch = new TestBatch();
+ * for (Case each : cases) {
+ *     Description description = describe(each);
+ *     try {
+ *         each.run();
+ *         batch.passed(description);
+ *     } catch (Throwable e) {
+ *         batch.failed(new Failure(description, e));
+ *     }
+ * }
+ * notifier.fireTestsFinished(batch);
+ * </pre>
+ *
+ * @see RunListener#testsFinished(TestBatch)
+ * @since 4.14
+ */
+public final class TestBatch {
+    /**
+     * The outcome of an atomic test.
+     */
+    public enum Outcome {
+        /** The test ran and passed. */
+        PASSED,
+        /** The test ran and failed. */
+        FAILED,
+        /** The test ran and assumed a condition that is false. */
+        ASSUMPTION_FAILED,
+        /** The test was not run. */
+        IGNORED
+    }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private Description[] descriptions = new Description[16];
+    private byte[] outcomes = new byte[16];
+    // only allocated once a test failed
+    private Failure[] failures;
+    private int size;
+    private final int[] counts = new int[OUTCOMES.length];
+    private boolean fired;
+
+    /**
+     * Adds a test that passed.
+     */
+    public TestBatch passed(Description description) {
+        add(description, Outcome.PASSED, null);
+        return this;
+    }
+
+    /**
+     * Adds a test that failed.
+     */
+    public TestBatch failed(Failure failure) {
+        add(failure.getDescription(), Outcome.FAILED, failure);
+        return this;
+    }
+
+    /**
+     * Adds a test that assumed a condition that is false.
+     */
+    public TestBatch assumptionFailed(Failure failure) {
+        add(failure.getDescription(), Outcome.ASSUMPTION_FAILED, failure);
+        return this;
+    }
+
+    /**
+     * Adds a test that was not run.
+     */
+    public TestBatch ignored(Description description) {
+        add(description, Outcome.IGNORED, null);
+        return this;
+    }
+
+    private void add(Description description, Outcome outcome, Failure failure) {
+        if (fired) {
+            throw new IllegalStateException("The batch has already been fired");
+        }
+        if (description == null) {
+            throw new NullPointerException("Cannot add a test without description");
+        }
+        if (size == descriptions.length) {
+            descriptions = copyOf(descriptions, 2 * size);
+            byte[] largerOutcomes = new byte[2 * size];
+            System.arraycopy(outcomes, 0, largerOutcomes, 0, size);
+            outcomes = largerOutcomes;
+            if (failures != null) {
+                failures = copyOf(failures, 2 * size);
+            }
+        }
+        if (failure != null && failures == null) {
+            failures = new Failure[descriptions.length];
+        }
+        descriptions[size] = description;
+        outcomes[size] = (byte) outcome.ordinal();
+        if (failure != null) {
+            failures[size] = failure;
+        }
+        counts[outcome.ordinal()]++;
+        size++;
+    }
+
+    private static Description[] copyOf(Description[] array, int length) {
+        Description[] copy = new Description[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static Failure[] copyOf(Failure[] array, int length) {
+        Failure[] copy = new Failure[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    /**
+     * Prevents further changes, because listeners may keep the batch.
+     */
+    void fired() {
+        fired = true;
+    }
+
+    /**
+     * @return the number of tests in this batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of tests in this batch that have the given outcome
+     */
+    public int count(Outcome outcome) {
+        return counts[outcome.ordinal()];
+    }
+
+    /**
+     * @return the description of the test at {@code index}
+     */
+    public Description getDescription(int index) {
+        checkIndex(index);
+        return descriptions[index];
+    }
+
+    /**
+     * @return the outcome of the test at {@code index}
+     */
+    public Outcome getOutcome(int index) {
+        checkIndex(index);
+        return OUTCOMES[outcomes[index]];
+    }
+
+    /**
+     * @return the failure of the test at {@code index}, or {@code null} if it
+     *         did not fail
+     */
+    public Failure getFailure(int index) {
+        checkIndex(index);
+        return failures == null ? null : failures[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Calls the methods of {@code listener} for each test of this batch, as
+     * if the tests had been reported one at a time.
+     */
+    void replay(RunListener listener) throws Exception {
+        for (int i = 0; i < size; i++) {
+            Description description = descriptions[i];
+            switch (OUTCOMES[outcomes[i]]) {
+                case IGNORED:
+                    listener.testIgnored(description);
+                    break;
+                case FAILED:
+                    listener.testStarted(description);
+                    listener.testFailure(failures[i]);
+                    listener.testFinished(description);
+                    break;
+                case ASSUMPTION_FAILED:
+                    listener.testStarted(description);
+                    listener.testAssumptionFailure(failures[i]);
+                    listener.testFinished(description);
+                    break;
+                default:
+                    listener.testStarted(description);
+                    listener.testFinished(description);
+                    break;
+            }
+        }
+    }
+}
@@ -26,10 +26,9 @@ import org.junit.rules.MethodRule;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runner.notification.RunNotifier;
-import org.junit.runners.model.FrameworkMember;
+import org.junit.runners.model.FrameworkField;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
-import org.junit.runners.model.MemberValueConsumer;
 import org.junit.runners.model.MultipleFailureException;
 import org.junit.runners.model.Statement;
 import org.junit.runners.model.TestClass;
@@ -65,6 +64,8 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 
     private final ConcurrentMap<FrameworkMethod, Description> methodDescriptions = new ConcurrentHashMap<FrameworkMethod, Description>();
 
+    private volatile ClassTemplate classTemplate;
+
     /**
      * Creates a BlockJUnit4ClassRunner to run {@code testClass}
      *
@@ -372,8 +373,7 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
      */
     protected Statement withBefores(FrameworkMethod method, Object target,
             Statement statement) {
-        List<FrameworkMethod> befores = getTestClass().getAnnotatedMethods(
-                Before.class);
+        List<FrameworkMethod> befores = classTemplate().befores;
         return befores.isEmpty() ? statement : new RunBefores(statement,
                 befores, target);
     }
@@ -387,8 +387,7 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
      */
     protected Statement withAfters(FrameworkMethod method, Object target,
             Statement statement) {
-        List<FrameworkMethod> afters = getTestClass().getAnnotatedMethods(
-                After.class);
+        List<FrameworkMethod> afters = classTemplate().afters;
         return afters.isEmpty() ? statement : new RunAfters(statement, afters,
                 target);
     }
@@ -418,12 +417,7 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
      *         test
      */
     protected List<MethodRule> rules(Object target) {
-        RuleCollector<MethodRule> collector = new RuleCollector<MethodRule>();
-        getTestClass().collectAnnotatedMethodValues(target, Rule.class, MethodRule.class,
-                collector);
-        getTestClass().collectAnnotatedFieldValues(target, Rule.class, MethodRule.class,
-                collector);
-        return collector.result;
+        return classTemplate().methodRules.values(target);
     }
 
     /**
@@ -432,10 +426,7 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
      *         test
      */
     protected List<TestRule> getTestRules(Object target) {
-        RuleCollector<TestRule> collector = new RuleCollector<TestRule>();
-        getTestClass().collectAnnotatedMethodValues(target, Rule.class, TestRule.class, collector);
-        getTestClass().collectAnnotatedFieldValues(target, Rule.class, TestRule.class, collector);
-        return collector.result;
+        return classTemplate().testRules.values(target);
     }
 
     private Class<? extends Throwable> getExpectedException(Test annotation) {
@@ -453,19 +444,94 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
         return annotation.timeout();
     }
 
+    /**
+     * Returns the parts of the statements of all test methods that do not
+     * depend on the test instance, which are computed only once.
+     */
+    private ClassTemplate classTemplate() {
+        ClassTemplate template = classTemplate;
+        if (template == null) {
+            template = new ClassTemplate(getTestClass());
+            classTemplate = template;
+        }
+        return template;
+    }
+
+    private static class ClassTemplate {
+        final List<FrameworkMethod> befores;
+        final List<FrameworkMethod> afters;
+        final RuleMembers<MethodRule> methodRules;
+        final RuleMembers<TestRule> testRules;
+
+        ClassTemplate(TestClass testClass) {
+            befores = testClass.getAnnotatedMethods(Before.class);
+            afters = testClass.getAnnotatedMethods(After.class);
+            methodRules = new RuleMembers<MethodRule>(testClass, MethodRule.class);
+            testRules = new RuleMembers<TestRule>(testClass, TestRule.class);
+        }
+    }
+
     private static final ThreadLocal<RuleContainer> CURRENT_RULE_CONTAINER =
             new ThreadLocal<RuleContainer>();
 
-    private static class RuleCollector<T> implements MemberValueConsumer<T> {
-        final List<T> result = new ArrayList<T>();
+    /**
+     * The {@code @Rule} methods that return a {@code T} and the {@code @Rule}
+     * fields of a test class, with their orders, so that only their values
+     * have to be read for each test instance.
+     */
+    private static class RuleMembers<T> {
+        private final Class<T> valueClass;
+        private final List<FrameworkMethod> methods = new ArrayList<FrameworkMethod>();
+        private final List<Integer> methodOrders = new ArrayList<Integer>();
+        private final List<FrameworkField> fields;
+        private final List<Integer> fieldOrders = new ArrayList<Integer>();
+
+        RuleMembers(TestClass testClass, Class<T> valueClass) {
+            this.valueClass = valueClass;
+            for (FrameworkMethod each : testClass.getAnnotatedMethods(Rule.class)) {
+                // do not call methods that cannot return a T, see TestClass.collectAnnotatedMethodValues
+                if (valueClass.isAssignableFrom(each.getReturnType())) {
+                    methods.add(each);
+                    methodOrders.add(each.getAnnotation(Rule.class).order());
+                }
+            }
+            fields = testClass.getAnnotatedFields(Rule.class);
+            for (FrameworkField each : fields) {
+                fieldOrders.add(each.getAnnotation(Rule.class).order());
+            }
+        }
 
-        public void accept(FrameworkMember<?> member, T value) {
-            Rule rule = member.getAnnotation(Rule.class);
-            if (rule != null) {
-                RuleContainer container = CURRENT_RULE_CONTAINER.get();
-                if (container != null) {
-                    container.setOrder(value, rule.order());
+        List<T> values(Object target) {
+            List<T> result = new ArrayList<T>();
+            RuleContainer container = CURRENT_RULE_CONTAINER.get();
+            for (int i = 0; i < methods.size(); i++) {
+                FrameworkMethod each = methods.get(i);
+                Object value;
+                try {
+                    value = each.invokeExplosively(target);
+                } catch (Throwable e) {
+                    throw new RuntimeException("Exception in " + each.getName(), e);
                 }
+                add(result, container, valueClass.cast(value), methodOrders.get(i));
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                Object value;
+                try {
+                    value = fields.get(i).get(target);
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException(
+                            "How did getFields return a field we couldn't access?", e);
+                }
+                if (valueClass.isInstance(value)) {
+                    add(result, container, valueClass.cast(value), fieldOrders.get(i));
+                }
+            }
+            return result;
+        }
+
+        private void add(List<T> result, RuleContainer container, T value, int order) {
+            if (container != null) {
+                container.setOrder(value, order);
             }
             result.add(value);
         }
@@ -23,11 +23,13 @@ import org.junit.FixMethodOrder;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.internal.AssumptionViolatedException;
+import org.junit.internal.runners.ValidatedClasses;
 import org.junit.internal.runners.model.EachTestNotifier;
 import org.junit.internal.runners.statements.RunAfters;
 import org.junit.internal.runners.statements.RunBefores;
 import org.junit.rules.RunRules;
 import org.junit.rules.TestRule;
+import org.junit.runner.Describable;
 import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runner.manipulation.Filter;
@@ -143,6 +145,11 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
      * Default implementation adds an error for each method annotated with
      * {@code @BeforeClass} or {@code @AfterClass} that is not
      * {@code public static void} with no arguments.
+     *
+     * <p>Once a test class passed the validation of a runner class, further
+     * runners of the same class for the same test class are not validated
+     * again, because this method is called before the fields of a runner
+     * subclass are initialized.
      */
     protected void collectInitializationErrors(List<Throwable> errors) {
         validatePublicVoidNoArgMethods(BeforeClass.class, true, errors);
@@ -326,11 +333,7 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
         final RunnerScheduler currentScheduler = scheduler;
         try {
             for (final T each : getFilteredChildren()) {
-                currentScheduler.schedule(new Runnable() {
-                    public void run() {
-                        ParentRunner.this.runChild(each, notifier);
-                    }
-                });
+                currentScheduler.schedule(new ChildStatement(each, notifier));
             }
         } finally {
             currentScheduler.finished();
@@ -519,11 +522,15 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
     }
 
     private void validate() throws InitializationError {
+        if (ValidatedClasses.isValid(getClass(), testClass)) {
+            return;
+        }
         List<Throwable> errors = new ArrayList<Throwable>();
         collectInitializationErrors(errors);
         if (!errors.isEmpty()) {
             throw new InvalidTestClassError(testClass.getJavaClass(), errors);
         }
+        ValidatedClasses.validated(getClass(), testClass);
     }
 
     private List<T> getFilteredChildren() {
@@ -561,6 +568,33 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
         this.scheduler = scheduler;
     }
 
+    /**
+     * The {@code Runnable} handed to the {@link RunnerScheduler} for each child.
+     * It is {@link Describable}, so schedulers can look at the child they are
+     * asked to run; the description is only built when it is requested.
+     */
+    private final class ChildStatement implements Runnable, Describable {
+        private final T child;
+        private final RunNotifier notifier;
+
+        ChildStatement(T child, RunNotifier notifier) {
+            this.child = child;
+            this.notifier = notifier;
+        }
+
+        public void run() {
+            if (notifier.isStopRequested()) {
+                // do not set up children that would not start their tests
+                throw new StoppedByUserException();
+            }
+            runChild(child, notifier);
+        }
+
+        public Description getDescription() {
+            return describeChild(child);
+        }
+    }
+
     private static class ClassRuleCollector implements MemberValueConsumer<TestRule> {
         final List<RuleContainer.RuleEntry> entries = new ArrayList<RuleContainer.RuleEntry>();
 
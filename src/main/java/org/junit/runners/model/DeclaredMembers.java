@@ -0,0 +1,86 @@
+package org.junit.runners.model;
+
+import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.junit.internal.MethodSorter;
+
+/**
+ * The annotated methods and fields that a single class declares, in the order
+ * in which {@link TestClass} adds them to its annotation lists.
+ *
+ * <p>Scanning a class is shared by all {@link TestClass} instances whose class
+ * extends it. The cache holds its classes weakly and its values only through
+ * weak references: the members of a class refer to the class, so a value that
+ * is held strongly would keep its key, and the key's class loader, alive. A
+ * {@link TestClass} holds the values of the classes it was composed from, so
+ * they stay cached for as long as a runner for one of their subclasses exists.
+ */
+final class DeclaredMembers {
+    private static final Comparator<Field> FIELD_COMPARATOR = new Comparator<Field>() {
+        public int compare(Field left, Field right) {
+            return left.getName().compareTo(right.getName());
+        }
+    };
+
+    private static final Map<Class<?>, WeakReference<DeclaredMembers>> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<Class<?>, WeakReference<DeclaredMembers>>());
+
+    final List<FrameworkMethod> methods;
+    final List<Annotation[]> methodAnnotations;
+    final List<FrameworkField> fields;
+    final List<Annotation[]> fieldAnnotations;
+
+    /**
+     * Returns the members declared by {@code clazz}, scanning it only if no
+     * other {@link TestClass} is currently using its members.
+     */
+    static DeclaredMembers of(Class<?> clazz) {
+        WeakReference<DeclaredMembers> reference = CACHE.get(clazz);
+        DeclaredMembers members = reference == null ? null : reference.get();
+        if (members == null) {
+            members = new DeclaredMembers(clazz);
+            // racing threads may scan the same class; the last one wins
+            CACHE.put(clazz, new WeakReference<DeclaredMembers>(members));
+        }
+        return members;
+    }
+
+    private DeclaredMembers(Class<?> clazz) {
+        List<FrameworkMethod> methods = new ArrayList<FrameworkMethod>();
+        List<Annotation[]> methodAnnotations = new ArrayList<Annotation[]>();
+        for (Method each : MethodSorter.getDeclaredMethods(clazz)) {
+            Annotation[] annotations = each.getAnnotations();
+            if (annotations.length > 0) {
+                methods.add(new FrameworkMethod(each));
+                methodAnnotations.add(annotations);
+            }
+        }
+        // ensuring fields are sorted to make sure that entries are inserted
+        // and read from fieldForAnnotations in a deterministic order
+        Field[] declaredFields = clazz.getDeclaredFields();
+        Arrays.sort(declaredFields, FIELD_COMPARATOR);
+        List<FrameworkField> fields = new ArrayList<FrameworkField>();
+        List<Annotation[]> fieldAnnotations = new ArrayList<Annotation[]>();
+        for (Field each : declaredFields) {
+            Annotation[] annotations = each.getAnnotations();
+            if (annotations.length > 0) {
+                fields.add(new FrameworkField(each));
+                fieldAnnotations.add(annotations);
+            }
+        }
+        this.methods = methods;
+        this.methodAnnotations = methodAnnotations;
+        this.fields = fields;
+        this.fieldAnnotations = fieldAnnotations;
+    }
+}
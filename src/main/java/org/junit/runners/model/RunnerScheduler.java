@@ -10,7 +10,9 @@ package org.junit.runners.model;
  */
 public interface RunnerScheduler {
     /**
-     * Schedule a child statement to run
+     * Schedule a child statement to run. Statements scheduled by
+     * {@link org.junit.runners.ParentRunner} implement
+     * {@link org.junit.runner.Describable}, describing the child they run.
      */
     void schedule(Runnable childStatement);
 
@@ -5,11 +5,8 @@ import static org.junit.internal.MethodSorter.NAME_ASCENDING;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -21,7 +18,6 @@ import java.util.Set;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
-import org.junit.internal.MethodSorter;
 
 /**
  * Wraps a class to be run, providing method validation and annotation searching
@@ -29,18 +25,21 @@ import org.junit.internal.MethodSorter;
  * @since 4.5
  */
 public class TestClass implements Annotatable {
-    private static final FieldComparator FIELD_COMPARATOR = new FieldComparator();
     private static final MethodComparator METHOD_COMPARATOR = new MethodComparator();
 
     private final Class<?> clazz;
     private final Map<Class<? extends Annotation>, List<FrameworkMethod>> methodsForAnnotations;
     private final Map<Class<? extends Annotation>, List<FrameworkField>> fieldsForAnnotations;
 
+    // keeps the shared scans of the scanned classes cached while this is in use
+    private final List<DeclaredMembers> declaredMembers = new ArrayList<DeclaredMembers>();
+
     /**
-     * Creates a {@code TestClass} wrapping {@code clazz}. Each time this
-     * constructor executes, the class is scanned for annotations, which can be
-     * an expensive process (we hope in future JDK's it will not be.) Therefore,
-     * try to share instances of {@code TestClass} where possible.
+     * Creates a {@code TestClass} wrapping {@code clazz}. The annotations of
+     * each class in the hierarchy are scanned once and shared by all
+     * {@code TestClass} instances that are in use at the same time, but
+     * composing them still takes some time. Therefore, try to share instances
+     * of {@code TestClass} where possible.
      */
     public TestClass(Class<?> clazz) {
         this.clazz = clazz;
@@ -62,26 +61,27 @@ public class TestClass implements Annotatable {
 
     protected void scanAnnotatedMembers(Map<Class<? extends Annotation>, List<FrameworkMethod>> methodsForAnnotations, Map<Class<? extends Annotation>, List<FrameworkField>> fieldsForAnnotations) {
         for (Class<?> eachClass : getSuperClasses(clazz)) {
-            for (Method eachMethod : MethodSorter.getDeclaredMethods(eachClass)) {
-                addToAnnotationLists(new FrameworkMethod(eachMethod), methodsForAnnotations);
+            DeclaredMembers members = DeclaredMembers.of(eachClass);
+            declaredMembers.add(members);
+            for (int i = 0; i < members.methods.size(); i++) {
+                addToAnnotationLists(members.methods.get(i),
+                        members.methodAnnotations.get(i), methodsForAnnotations);
             }
-            // ensuring fields are sorted to make sure that entries are inserted
-            // and read from fieldForAnnotations in a deterministic order
-            for (Field eachField : getSortedDeclaredFields(eachClass)) {
-                addToAnnotationLists(new FrameworkField(eachField), fieldsForAnnotations);
+            for (int i = 0; i < members.fields.size(); i++) {
+                addToAnnotationLists(members.fields.get(i),
+                        members.fieldAnnotations.get(i), fieldsForAnnotations);
             }
         }
     }
 
-    private static Field[] getSortedDeclaredFields(Class<?> clazz) {
-        Field[] declaredFields = clazz.getDeclaredFields();
-        Arrays.sort(declaredFields, FIELD_COMPARATOR);
-        return declaredFields;
-    }
-
     protected static <T extends FrameworkMember<T>> void addToAnnotationLists(T member,
             Map<Class<? extends Annotation>, List<T>> map) {
-        for (Annotation each : member.getAnnotations()) {
+        addToAnnotationLists(member, member.getAnnotations(), map);
+    }
+
+    private static <T extends FrameworkMember<T>> void addToAnnotationLists(T member,
+            Annotation[] annotations, Map<Class<? extends Annotation>, List<T>> map) {
+        for (Annotation each : annotations) {
             Class<? extends Annotation> type = each.annotationType();
             List<T> members = getAnnotatedMembers(map, type, true);
             T memberToAdd = member.handlePossibleBridgeMethod(members);
@@ -327,15 +327,6 @@ public class TestClass implements Annotatable {
         return clazz == other.clazz;
     }
 
-    /**
-     * Compares two fields by its name.
-     */
-    private static class FieldComparator implements Comparator<Field> {
-        public int compare(Field left, Field right) {
-            return left.getName().compareTo(right.getName());
-        }
-    }
-
     /**
      * Compares two methods by its name.
      */
@@ -0,0 +1,25 @@
+package org.junit.runners.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exception thrown when a test fails because it used up its CPU time budget.
+ *
+ * @since 4.14
+ */
+public class TestCpuTimeExceededException extends TestTimedOutException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates exception with a standard message "test used more than [timeout]
+     * [timeUnit] of CPU time"
+     *
+     * @param timeout the amount of CPU time used before the test was interrupted
+     * @param timeUnit the time unit for the timeout value
+     */
+    public TestCpuTimeExceededException(long timeout, TimeUnit timeUnit) {
+        super(String.format("test used more than %d %s of CPU time",
+                timeout, timeUnit.name().toLowerCase()), timeout, timeUnit);
+    }
+}
@@ -22,8 +22,20 @@ public class TestTimedOutException extends Exception {
      * @param timeUnit the time unit for the timeout value
      */
     public TestTimedOutException(long timeout, TimeUnit timeUnit) {
-        super(String.format("test timed out after %d %s", 
-                timeout, timeUnit.name().toLowerCase()));
+        this(String.format("test timed out after %d %s", 
+                timeout, timeUnit.name().toLowerCase()), timeout, timeUnit);
+    }
+
+    /**
+     * Creates exception with the given message.
+     *
+     * @param message the detail message
+     * @param timeout the amount of time passed before the test was interrupted
+     * @param timeUnit the time unit for the timeout value
+     * @since 4.14
+     */
+    protected TestTimedOutException(String message, long timeout, TimeUnit timeUnit) {
+        super(message);
         this.timeUnit = timeUnit;
         this.timeout = timeout;
     }
@@ -0,0 +1,201 @@
+package org.junit.validator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import org.junit.internal.ClassFiles;
+import org.junit.internal.TextFiles;
+import org.junit.internal.runners.ValidatedClasses;
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Remembers which test classes passed the validation of their runners, so
+ * that later runs can trust them to pass it again as long as neither their
+ * class files nor the ones of their runners changed.
+ *
+ * <p>The fingerprint of a test class is a hash of the class files of the test
+ * class, the runner class, and all their superclasses outside of the JDK. The
+ * runners of a {@link #apply(Request) request} do not validate test classes
+ * whose fingerprint matches the one recorded when they passed validation. Test
+ * classes whose class files cannot be read are always validated.
+ *
+ * <pre>
+ * ValidationCache cache = ValidationCache.forFile(new File("build/junit-validation"));
+ * new JUnitCore().run(cache.apply(Request.classes(classes)));
+ * </pre>
+ *
+ * <p>Trusting this cache is opt-in because validation also depends on things
+ * that are not part of the fingerprint, such as the validators named by
+ * {@link ValidateWith} annotations on other classes.
+ *
+ * @since 4.14
+ */
+public final class ValidationCache {
+    private final File file;
+
+    // "runner class test class" -> fingerprint; guarded by this
+    private final Map<String, String> validated = new TreeMap<String, String>();
+
+    // class -> fingerprint of the class and its superclasses; guarded by this
+    private final Map<Class<?>, String> hierarchyHashes = new WeakHashMap<Class<?>, String>();
+
+    /**
+     * Loads a {@link ValidationCache} from {@code file}, or creates an empty
+     * one that will be saved to {@code file}.
+     */
+    public static ValidationCache forFile(File file) throws IOException {
+        ValidationCache cache = new ValidationCache(file);
+        if (file.exists()) {
+            cache.read();
+        }
+        return cache;
+    }
+
+    private ValidationCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns a {@link Request} whose runners do not validate the test classes
+     * that passed validation before with the same fingerprint, and that saves
+     * this cache once its runner has been created.
+     */
+    public Request apply(final Request request) {
+        return new Request() {
+            @Override
+            public Runner getRunner() {
+                ValidatedClasses.Trust previous = ValidatedClasses.setTrust(new CacheTrust());
+                Runner runner;
+                try {
+                    runner = request.getRunner();
+                } finally {
+                    ValidatedClasses.setTrust(previous);
+                }
+                try {
+                    save();
+                } catch (IOException e) {
+                    return new SaveFailureReportingRunner(runner, e);
+                }
+                return runner;
+            }
+        };
+    }
+
+    /**
+     * Returns {@code true} if {@code testClass} passed the validation of a
+     * runner of {@code runnerClass} before, with the same fingerprint as it has
+     * now.
+     */
+    public boolean isTrusted(Class<?> runnerClass, Class<?> testClass) {
+        String fingerprint = fingerprint(runnerClass, testClass);
+        synchronized (this) {
+            return fingerprint != null
+                    && fingerprint.equals(validated.get(key(runnerClass, testClass)));
+        }
+    }
+
+    /**
+     * Returns the fingerprint of {@code testClass} when it is run by a runner
+     * of {@code runnerClass}, or {@code null} if a class file cannot be read.
+     */
+    synchronized String fingerprint(Class<?> runnerClass, Class<?> testClass) {
+        String runnerHash = hierarchyHash(runnerClass);
+        String testHash = hierarchyHash(testClass);
+        if (runnerHash == null || testHash == null) {
+            return null;
+        }
+        return hash(runnerHash + " " + testHash);
+    }
+
+    private String hierarchyHash(Class<?> clazz) {
+        if (!hierarchyHashes.containsKey(clazz)) {
+            StringBuilder content = new StringBuilder();
+            for (Class<?> each = clazz; each != null; each = each.getSuperclass()) {
+                if (each.getClassLoader() == null) {
+                    // a class of the JDK
+                    break;
+                }
+                String hash = ClassFiles.hash(each);
+                if (hash == null) {
+                    content = null;
+                    break;
+                }
+                content.append(each.getName()).append(' ').append(hash).append('\n');
+            }
+            hierarchyHashes.put(clazz, content == null ? null : hash(content.toString()));
+        }
+        return hierarchyHashes.get(clazz);
+    }
+
+    private synchronized void record(Class<?> runnerClass, Class<?> testClass) {
+        String fingerprint = fingerprint(runnerClass, testClass);
+        if (fingerprint != null) {
+            validated.put(key(runnerClass, testClass), fingerprint);
+        }
+    }
+
+    private static String key(Class<?> runnerClass, Class<?> testClass) {
+        return runnerClass.getName() + " " + testClass.getName();
+    }
+
+    private static String hash(String content) {
+        try {
+            return ClassFiles.hash(content.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+    }
+
+    private void read() throws IOException {
+        TextFiles.readEntries(file, "validation cache", validated);
+    }
+
+    /**
+     * Saves this cache to its file.
+     */
+    public synchronized void save() throws IOException {
+        TextFiles.writeEntries(file, "JUnit validation cache", validated);
+    }
+
+    private class CacheTrust implements ValidatedClasses.Trust {
+        public boolean isTrusted(Class<?> runnerClass, Class<?> testClass) {
+            return ValidationCache.this.isTrusted(runnerClass, testClass);
+        }
+
+        public void validated(Class<?> runnerClass, Class<?> testClass) {
+            record(runnerClass, testClass);
+        }
+    }
+
+    /**
+     * Runs a runner and then reports that the cache could not be saved.
+     */
+    private static class SaveFailureReportingRunner extends Runner {
+        private final Runner runner;
+        private final IOException failure;
+
+        SaveFailureReportingRunner(Runner runner, IOException failure) {
+            this.runner = runner;
+            this.failure = failure;
+        }
+
+        @Override
+        public Description getDescription() {
+            return runner.getDescription();
+        }
+
+        @Override
+        public void run(RunNotifier notifier) {
+            runner.run(notifier);
+            notifier.fireTestFailure(new Failure(getDescription(), failure));
+        }
+    }
+}
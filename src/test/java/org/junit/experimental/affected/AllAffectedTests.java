@@ -0,0 +1,13 @@
+package org.junit.experimental.affected;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+@RunWith(Suite.class)
+@SuiteClasses({
+        DependencyIndexTest.class,
+        ResultCacheTest.class
+})
+public class AllAffectedTests {
+}
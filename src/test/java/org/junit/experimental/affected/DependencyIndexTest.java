@@ -0,0 +1,128 @@
+package org.junit.experimental.affected;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.internal.ClassFiles;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.manipulation.Filter;
+
+public class DependencyIndexTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File indexFile;
+
+    public static class Calculator {
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public static class CalculatorTest {
+        @Test
+        public void adds() {
+            assertEquals(3, new Calculator().add(1, 2));
+        }
+
+        @Test
+        public void addsNegativeNumbers() {
+            assertEquals(-3, new Calculator().add(-1, -2));
+        }
+    }
+
+    public static class UnrelatedTest {
+        @Test
+        public void passes() {
+        }
+    }
+
+    @Before
+    public void recordDependencies() throws IOException {
+        indexFile = new File(folder.getRoot(), "index");
+        DependencyIndex index = DependencyIndex.forFile(indexFile);
+        Result result = JUnitCore.runClasses(index.recordingComputer(),
+                CalculatorTest.class, UnrelatedTest.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(3, result.getRunCount());
+    }
+
+    @Test
+    public void recordsTheClassesLoadedByEachTestClass() throws IOException {
+        DependencyIndex index = DependencyIndex.forFile(indexFile);
+
+        assertTrue(index.getDependencies(CalculatorTest.class.getName())
+                .contains(Calculator.class.getName()));
+        assertTrue(index.getDependencies(CalculatorTest.class.getName())
+                .contains(CalculatorTest.class.getName()));
+        assertFalse(index.getDependencies(UnrelatedTest.class.getName())
+                .contains(Calculator.class.getName()));
+    }
+
+    @Test
+    public void doesNotRecordJUnitClasses() throws IOException {
+        DependencyIndex index = DependencyIndex.forFile(indexFile);
+
+        assertFalse(index.getDependencies(CalculatorTest.class.getName())
+                .contains(Test.class.getName()));
+    }
+
+    @Test
+    public void runsOnlyTestsAffectedByChangedClasses() throws IOException {
+        Filter filter = DependencyIndex.forFile(indexFile)
+                .affectedTestsFilter(singleton(Calculator.class.getName()));
+
+        Result result = new JUnitCore().run(
+                Request.classes(CalculatorTest.class, UnrelatedTest.class).filterWith(filter));
+
+        assertEquals(2, result.getRunCount());
+    }
+
+    @Test
+    public void noTestIsAffectedIfNoClassFileChanged() throws IOException {
+        Filter filter = DependencyIndex.forFile(indexFile).affectedTestsFilter();
+
+        assertFalse(filter.shouldRun(Description.createSuiteDescription(CalculatorTest.class)));
+        assertFalse(filter.shouldRun(Description.createSuiteDescription(UnrelatedTest.class)));
+    }
+
+    @Test
+    public void testClassWhoseClassFileChangedIsAffected() throws IOException {
+        // a loader that sees a different class file for CalculatorTest
+        ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public URL getResource(String name) {
+                if (name.equals(ClassFiles.fileName(CalculatorTest.class.getName()))) {
+                    return super.getResource(
+                            ClassFiles.fileName(UnrelatedTest.class.getName()));
+                }
+                return super.getResource(name);
+            }
+        };
+        Filter filter = DependencyIndex.forFile(indexFile).affectedTestsFilter(loader);
+
+        assertTrue(filter.shouldRun(Description.createSuiteDescription(CalculatorTest.class)));
+        assertFalse(filter.shouldRun(Description.createSuiteDescription(UnrelatedTest.class)));
+    }
+
+    @Test
+    public void testClassThatWasNeverRecordedIsAffected() throws IOException {
+        Filter filter = DependencyIndex.forFile(indexFile).affectedTestsFilter();
+
+        assertTrue(filter.shouldRun(Description.createTestDescription(
+                DependencyIndexTest.class, "recordsTheClassesLoadedByEachTestClass")));
+    }
+}
@@ -0,0 +1,185 @@
+package org.junit.experimental.affected;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+public class ResultCacheTest {
+    private static final String PROPERTY = "org.junit.experimental.affected.ResultCacheTest";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private DependencyIndex index;
+
+    private File cacheFile;
+
+    public static class PassingTest {
+        @Test
+        public void one() {
+        }
+
+        @Test
+        public void two() {
+        }
+    }
+
+    public static class FailingTest {
+        @Test
+        public void fails() {
+            fail();
+        }
+    }
+
+    public static class UnrecordedTest {
+        @Test
+        public void passes() {
+        }
+    }
+
+    @Before
+    public void recordDependencies() throws IOException {
+        index = DependencyIndex.forFile(new File(folder.getRoot(), "index"));
+        JUnitCore.runClasses(index.recordingComputer(), PassingTest.class, FailingTest.class);
+        cacheFile = new File(folder.getRoot(), "cache");
+    }
+
+    @After
+    public void clearProperty() {
+        System.clearProperty(PROPERTY);
+    }
+
+    @Test
+    public void runsEveryTestTheFirstTime() throws IOException {
+        Result result = run();
+
+        assertEquals(4, result.getRunCount());
+        assertEquals(0, result.getIgnoreCount());
+    }
+
+    @Test
+    public void skipsPassingTestClassesTheSecondTime() throws IOException {
+        run();
+
+        Result result = run();
+
+        assertEquals(2, result.getRunCount());
+        assertEquals(2, result.getIgnoreCount());
+        assertEquals(1, result.getFailureCount());
+    }
+
+    @Test
+    public void reportsSkippedTestsAsIgnoredWithReason() throws IOException {
+        run();
+        final List<String> reasons = new ArrayList<String>();
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testIgnored(Description description) {
+                reasons.add(description.getAnnotation(Ignore.class).value());
+            }
+        });
+
+        core.run(ResultCache.forFile(cacheFile, index, PROPERTY).apply(Request.aClass(PassingTest.class)));
+
+        assertEquals(2, reasons.size());
+        assertEquals(ResultCache.REASON, reasons.get(0));
+    }
+
+    @Test
+    public void rerunsTestClassesWhenSystemPropertyChanges() throws IOException {
+        System.setProperty(PROPERTY, "first");
+        run();
+        assertTrue(ResultCache.forFile(cacheFile, index, PROPERTY)
+                .isCached(PassingTest.class.getName()));
+
+        System.setProperty(PROPERTY, "second");
+
+        assertFalse(ResultCache.forFile(cacheFile, index, PROPERTY)
+                .isCached(PassingTest.class.getName()));
+    }
+
+    @Test
+    public void neverCachesFailingOrUnrecordedTestClasses() throws IOException {
+        run();
+
+        ResultCache cache = ResultCache.forFile(cacheFile, index, PROPERTY);
+        assertTrue(cache.isCached(PassingTest.class.getName()));
+        assertFalse(cache.isCached(FailingTest.class.getName()));
+        assertFalse(cache.isCached(UnrecordedTest.class.getName()));
+    }
+
+    @Test
+    public void doesNotCacheTestClassesOfWhichOnlySomeTestsRan() throws IOException {
+        ResultCache cache = ResultCache.forFile(cacheFile, index, PROPERTY);
+        Request request = Request.aClass(PassingTest.class)
+                .filterWith(Description.createTestDescription(PassingTest.class, "one"));
+
+        Result result = new JUnitCore().run(cache.apply(request));
+
+        assertEquals(1, result.getRunCount());
+        assertFalse(ResultCache.forFile(cacheFile, index, PROPERTY)
+                .isCached(PassingTest.class.getName()));
+    }
+
+    @Test
+    public void filtersCachedTests() throws IOException {
+        run();
+        ResultCache cache = ResultCache.forFile(cacheFile, index, PROPERTY);
+        Request request = cache.apply(Request.classes(PassingTest.class, FailingTest.class))
+                .filterWith(Description.createTestDescription(PassingTest.class, "one"));
+
+        Result result = new JUnitCore().run(request);
+
+        assertEquals(0, result.getRunCount());
+        assertEquals(1, result.getIgnoreCount());
+    }
+
+    @Test
+    public void sortsCachedTests() throws IOException {
+        run();
+        final List<String> ignored = new ArrayList<String>();
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testIgnored(Description description) {
+                ignored.add(description.getMethodName());
+            }
+        });
+        ResultCache cache = ResultCache.forFile(cacheFile, index, PROPERTY);
+
+        core.run(cache.apply(Request.aClass(PassingTest.class)).sortWith(new Comparator<Description>() {
+            public int compare(Description o1, Description o2) {
+                return o2.getDisplayName().compareTo(o1.getDisplayName());
+            }
+        }));
+
+        assertEquals(Arrays.asList("two", "one"), ignored);
+    }
+
+    private Result run() throws IOException {
+        ResultCache cache = ResultCache.forFile(cacheFile, index, PROPERTY);
+        return new JUnitCore().run(cache.apply(
+                Request.classes(PassingTest.class, FailingTest.class, UnrecordedTest.class)));
+    }
+}
@@ -0,0 +1,104 @@
+package org.junit.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.OrderWith;
+import org.junit.runner.Request;
+
+public class FailFastOrderingTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void clearHistoryProperty() {
+        System.clearProperty(FailFastOrdering.HISTORY_PROPERTY);
+    }
+
+    public static class Example {
+        @Test
+        public void slowPasses() throws InterruptedException {
+            Thread.sleep(50);
+        }
+
+        @Test
+        public void fails() {
+            fail();
+        }
+
+        @Test
+        public void fastPasses() {
+        }
+    }
+
+    @OrderWith(FailFastOrdering.class)
+    public static class AnnotatedExample {
+        @Test
+        public void slowPasses() throws InterruptedException {
+            Thread.sleep(50);
+        }
+
+        @Test
+        public void fails() {
+            fail();
+        }
+    }
+
+    private static List<String> methodNames(Request request) {
+        List<String> names = new ArrayList<String>();
+        for (Description each : request.getRunner().getDescription().getChildren()) {
+            names.add(each.getMethodName());
+        }
+        return names;
+    }
+
+    private static MaxHistory record(File file, Class<?> testClass) {
+        MaxHistory history = MaxHistory.forFolder(file);
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        core.run(testClass);
+        return history;
+    }
+
+    @Test
+    public void runsFailingAndFastTestsFirst() {
+        MaxHistory history = record(new File(folder.getRoot(), "history"), Example.class);
+
+        Request request = Request.aClass(Example.class).orderWith(new FailFastOrdering(history));
+
+        assertEquals(3, methodNames(request).size());
+        assertEquals("fails", methodNames(request).get(0));
+        assertEquals("fastPasses", methodNames(request).get(1));
+    }
+
+    @Test
+    public void runsNewTestsBeforePassingOnes() {
+        MaxHistory history = MaxHistory.forFolder(new File(folder.getRoot(), "history"));
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        core.run(Request.method(Example.class, "fastPasses"));
+
+        Request request = Request.aClass(Example.class).orderWith(new FailFastOrdering(history));
+
+        assertEquals("fastPasses", methodNames(request).get(2));
+    }
+
+    @Test
+    public void isUsableWithOrderWith() {
+        File file = new File(folder.getRoot(), "history");
+        System.setProperty(FailFastOrdering.HISTORY_PROPERTY, file.getPath());
+        record(file, AnnotatedExample.class);
+
+        assertEquals("fails", methodNames(Request.aClass(AnnotatedExample.class)).get(0));
+    }
+}
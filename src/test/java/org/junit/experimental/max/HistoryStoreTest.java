@@ -0,0 +1,129 @@
+package org.junit.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HistoryStoreTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void keepsWindowOfRecentExecutions() throws Exception {
+        HistoryStore store = new HistoryStore(new File(folder.getRoot(), "history"));
+        for (int i = 1; i <= HistoryStore.WINDOW + 5; i++) {
+            store.addExecution("test", i, i % 5 == 0);
+        }
+        store.flush();
+
+        TestStatistics statistics = store.getStatistics("test");
+        assertEquals(HistoryStore.WINDOW, statistics.getExecutionCount());
+        assertEquals(HistoryStore.WINDOW + 5, statistics.getLastDuration());
+        assertEquals((6 + HistoryStore.WINDOW + 5) / 2, statistics.getMeanDuration());
+        assertEquals(24, statistics.get95thPercentileDuration());
+        assertEquals(4, statistics.getFailureCount());
+        assertNull(statistics.getLastFailureTimestamp());
+    }
+
+    @Test
+    public void weightsRecentFailuresMore() throws Exception {
+        HistoryStore store = new HistoryStore(new File(folder.getRoot(), "history"));
+        store.addExecution("recentlyFailed", 1, false);
+        store.addExecution("recentlyFailed", 1, true);
+        store.addExecution("failedLongAgo", 1, true);
+        store.addExecution("failedLongAgo", 1, false);
+        store.flush();
+
+        double recentlyFailed = store.getStatistics("recentlyFailed").getFailureProbability();
+        double failedLongAgo = store.getStatistics("failedLongAgo").getFailureProbability();
+        assertTrue(recentlyFailed > 0.5);
+        assertTrue(failedLongAgo < 0.5);
+    }
+
+    @Test
+    public void appliesExecutionsWhenFlushed() throws Exception {
+        HistoryStore store = new HistoryStore(new File(folder.getRoot(), "history"));
+        store.addExecution("test", 10, false);
+
+        assertNull(store.getStatistics("test"));
+        store.flush();
+        assertEquals(1, store.getStatistics("test").getExecutionCount());
+    }
+
+    @Test
+    public void readsAppendedRecords() throws Exception {
+        File file = new File(folder.getRoot(), "history");
+        HistoryStore store = new HistoryStore(file);
+        store.addExecution("test", 10, false);
+        store.flush();
+        store.addExecution("test", 20, true);
+        store.addFailure("test", 1234L);
+        store.flush();
+
+        TestStatistics statistics = HistoryStore.load(file).getStatistics("test");
+
+        assertEquals(2, statistics.getExecutionCount());
+        assertEquals(15, statistics.getMeanDuration());
+        assertEquals(1, statistics.getFailureCount());
+        assertEquals(Long.valueOf(1234L), statistics.getLastFailureTimestamp());
+    }
+
+    @Test
+    public void compactionKeepsStatistics() throws Exception {
+        File file = new File(folder.getRoot(), "history");
+        HistoryStore store = new HistoryStore(file);
+        for (int i = 0; i < 3 * HistoryStore.WINDOW; i++) {
+            store.addExecution("test", i, false);
+            store.flush();
+        }
+        long lengthBeforeCompaction = file.length();
+
+        store.compact();
+
+        assertTrue(file.length() < lengthBeforeCompaction);
+        TestStatistics statistics = HistoryStore.load(file).getStatistics("test");
+        assertEquals(HistoryStore.WINDOW, statistics.getExecutionCount());
+        assertEquals(store.getStatistics("test").getMeanDuration(), statistics.getMeanDuration());
+    }
+
+    @Test
+    public void readsFileThatEndsWithinRecord() throws Exception {
+        File file = new File(folder.getRoot(), "history");
+        HistoryStore store = new HistoryStore(file);
+        store.addExecution("test", 10, false);
+        store.flush();
+        FileOutputStream out = new FileOutputStream(file, true);
+        out.write(new byte[] {1, 0, 0, 0, 4, 't'});
+        out.close();
+
+        HistoryStore loaded = HistoryStore.load(file);
+        loaded.addExecution("test", 20, false);
+        loaded.flush();
+
+        assertEquals(2, HistoryStore.load(file).getStatistics("test").getExecutionCount());
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws Exception {
+        File file = folder.newFile("other");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        out.close();
+
+        try {
+            HistoryStore.load(file);
+            fail("expected CouldNotReadCoreException");
+        } catch (CouldNotReadCoreException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.junit.experimental.reporting;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+@RunWith(Suite.class)
+@SuiteClasses({
+        EventJournalTest.class,
+        ReportListenerTest.class
+})
+public class AllReportingTests {
+}
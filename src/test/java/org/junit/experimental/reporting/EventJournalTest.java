@@ -0,0 +1,239 @@
+package org.junit.experimental.reporting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.internal.ThrowableSnapshot;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+public class EventJournalTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Example {
+        @Test
+        public void passes() {
+        }
+
+        @Test
+        public void fails() {
+            throw new IllegalStateException("broken");
+        }
+
+        @Test
+        public void assumes() {
+            assumeTrue(false);
+        }
+
+        @Ignore
+        @Test
+        public void ignored() {
+        }
+    }
+
+    private static class EventLog extends RunListener {
+        final List<String> events = new ArrayList<String>();
+        Result result;
+
+        @Override
+        public void testRunStarted(Description description) {
+            events.add("runStarted " + description.getDisplayName() + " " + description.testCount());
+        }
+
+        @Override
+        public void testRunFinished(Result result) {
+            this.result = result;
+            events.add("runFinished");
+        }
+
+        @Override
+        public void testSuiteStarted(Description description) {
+            events.add("suiteStarted " + description.getDisplayName());
+        }
+
+        @Override
+        public void testSuiteFinished(Description description) {
+            events.add("suiteFinished " + description.getDisplayName());
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            events.add("started " + description.getDisplayName());
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            events.add("finished " + description.getDisplayName());
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            events.add("failure " + failure.getDescription().getDisplayName() + " " + failure.getMessage());
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            events.add("assumptionFailure " + failure.getDescription().getDisplayName());
+        }
+
+        @Override
+        public void testIgnored(Description description) {
+            events.add("ignored " + description.getDisplayName());
+        }
+    }
+
+    @Test
+    public void replaysRun() throws Exception {
+        File file = folder.newFile("run.journal");
+        EventLog original = new EventLog();
+        JUnitCore core = new JUnitCore();
+        core.addListener(original);
+        core.addListener(EventJournal.create(file));
+        core.run(Example.class);
+
+        EventLog replayed = new EventLog();
+        EventJournalReader reader = EventJournalReader.open(file);
+        try {
+            reader.replayAvailable(replayed);
+        } finally {
+            reader.close();
+        }
+
+        assertEquals(original.events, replayed.events);
+        assertTrue(reader.isFinished());
+        assertEquals(original.result.getRunCount(), replayed.result.getRunCount());
+        assertEquals(original.result.getFailureCount(), replayed.result.getFailureCount());
+        assertEquals(original.result.getIgnoreCount(), replayed.result.getIgnoreCount());
+        assertEquals(original.result.getAssumptionFailureCount(),
+                replayed.result.getAssumptionFailureCount());
+    }
+
+    @Test
+    public void replaysFailureSnapshots() throws Exception {
+        File file = folder.newFile("failure.journal");
+        EventJournal journal = EventJournal.create(file);
+        Description test = Description.createTestDescription("Example", "fails");
+        journal.testRunStarted(test);
+        journal.testFailure(new Failure(test, new IllegalStateException("broken",
+                new IOException("cause"))));
+        journal.testRunFinished(new Result());
+
+        final List<Failure> failures = new ArrayList<Failure>();
+        EventJournalReader reader = EventJournalReader.open(file);
+        try {
+            reader.replayAvailable(new RunListener() {
+                @Override
+                public void testFailure(Failure failure) {
+                    failures.add(failure);
+                }
+            });
+        } finally {
+            reader.close();
+        }
+
+        assertEquals(1, failures.size());
+        assertEquals(test, failures.get(0).getDescription());
+        ThrowableSnapshot snapshot = (ThrowableSnapshot) failures.get(0).getException();
+        assertEquals(IllegalStateException.class.getName(), snapshot.getClassName());
+        assertEquals("broken", snapshot.getMessage());
+        assertEquals(IOException.class.getName(),
+                ((ThrowableSnapshot) snapshot.getCause()).getClassName());
+        assertTrue(snapshot.getStackTrace().length > 0);
+    }
+
+    @Test
+    public void tailsJournalWhileItIsWritten() throws Exception {
+        File file = folder.newFile("tail.journal");
+        EventJournal journal = EventJournal.create(file);
+        EventJournalReader reader = EventJournalReader.open(file);
+        EventLog replayed = new EventLog();
+        Description test = Description.createTestDescription("Example", "passes");
+        try {
+            assertEquals(0, reader.replayAvailable(replayed));
+
+            journal.testRunStarted(test);
+            journal.testStarted(test);
+            reader.replayAvailable(replayed);
+            assertEquals(2, replayed.events.size());
+            assertFalse(reader.isFinished());
+
+            journal.testFinished(test);
+            journal.testRunFinished(new Result());
+            reader.replayAvailable(replayed);
+            assertEquals(4, replayed.events.size());
+            assertTrue(reader.isFinished());
+            assertTrue(reader.getLastEventNanos() > 0);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void continuesInNextSegment() throws Exception {
+        File file = folder.newFile("segments.journal");
+        EventJournal journal = EventJournal.create(file, EventJournal.MIN_SEGMENT_SIZE);
+        Description suite = Description.createSuiteDescription("suite");
+        journal.testRunStarted(suite);
+        StringBuilder longMessage = new StringBuilder();
+        for (int i = 0; i < 2 * EventJournal.MIN_SEGMENT_SIZE; i++) {
+            longMessage.append('x');
+        }
+        for (int i = 0; i < 500; i++) {
+            Description test = Description.createTestDescription("Example", "test" + i);
+            journal.testStarted(test);
+            if (i == 250) {
+                journal.testFailure(new Failure(test, new AssertionError(longMessage.toString())));
+            }
+            journal.testFinished(test);
+        }
+        journal.testRunFinished(new Result());
+
+        EventLog replayed = new EventLog();
+        EventJournalReader reader = EventJournalReader.open(file);
+        try {
+            reader.replayAvailable(replayed);
+        } finally {
+            reader.close();
+        }
+
+        assertTrue(file.length() > 4 * EventJournal.MIN_SEGMENT_SIZE);
+        assertEquals(1 + 2 * 500 + 1 + 1, replayed.events.size());
+        assertEquals(500, replayed.result.getRunCount());
+        assertEquals(longMessage.toString(),
+                replayed.result.getFailures().get(0).getMessage());
+    }
+
+    @Test
+    public void rejectsFileThatIsNoJournal() throws Exception {
+        File file = folder.newFile("other.bin");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[100]);
+        } finally {
+            out.close();
+        }
+
+        try {
+            EventJournalReader.open(file);
+            fail("expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.junit.experimental.reporting;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.notification.Failure;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class ReportListenerTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Example {
+        @Test
+        public void passes() {
+        }
+
+        @Test
+        public void fails() {
+            throw new AssertionError("expected <1> & got \"2\"");
+        }
+
+        @Test
+        public void throwsException() {
+            throw new IllegalStateException("broken");
+        }
+
+        @Test
+        public void assumes() {
+            assumeTrue(false);
+        }
+
+        @Ignore
+        @Test
+        public void ignored() {
+        }
+    }
+
+    @Test
+    public void writesXmlReport() throws Exception {
+        File file = folder.newFile("report.xml");
+        JUnitCore core = new JUnitCore();
+        core.addListener(ReportListener.xml(file));
+
+        core.run(Example.class);
+
+        Element suite = (Element) parse(file).getElementsByTagName("testsuite").item(0);
+        assertEquals(Example.class.getName(), suite.getAttribute("name"));
+        assertEquals("5", suite.getAttribute("tests"));
+        assertEquals("1", suite.getAttribute("failures"));
+        assertEquals("1", suite.getAttribute("errors"));
+        assertEquals("2", suite.getAttribute("skipped"));
+        Element failure = (Element) suite.getElementsByTagName("failure").item(0);
+        assertEquals("expected <1> & got \"2\"", failure.getAttribute("message"));
+        assertEquals(AssertionError.class.getName(), failure.getAttribute("type"));
+        assertThat(failure.getTextContent(), containsString("Example.fails"));
+    }
+
+    @Test
+    public void writesNdjsonReport() throws Exception {
+        File file = folder.newFile("report.ndjson");
+        JUnitCore core = new JUnitCore();
+        core.addListener(ReportListener.ndjson(file));
+
+        core.run(Example.class);
+
+        List<String> lines = readLines(file);
+        assertEquals(7, lines.size());
+        assertThat(lines.get(0), containsString("\"event\":\"runStarted\""));
+        assertThat(lines.get(6), containsString("\"event\":\"runFinished\",\"tests\":4,\"failures\":2,\"ignored\":1"));
+        String fails = lineOf(lines, "\"name\":\"fails\"");
+        assertThat(fails, containsString("\"status\":\"failed\""));
+        assertThat(fails, containsString("\"message\":\"expected <1> & got \\\"2\\\"\""));
+        assertThat(lineOf(lines, "\"name\":\"assumes\""), containsString("\"status\":\"assumptionFailed\""));
+        assertThat(lineOf(lines, "\"name\":\"ignored\""), containsString("\"status\":\"ignored\""));
+    }
+
+    @Test
+    public void xmlReportOfUnfinishedRunContainsFinishedClasses() throws Exception {
+        File file = folder.newFile("report.xml");
+        ReportListener listener = ReportListener.xml(file);
+        Description suite = Description.createSuiteDescription(Example.class);
+        Description passes = Description.createTestDescription(Example.class, "passes");
+        Description fails = Description.createTestDescription(Example.class, "fails");
+        Description unfinished = Description.createTestDescription(String.class, "unfinished");
+
+        listener.testSuiteStarted(suite);
+        listener.testStarted(passes);
+        listener.testFinished(passes);
+        listener.testStarted(fails);
+        listener.testFailure(new Failure(fails, new AssertionError()));
+        listener.testFinished(fails);
+        listener.testSuiteFinished(suite);
+        listener.testStarted(unfinished);
+        listener.testFinished(unfinished);
+
+        NodeList suites = parse(file).getElementsByTagName("testsuite");
+        assertEquals(1, suites.getLength());
+        assertEquals("2", ((Element) suites.item(0)).getAttribute("tests"));
+    }
+
+    @Test
+    public void ndjsonReportOfUnfinishedRunContainsFinishedClasses() throws Exception {
+        File file = folder.newFile("report.ndjson");
+        ReportListener listener = ReportListener.ndjson(file);
+        Description suite = Description.createSuiteDescription(Example.class);
+        Description passes = Description.createTestDescription(Example.class, "passes");
+
+        listener.testStarted(passes);
+        listener.testFinished(passes);
+        listener.testSuiteFinished(suite);
+        listener.testStarted(passes);
+
+        List<String> lines = readLines(file);
+        assertEquals(1, lines.size());
+        assertThat(lines.get(0), containsString("\"name\":\"passes\""));
+    }
+
+    private static Document parse(File file) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            List<String> lines = new ArrayList<String>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String lineOf(List<String> lines, String part) {
+        for (String each : lines) {
+            if (each.contains(part)) {
+                return each;
+            }
+        }
+        throw new AssertionError("No line contains " + part + " in " + lines);
+    }
+}
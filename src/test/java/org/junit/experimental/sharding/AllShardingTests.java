@@ -0,0 +1,12 @@
+package org.junit.experimental.sharding;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+@RunWith(Suite.class)
+@SuiteClasses({
+        ShardFilterFactoryTest.class
+})
+public class AllShardingTests {
+}
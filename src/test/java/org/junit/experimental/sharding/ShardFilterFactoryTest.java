@@ -0,0 +1,171 @@
+package org.junit.experimental.sharding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.runner.Description.createSuiteDescription;
+import static org.junit.runner.Description.createTestDescription;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.function.ThrowingRunnable;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.FilterFactory;
+import org.junit.runner.FilterFactoryParams;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.manipulation.Filter;
+
+public class ShardFilterFactoryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class SixTests {
+        @Test
+        public void one() {
+        }
+
+        @Test
+        public void two() {
+        }
+
+        @Test
+        public void three() {
+            fail();
+        }
+
+        @Test
+        public void four() {
+        }
+
+        @Test
+        public void five() {
+        }
+
+        @Test
+        public void six() {
+            fail();
+        }
+    }
+
+    @Test
+    public void everyTestIsInExactlyOneShard() {
+        int total = 7;
+        Description suite = createSuiteDescription("suite");
+        for (int i = 0; i < 100; i++) {
+            suite.addChild(createTestDescription(SixTests.class, "test" + i));
+        }
+
+        int selected = 0;
+        for (int shard = 0; shard < total; shard++) {
+            Filter filter = ShardFilterFactory.createFilter(shard, total);
+            for (Description each : suite.getChildren()) {
+                if (filter.shouldRun(each)) {
+                    selected++;
+                }
+            }
+        }
+        assertEquals(100, selected);
+    }
+
+    @Test
+    public void shardingIsStable() {
+        Description test = createTestDescription(SixTests.class, "one");
+        Filter filter = ShardFilterFactory.createFilter(3, 16);
+        assertEquals(filter.shouldRun(test), ShardFilterFactory.createFilter(3, 16).shouldRun(test));
+    }
+
+    @Test
+    public void suiteRunsIfAnyChildIsInShard() {
+        Description suite = Request.aClass(SixTests.class).getRunner().getDescription();
+        for (int shard = 0; shard < 3; shard++) {
+            Filter filter = ShardFilterFactory.createFilter(shard, 3);
+            boolean anyChild = false;
+            for (Description each : suite.getChildren()) {
+                anyChild |= filter.shouldRun(each);
+            }
+            assertEquals(anyChild, filter.shouldRun(suite));
+        }
+    }
+
+    @Test
+    public void shouldCreateFilterFromArgs() throws Exception {
+        Filter filter = createFilter("1/4");
+
+        assertEquals("shard 1 of 4", filter.describe());
+    }
+
+    @Test
+    public void shouldRejectIndexOutOfRange() {
+        assertThrows(FilterFactory.FilterNotCreatedException.class, creatingFilter("4/4"));
+    }
+
+    @Test
+    public void shouldRejectMalformedArgs() {
+        assertThrows(FilterFactory.FilterNotCreatedException.class, creatingFilter("first"));
+    }
+
+    @Test
+    public void balancedShardsSplitTestsEvenly() throws Exception {
+        File historyFile = new File(folder.getRoot(), "history");
+        Description tests = Request.aClass(SixTests.class).getRunner().getDescription();
+        Set<Description> seen = new HashSet<Description>();
+        for (int shard = 0; shard < 2; shard++) {
+            Filter filter = ShardFilterFactory.createFilter(
+                    shard, 2, tests, MaxHistory.forFolder(historyFile));
+            int selected = 0;
+            for (Description each : tests.getChildren()) {
+                if (filter.shouldRun(each)) {
+                    assertTrue(seen.add(each));
+                    selected++;
+                }
+            }
+            assertEquals(3, selected);
+        }
+    }
+
+    @Test
+    public void mergedShardResultsAddUp() throws Exception {
+        Description tests = Request.aClass(SixTests.class).getRunner().getDescription();
+        File historyFile = new File(folder.getRoot(), "history");
+        List<File> shards = new ArrayList<File>();
+        for (int shard = 0; shard < 2; shard++) {
+            Filter filter = ShardFilterFactory.createFilter(
+                    shard, 2, tests, MaxHistory.forFolder(historyFile));
+            Result result = new JUnitCore().run(Request.aClass(SixTests.class).filterWith(filter));
+            File file = folder.newFile("shard-" + shard);
+            ShardResults.write(result, file);
+            shards.add(file);
+        }
+
+        Result merged = ShardResults.merge(shards);
+
+        assertEquals(6, merged.getRunCount());
+        assertEquals(2, merged.getFailureCount());
+        assertFalse(merged.wasSuccessful());
+    }
+
+    private ThrowingRunnable creatingFilter(final String args) {
+        return new ThrowingRunnable() {
+            public void run() throws Throwable {
+                createFilter(args);
+            }
+        };
+    }
+
+    private Filter createFilter(String args) throws FilterFactory.FilterNotCreatedException {
+        FilterFactoryParams params = new FilterFactoryParams(createSuiteDescription("suite"), args);
+        return new ShardFilterFactory().createFilter(params);
+    }
+}
@@ -14,12 +14,14 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
         AnnotatedBuilderTest.class,
         ChecksTest.class,
+        DataStringsTest.class,
         ErrorReportingRunnerTest.class,
         ExpectExceptionTest.class,
         FailOnTimeoutTest.class,
         MethodSorterTest.class,
         StacktracePrintingMatcherTest.class,
         StackTracesTest.class,
+        ThrowableSnapshotTest.class,
         ThrowableCauseMatcherTest.class,
         ArrayComparisonFailureTest.class
 })
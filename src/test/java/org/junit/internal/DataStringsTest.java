@@ -0,0 +1,39 @@
+package org.junit.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.internal.DataStrings.readString;
+import static org.junit.internal.DataStrings.writeString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Test;
+
+/** Tests for {@link DataStrings}. */
+public class DataStringsTest {
+
+    @Test
+    public void readsWrittenStrings() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 70000; i++) {
+            longString.append('\u00e9');
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeString(out, "caf\u00e9");
+        writeString(out, null);
+        writeString(out, "");
+        writeString(out, longString.toString());
+        out.close();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals("caf\u00e9", readString(in));
+        assertNull(readString(in));
+        assertEquals("", readString(in));
+        assertEquals(longString.toString(), readString(in));
+    }
+}
@@ -0,0 +1,79 @@
+package org.junit.internal;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ThrowableSnapshotTest {
+
+    @Test
+    public void keepsClassNameAndMessage() {
+        ThrowableSnapshot snapshot = ThrowableSnapshot.of(new IllegalStateException("broken"));
+
+        assertEquals(IllegalStateException.class.getName(), snapshot.getClassName());
+        assertEquals("broken", snapshot.getMessage());
+        assertEquals("java.lang.IllegalStateException: broken", snapshot.toString());
+        assertNull(snapshot.getCause());
+    }
+
+    @Test
+    public void stackTraceIsTrimmedBelowTestMethod() {
+        StackTraceElement[] stackTrace = {
+                new StackTraceElement("com.example.Production", "compute", "Production.java", 10),
+                new StackTraceElement("com.example.ExampleTest", "computes", "ExampleTest.java", 20),
+                new StackTraceElement("jdk.internal.reflect.NativeMethodAccessorImpl", "invoke", null, -1),
+                new StackTraceElement("java.lang.reflect.Method", "invoke", "Method.java", 568),
+                new StackTraceElement("org.junit.runners.model.FrameworkMethod", "invokeExplosively", null, 1),
+                new StackTraceElement("org.junit.runner.JUnitCore", "run", "JUnitCore.java", 2)
+        };
+        Exception exception = new Exception("failed");
+        exception.setStackTrace(stackTrace);
+
+        ThrowableSnapshot snapshot = ThrowableSnapshot.of(exception);
+
+        assertEquals(Arrays.asList(stackTrace[0], stackTrace[1]),
+                Arrays.asList(snapshot.getStackTrace()));
+    }
+
+    @Test
+    public void causesKeepOnlyTheirOwnFrames() {
+        StackTraceElement common = new StackTraceElement("com.example.Caller", "call", "Caller.java", 1);
+        StackTraceElement own = new StackTraceElement("com.example.Callee", "fail", "Callee.java", 2);
+        Exception cause = new Exception("cause");
+        cause.setStackTrace(new StackTraceElement[] {own, common});
+        RuntimeException exception = new RuntimeException("wrapper", cause);
+        exception.setStackTrace(new StackTraceElement[] {common});
+
+        ThrowableSnapshot snapshot = ThrowableSnapshot.of(exception);
+
+        ThrowableSnapshot causeSnapshot = (ThrowableSnapshot) snapshot.getCause();
+        assertEquals(Exception.class.getName(), causeSnapshot.getClassName());
+        assertEquals(Arrays.asList(own), Arrays.asList(causeSnapshot.getStackTrace()));
+        assertThat(Throwables.getStacktrace(snapshot), containsString("Caused by: java.lang.Exception: cause"));
+    }
+
+    @Test
+    public void causesAreSnapshots() {
+        Exception exception = new Exception(new Exception("cause"));
+
+        ThrowableSnapshot snapshot = ThrowableSnapshot.of(exception);
+
+        for (Throwable each = snapshot; each != null; each = each.getCause()) {
+            assertTrue(each instanceof ThrowableSnapshot);
+        }
+    }
+
+    @Test
+    public void snapshotOfSnapshotIsSame() {
+        ThrowableSnapshot snapshot = ThrowableSnapshot.of(new Exception());
+
+        assertSame(snapshot, ThrowableSnapshot.of(snapshot));
+    }
+}
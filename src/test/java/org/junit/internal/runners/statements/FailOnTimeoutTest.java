@@ -7,28 +7,38 @@ import static java.lang.Thread.currentThread;
 import static java.lang.Thread.interrupted;
 import static java.lang.Thread.sleep;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeFalse;
 import static org.junit.Assume.assumeTrue;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.junit.function.ThrowingRunnable;
+import org.junit.internal.VirtualThreads;
+import org.junit.internal.management.ManagementFactory;
+import org.junit.internal.management.ThreadMXBean;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.model.MultipleFailureException;
 import org.junit.runners.model.Statement;
+import org.junit.runners.model.TestCpuTimeExceededException;
 import org.junit.runners.model.TestTimedOutException;
 
 
@@ -229,6 +239,221 @@ public class FailOnTimeoutTest {
         assertTrue("the Statement was never run", statementWasExecuted.get());
     }
 
+    @Test
+    public void withVirtualThread_stillTimesOut() throws Throwable {
+        FailOnTimeout failOnTimeout = FailOnTimeout.builder()
+                .withTimeout(50, MILLISECONDS)
+                .withLookingForStuckThread(lookingForStuckThread)
+                .withVirtualThread(true)
+                .build(new RunForASecond());
+
+        TestTimedOutException e = assertThrows(
+                TestTimedOutException.class, run(failOnTimeout));
+        assertEquals(50, e.getTimeout());
+    }
+
+    @Test
+    public void withVirtualThread_runsStatementOnVirtualThreadWhenSupported() throws Throwable {
+        assumeFalse(lookingForStuckThread);
+        assumeTrue(VirtualThreads.isSupported());
+        final AtomicReference<Thread> innerThread = new AtomicReference<Thread>();
+        FailOnTimeout failOnTimeout = FailOnTimeout.builder()
+                .withTimeout(1, SECONDS)
+                .withVirtualThread(true)
+                .build(new Statement() {
+                    @Override
+                    public void evaluate() {
+                        innerThread.set(currentThread());
+                    }
+                });
+
+        failOnTimeout.evaluate();
+
+        Method isVirtual = Thread.class.getMethod("isVirtual");
+        assertEquals(Boolean.TRUE, isVirtual.invoke(innerThread.get()));
+    }
+
+    @Test
+    public void pooledThread_throwsTestTimedOutException() {
+        TestTimedOutException e = assertThrows(
+                TestTimedOutException.class,
+                run(pooledFailAfter50Ms(new RunForASecond())));
+        assertEquals("test timed out after 50 milliseconds", e.getMessage());
+    }
+
+    @Test
+    public void pooledThread_sendsUpExceptionThrownByStatement() {
+        Exception exception = new RuntimeException();
+        Exception e = assertThrows(
+                Exception.class,
+                run(pooledFailAfter50Ms(new Fail(exception))));
+        assertSame(exception, e);
+    }
+
+    @Test
+    public void pooledThread_interruptOfTimedOutTestIsNotSeenByNextTest() throws Throwable {
+        assertThrows(
+                TestTimedOutException.class,
+                run(pooledFailAfter50Ms(new IgnoreInterruptsFor200Ms())));
+        sleep(300); // let the timed out test finish and its thread become idle
+        final AtomicBoolean interrupted = new AtomicBoolean(true);
+
+        pooledFailAfter50Ms(new Statement() {
+            @Override
+            public void evaluate() {
+                interrupted.set(currentThread().isInterrupted());
+            }
+        }).evaluate();
+
+        assertFalse("the next test was interrupted", interrupted.get());
+    }
+
+    @Test
+    public void pooledThread_threadLocalsAreNotSeenByNextTest() throws Throwable {
+        final ThreadLocal<String> threadLocal = new ThreadLocal<String>();
+        pooledFailAfter50Ms(new Statement() {
+            @Override
+            public void evaluate() {
+                threadLocal.set("first test");
+            }
+        }).evaluate();
+        final AtomicReference<String> seen = new AtomicReference<String>("not run");
+
+        pooledFailAfter50Ms(new Statement() {
+            @Override
+            public void evaluate() {
+                seen.set(threadLocal.get());
+            }
+        }).evaluate();
+
+        assertNull(seen.get());
+    }
+
+    @Test
+    public void pooledThread_isReusedWhenThreadLocalsCanBeCleared() throws Throwable {
+        assumeTrue(TimeLimitedExecutor.canReuseThreads());
+        final Set<Thread> threads = new HashSet<Thread>();
+        Statement statement = new Statement() {
+            @Override
+            public void evaluate() {
+                threads.add(currentThread());
+            }
+        };
+
+        for (int i = 0; i < 10; i++) {
+            pooledFailAfter50Ms(statement).evaluate();
+        }
+
+        assertEquals(1, threads.size());
+    }
+
+    @Test
+    public void pooledThread_isNotUsedWhenThreadLocalsCannotBeCleared() throws Throwable {
+        assumeFalse(TimeLimitedExecutor.canReuseThreads());
+        final AtomicReference<ThreadGroup> group = new AtomicReference<ThreadGroup>();
+
+        FailOnTimeout.builder()
+                .withTimeout(50, MILLISECONDS)
+                .withPooledThreads(true)
+                .build(new Statement() {
+                    @Override
+                    public void evaluate() {
+                        group.set(currentThread().getThreadGroup());
+                    }
+                }).evaluate();
+
+        assertSame(currentThread().getThreadGroup(), group.get());
+    }
+
+    @Test
+    public void cpuTimeout_testWaitingLongerThanCpuTimeoutPasses() throws Throwable {
+        assumeTrue(cpuTimeIsMeasurable());
+        FailOnTimeout failOnTimeout = FailOnTimeout.builder()
+                .withTimeout(5, SECONDS)
+                .withCpuTimeout(50, MILLISECONDS)
+                .withLookingForStuckThread(lookingForStuckThread)
+                .build(new SleepFor300Ms());
+
+        failOnTimeout.evaluate();
+
+        // test is successful when no exception is thrown
+    }
+
+    @Test
+    public void cpuTimeout_busyTestThrowsTestCpuTimeExceededException() {
+        TestCpuTimeExceededException e = assertThrows(
+                TestCpuTimeExceededException.class,
+                run(FailOnTimeout.builder()
+                        .withTimeout(5, SECONDS)
+                        .withCpuTimeout(50, MILLISECONDS)
+                        .withLookingForStuckThread(lookingForStuckThread)
+                        .build(new RunForASecond())));
+        assertEquals("test used more than 50 milliseconds of CPU time", e.getMessage());
+        assertEquals(50, e.getTimeout());
+    }
+
+    @Test
+    public void cpuTimeout_busyTestOnPooledThreadThrowsTestCpuTimeExceededException() {
+        assertThrows(
+                TestCpuTimeExceededException.class,
+                run(FailOnTimeout.builder()
+                        .withTimeout(5, SECONDS)
+                        .withCpuTimeout(50, MILLISECONDS)
+                        .withLookingForStuckThread(lookingForStuckThread)
+                        .withPooledThreads(true)
+                        .build(new RunForASecond())));
+    }
+
+    @Test
+    public void cpuTimeout_timeoutIsUpperBound() {
+        TestTimedOutException e = assertThrows(
+                TestTimedOutException.class,
+                run(FailOnTimeout.builder()
+                        .withTimeout(50, MILLISECONDS)
+                        .withCpuTimeout(5, SECONDS)
+                        .withLookingForStuckThread(lookingForStuckThread)
+                        .build(new SleepFor300Ms())));
+        assertEquals("test timed out after 50 milliseconds", e.getMessage());
+    }
+
+    @Test
+    public void cpuTimeOfThreadGroup_countsThreadsStartedByTest() {
+        assumeTrue(cpuTimeIsMeasurable());
+        Exception e = assertThrows(
+                Exception.class,
+                run(FailOnTimeout.builder()
+                        .withTimeout(5, SECONDS)
+                        .withCpuTimeout(50, MILLISECONDS)
+                        .withCpuTimeOfThreadGroup(true)
+                        .withLookingForStuckThread(lookingForStuckThread)
+                        .build(new Statement() {
+                            @Override
+                            public void evaluate() throws Throwable {
+                                Thread busyThread = new Thread(new Runnable() {
+                                    public void run() {
+                                        while (!interrupted()) {
+                                        }
+                                    }
+                                });
+                                busyThread.start();
+                                try {
+                                    busyThread.join();
+                                } finally {
+                                    busyThread.interrupt();
+                                }
+                            }
+                        })));
+        // the busy thread is reported as stuck when looking for a stuck thread
+        Throwable timeout = e instanceof MultipleFailureException
+                ? ((MultipleFailureException) e).getFailures().get(0) : e;
+        assertTrue(timeout instanceof TestCpuTimeExceededException);
+    }
+
+    private static boolean cpuTimeIsMeasurable() {
+        ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        return mxBean.isThreadCpuTimeSupported() && mxBean.isThreadCpuTimeEnabled();
+    }
+
     private FailOnTimeout failAfter50Ms(Statement statement) {
         return FailOnTimeout.builder()
                 .withTimeout(50, MILLISECONDS)
@@ -236,6 +461,14 @@ public class FailOnTimeoutTest {
                 .build(statement);
     }
 
+    private FailOnTimeout pooledFailAfter50Ms(Statement statement) {
+        return FailOnTimeout.builder()
+                .withTimeout(50, MILLISECONDS)
+                .withLookingForStuckThread(lookingForStuckThread)
+                .withPooledThreads(true)
+                .build(statement);
+    }
+
     private ThrowingRunnable run(final FailOnTimeout failOnTimeout) {
         return new ThrowingRunnable() {
             public void run() throws Throwable {
@@ -259,6 +492,22 @@ public class FailOnTimeoutTest {
         }
     }
 
+    private static final class IgnoreInterruptsFor200Ms extends Statement {
+        @Override
+        public void evaluate() throws Throwable {
+            long timeout = currentTimeMillis() + 200L;
+            while (currentTimeMillis() < timeout) {
+            }
+        }
+    }
+
+    private static final class SleepFor300Ms extends Statement {
+        @Override
+        public void evaluate() throws Throwable {
+            sleep(300);
+        }
+    }
+
     private static final class RunForASecond extends Statement {
         final CountDownLatch finished = new CountDownLatch(1);
 
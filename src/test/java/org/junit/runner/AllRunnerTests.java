@@ -8,11 +8,14 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         AllNotificationTests.class,
+        CheckpointTest.class,
         FilterFactoriesTest.class,
         FilterOptionIntegrationTest.class,
         OrderWithValidatorTest.class,
         JUnitCommandLineParseResultTest.class,
-        JUnitCoreTest.class, RequestTest.class
+        JUnitCoreTest.class, RequestTest.class,
+        ResultWithFailureSnapshotsTest.class,
+        RunLimitsTest.class
 })
 public class AllRunnerTests {
 }
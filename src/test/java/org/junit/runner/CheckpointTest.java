@@ -0,0 +1,131 @@
+package org.junit.runner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.notification.Failure;
+import org.junit.runners.MethodSorters;
+
+public class CheckpointTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class Example {
+        @Test
+        public void a() {
+            ran.add("a");
+        }
+
+        @Test
+        public void b() {
+            ran.add("b");
+            throw new AssertionError("b failed");
+        }
+
+        @Test
+        public void c() {
+            ran.add("c");
+        }
+
+        @Ignore
+        @Test
+        public void d() {
+        }
+    }
+
+    @Before
+    public void clearRanTests() {
+        ran.clear();
+    }
+
+    private static Description test(String methodName) {
+        return Description.createTestDescription(Example.class, methodName);
+    }
+
+    @Test
+    public void resumedRunSkipsFinishedTestsAndCountsThem() throws Exception {
+        File file = folder.newFile("checkpoint");
+        Checkpoint checkpoint = Checkpoint.create(file);
+        checkpoint.testStarted(test("a"));
+        checkpoint.testFinished(test("a"));
+        checkpoint.testStarted(test("b"));
+        checkpoint.testFailure(new Failure(test("b"), new AssertionError("b failed")));
+        checkpoint.testFinished(test("b"));
+        checkpoint.close();
+        // the start of a record that was being written when the process died
+        FileOutputStream out = new FileOutputStream(file, true);
+        out.write(new byte[] {1, 0, 0});
+        out.close();
+
+        Result result = new JUnitCore().run(Request.aClass(Example.class), file, true);
+
+        assertEquals(Arrays.asList("c"), ran);
+        assertThat(result.getRunCount(), is(3));
+        assertThat(result.getIgnoreCount(), is(1));
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getFailures().get(0).getMessage(), is("b failed"));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void recordsTestsOfRun() throws Exception {
+        File file = folder.newFile("checkpoint");
+        Checkpoint checkpoint = Checkpoint.create(file);
+        JUnitCore core = new JUnitCore();
+        core.addListener(checkpoint);
+        Result original = core.run(Example.class);
+        checkpoint.close();
+        ran.clear();
+
+        Result resumed = new JUnitCore().run(Request.aClass(Example.class), file, true);
+
+        assertTrue(ran.isEmpty());
+        assertThat(resumed.getRunCount(), is(original.getRunCount()));
+        assertThat(resumed.getIgnoreCount(), is(original.getIgnoreCount()));
+        assertThat(resumed.getFailureCount(), is(original.getFailureCount()));
+    }
+
+    @Test
+    public void runWithoutResumeReplacesCheckpoint() throws Exception {
+        File file = folder.newFile("checkpoint");
+        Checkpoint checkpoint = Checkpoint.create(file);
+        checkpoint.testStarted(test("a"));
+        checkpoint.testFinished(test("a"));
+        checkpoint.close();
+
+        Result result = new JUnitCore().run(Request.aClass(Example.class), file, false);
+
+        assertEquals(Arrays.asList("a", "b", "c"), ran);
+        assertThat(result.getRunCount(), is(3));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void resumeWithoutCheckpointRunsAllTests() throws Exception {
+        File file = new File(folder.getRoot(), "missing");
+
+        Result result = new JUnitCore().run(Request.aClass(Example.class), file, true);
+
+        assertEquals(Arrays.asList("a", "b", "c"), ran);
+        assertThat(result.getRunCount(), is(3));
+    }
+}
@@ -5,6 +5,7 @@ import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.File;
 import java.util.List;
 
 import org.junit.Rule;
@@ -12,6 +13,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.IncludeCategories;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.manipulation.Filter;
+import org.junit.tests.manipulation.ReverseAlphanumericSorter;
 
 public class JUnitCommandLineParseResultTest {
     @Rule
@@ -129,6 +131,97 @@ public class JUnitCommandLineParseResultTest {
         assertThat(description.toString(), containsString("initializationError"));
     }
 
+    @Test
+    public void shouldParseCheckpointAndResumeOptions() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--checkpoint", "build/checkpoint", "--resume");
+
+        assertThat(jUnitCommandLineParseResult.getCheckpoint(), is(new File("build/checkpoint")));
+        assertThat(jUnitCommandLineParseResult.isResume(), is(true));
+    }
+
+    @Test
+    public void shouldParseCheckpointArgWithEqualsSyntax() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--checkpoint=build/checkpoint");
+
+        assertThat(jUnitCommandLineParseResult.getCheckpoint(), is(new File("build/checkpoint")));
+        assertThat(jUnitCommandLineParseResult.isResume(), is(false));
+    }
+
+    @Test
+    public void shouldParseResultFileOption() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--result-file", "build/shard-0.ser");
+
+        assertThat(jUnitCommandLineParseResult.getResultFile(), is(new File("build/shard-0.ser")));
+    }
+
+    @Test
+    public void shouldParseResultFileArgWithEqualsSyntax() throws Exception {
+        jUnitCommandLineParseResult.parseOptions("--result-file=build/shard-0.ser");
+
+        assertThat(jUnitCommandLineParseResult.getResultFile(), is(new File("build/shard-0.ser")));
+    }
+
+    @Test
+    public void shouldCreateFailureUponResumeWithoutCheckpoint() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--resume", DummyTest.class.getName()
+        });
+
+        Runner runner = result.createRequest(new Computer()).getRunner();
+        Description description = runner.getDescription().getChildren().get(0);
+
+        assertThat(description.toString(), containsString("initializationError"));
+    }
+
+    @Test
+    public void shouldOrderWithOrderingFactory() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--order=" + ReverseAlphanumericSorter.class.getName(), OrderedTest.class.getName()
+        });
+
+        Runner runner = result.createRequest(new Computer()).getRunner();
+        List<Description> children = runner.getDescription().getChildren().get(0).getChildren();
+
+        assertThat(children.get(0).getMethodName(), is("c"));
+        assertThat(children.get(2).getMethodName(), is("a"));
+    }
+
+    @Test
+    public void shouldCreateFailureUponUnfoundOrderingFactory() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--order", "NonExistentOrderingFactory", OrderedTest.class.getName()
+        });
+
+        Runner runner = result.createRequest(new Computer()).getRunner();
+        Description description = runner.getDescription().getChildren().get(0);
+
+        assertThat(description.toString(), containsString("initializationError"));
+    }
+
+    @Test
+    public void shouldStopAfterMaxFailures() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--max-failures=1", RunLimitsTest.Failing.class.getName()
+        });
+
+        Result run = new JUnitCore().run(result.createRequest(new Computer()));
+
+        assertThat(run.getFailureCount(), is(1));
+        assertThat(run.getAssumptionFailureCount(), is(3));
+    }
+
+    @Test
+    public void shouldCreateFailureUponInvalidTimeBudget() throws Exception {
+        JUnitCommandLineParseResult result = JUnitCommandLineParseResult.parse(new String[]{
+                "--time-budget", "soon", RunLimitsTest.Failing.class.getName()
+        });
+
+        Runner runner = result.createRequest(new Computer()).getRunner();
+        Description description = runner.getDescription().getChildren().get(0);
+
+        assertThat(description.toString(), containsString("initializationError"));
+    }
+
     public static class FilterFactoryStub implements FilterFactory {
         public Filter createFilter(FilterFactoryParams params) throws FilterNotCreatedException {
             throw new FilterNotCreatedException(new Exception("stub"));
@@ -138,6 +231,20 @@ public class JUnitCommandLineParseResultTest {
     public static interface DummyCategory0 {
     }
 
+    public static class OrderedTest {
+        @Test
+        public void a() {
+        }
+
+        @Test
+        public void c() {
+        }
+
+        @Test
+        public void b() {
+        }
+    }
+
     public static class DummyTest {
         @Test
         public void dummyTest() {
@@ -1,6 +1,14 @@
 package org.junit.runner;
 
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.experimental.sharding.ShardFilterFactory;
+import org.junit.experimental.sharding.ShardFilterFactoryTest;
+import org.junit.experimental.sharding.ShardResults;
+import org.junit.rules.TemporaryFolder;
 import org.junit.tests.TestSystem;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -8,6 +16,9 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class JUnitCoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void shouldAddFailuresToResult() {
         JUnitCore jUnitCore = new JUnitCore();
@@ -17,4 +28,24 @@ public class JUnitCoreTest {
         assertThat(result.getFailureCount(), is(1));
         assertThat(result.getFailures().get(0).getException(), instanceOf(IllegalArgumentException.class));
     }
+
+    @Test
+    public void shouldWriteResultOfEachShardToResultFile() throws Exception {
+        File shard0 = new File(folder.getRoot(), "shard-0.ser");
+        File shard1 = new File(folder.getRoot(), "shard-1.ser");
+
+        runShard("0/2", shard0);
+        runShard("1/2", shard1);
+        Result merged = ShardResults.merge(Arrays.asList(shard0, shard1));
+
+        assertThat(merged.getRunCount(), is(6));
+        assertThat(merged.getFailureCount(), is(2));
+    }
+
+    private void runShard(String shard, File resultFile) {
+        new JUnitCore().runMain(new TestSystem(),
+                "--filter=" + ShardFilterFactory.class.getName() + "=" + shard,
+                "--result-file=" + resultFile.getPath(),
+                ShardFilterFactoryTest.SixTests.class.getName());
+    }
 }
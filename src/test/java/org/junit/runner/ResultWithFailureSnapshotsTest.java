@@ -0,0 +1,182 @@
+package org.junit.runner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.internal.ThrowableSnapshot;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+public class ResultWithFailureSnapshotsTest {
+
+    public static class ThreeFailures {
+        @Test
+        public void first() {
+            fail("first");
+        }
+
+        @Test
+        public void second() {
+            throw new IllegalStateException("second", new IllegalArgumentException("cause"));
+        }
+
+        @Test
+        public void third() {
+            fail("third");
+        }
+
+        @Test
+        public void succeeds() {
+        }
+    }
+
+    @Test
+    public void keepsSnapshotsOfFailures() {
+        Result result = new JUnitCore().run(
+                Request.aClass(ThreeFailures.class), Result.withFailureSnapshots(10));
+
+        assertEquals(4, result.getRunCount());
+        assertEquals(3, result.getFailureCount());
+        for (Failure each : result.getFailures()) {
+            assertTrue(each.getException() instanceof ThrowableSnapshot);
+        }
+    }
+
+    @Test
+    public void failuresBeyondLimitAreReadBackInOrder() throws Exception {
+        Result result = Result.withFailureSnapshots(1);
+        RunListener listener = result.createListener();
+        List<String> messages = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            String message = "failure " + i;
+            messages.add(message);
+            listener.testFailure(new Failure(
+                    Description.createTestDescription(getClass(), "test" + i),
+                    new IllegalStateException(message, new RuntimeException("cause " + i))));
+        }
+
+        assertEquals(5, result.getFailureCount());
+        assertFalse(result.wasSuccessful());
+        List<String> readMessages = new ArrayList<String>();
+        for (Failure each : result.getFailures()) {
+            readMessages.add(each.getMessage());
+        }
+        assertEquals(messages, readMessages);
+
+        Failure spilled = result.getFailures().get(3);
+        assertEquals("test3", spilled.getDescription().getMethodName());
+        ThrowableSnapshot exception = (ThrowableSnapshot) spilled.getException();
+        assertEquals(IllegalStateException.class.getName(), exception.getClassName());
+        assertEquals("cause 3", exception.getCause().getMessage());
+    }
+
+    @Test
+    public void readsManySpilledFailuresInOrder() throws Exception {
+        Result result = Result.withFailureSnapshots(0);
+        addFailures(result, 1000);
+        result.getFailures().get(0);
+        addFailures(result, 10);
+
+        int i = 0;
+        for (Failure each : result.getFailures()) {
+            assertEquals("failure " + (i % 1000), each.getMessage());
+            i++;
+        }
+        assertEquals(1010, i);
+    }
+
+    @Test
+    public void readsSpilledFailuresByIndex() throws Exception {
+        Result result = Result.withFailureSnapshots(3);
+        addFailures(result, 1000);
+        List<Failure> failures = result.getFailures();
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("failure " + i, failures.get(i).getMessage());
+        }
+        assertEquals("failure 500", failures.get(500).getMessage());
+        assertEquals("failure 2", failures.get(2).getMessage());
+        assertEquals("failure 999", failures.get(999).getMessage());
+        try {
+            failures.get(1000);
+            fail("expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    @Test
+    public void deletesFileWhenResultIsNoLongerReferenced() throws Exception {
+        File tempDir = new File(System.getProperty("java.io.tmpdir"));
+        Result other = Result.withFailureSnapshots(0);
+        Set<String> before = spillFiles(tempDir);
+        Result result = Result.withFailureSnapshots(0);
+        addFailures(result, 1000);
+        Set<String> created = spillFiles(tempDir);
+        created.removeAll(before);
+        assertEquals(1, created.size());
+        File file = new File(tempDir, created.iterator().next());
+
+        result = null;
+        for (int i = 0; i < 50 && file.exists(); i++) {
+            System.gc();
+            Thread.sleep(10);
+            other.getFailures().iterator();
+        }
+
+        assertFalse(file.exists());
+    }
+
+    private static void addFailures(Result result, int count) throws Exception {
+        RunListener listener = result.createListener();
+        for (int i = 0; i < count; i++) {
+            listener.testFailure(new Failure(
+                    Description.createTestDescription(ResultWithFailureSnapshotsTest.class, "test" + i),
+                    new IllegalStateException("failure " + i)));
+        }
+    }
+
+    private static Set<String> spillFiles(File directory) {
+        Set<String> names = new HashSet<String>();
+        for (String each : directory.list()) {
+            if (each.startsWith("junit-failures")) {
+                names.add(each);
+            }
+        }
+        return names;
+    }
+
+    @Test
+    public void canBeSerialized() throws Exception {
+        Result result = Result.withFailureSnapshots(0);
+        result.createListener().testFailure(new Failure(
+                Description.createTestDescription(getClass(), "test"), new Exception("spilled")));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(result);
+        out.close();
+        Result copy = (Result) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(1, copy.getFailureCount());
+        assertEquals("spilled", copy.getFailures().get(0).getMessage());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeLimit() {
+        Result.withFailureSnapshots(-1);
+    }
+}
@@ -0,0 +1,232 @@
+package org.junit.runner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runners.MethodSorters;
+
+public class RunLimitsTest {
+    private static final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class Failing {
+        @Test
+        public void a() {
+            ran.add("a");
+            fail("a failed");
+        }
+
+        @Test
+        public void b() {
+            ran.add("b");
+            fail("b failed");
+        }
+
+        @Test
+        public void c() {
+            ran.add("c");
+        }
+
+        @Test
+        public void d() {
+            ran.add("d");
+        }
+    }
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class Slow {
+        @Test
+        public void a() throws InterruptedException {
+            ran.add("a");
+            Thread.sleep(60000);
+        }
+
+        @Test
+        public void b() {
+            ran.add("b");
+        }
+    }
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class SlowWithTimeout {
+        static volatile boolean interrupted;
+
+        @Test(timeout = 60000)
+        public void a() throws InterruptedException {
+            ran.add("a");
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                throw e;
+            }
+        }
+
+        @Test
+        public void b() {
+            ran.add("b");
+        }
+    }
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class ParallelFailing {
+        @Test
+        public void a() {
+            ran.add("a");
+            fail("a failed");
+        }
+
+        @Test
+        public void b() throws InterruptedException {
+            ran.add("b");
+            Thread.sleep(200);
+        }
+
+        @Test
+        public void c() throws InterruptedException {
+            ran.add("c");
+            Thread.sleep(200);
+        }
+
+        @Test
+        public void d() throws InterruptedException {
+            ran.add("d");
+            Thread.sleep(200);
+        }
+
+        @Test
+        public void e() throws InterruptedException {
+            ran.add("e");
+            Thread.sleep(200);
+        }
+
+        @Test
+        public void f() throws InterruptedException {
+            ran.add("f");
+            Thread.sleep(200);
+        }
+    }
+
+    @Before
+    public void clearRanTests() {
+        ran.clear();
+    }
+
+    @Test
+    public void stopsAfterMaxFailures() {
+        Request request = Request.aClass(Failing.class)
+                .withLimits(RunLimits.builder().withMaxFailures(2).build());
+
+        Result result = new JUnitCore().run(request);
+
+        assertEquals(2, ran.size());
+        assertEquals(2, result.getFailureCount());
+        assertEquals(4, result.getRunCount());
+        assertEquals(2, result.getAssumptionFailureCount());
+    }
+
+    @Test
+    public void reportsReasonForSkippedTests() {
+        final List<Failure> skipped = new ArrayList<Failure>();
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testAssumptionFailure(Failure failure) {
+                skipped.add(failure);
+            }
+        });
+
+        core.run(Request.aClass(Failing.class)
+                .withLimits(RunLimits.builder().withMaxFailures(1).build()));
+
+        assertEquals(3, skipped.size());
+        assertEquals("Run stopped after 1 failure", skipped.get(0).getMessage());
+    }
+
+    @Test
+    public void interruptsRunningTestsAfterTimeBudgetAndGracePeriod() {
+        Request request = Request.aClass(Slow.class).withLimits(RunLimits.builder()
+                .withTimeBudget(50, TimeUnit.MILLISECONDS)
+                .withGracePeriod(50, TimeUnit.MILLISECONDS)
+                .build());
+        long start = System.nanoTime();
+
+        Result result = new JUnitCore().run(request);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+        assertEquals(1, result.getFailureCount());
+        assertTrue(result.getFailures().get(0).getException() instanceof InterruptedException);
+        assertEquals(1, result.getAssumptionFailureCount());
+        assertEquals(1, ran.size());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void interruptsThreadOfTimedTestAfterTimeBudgetAndGracePeriod() {
+        SlowWithTimeout.interrupted = false;
+        Request request = Request.aClass(SlowWithTimeout.class).withLimits(RunLimits.builder()
+                .withTimeBudget(50, TimeUnit.MILLISECONDS)
+                .withGracePeriod(50, TimeUnit.MILLISECONDS)
+                .build());
+        long start = System.nanoTime();
+
+        Result result = new JUnitCore().run(request);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+        assertTrue(SlowWithTimeout.interrupted);
+        assertEquals(1, result.getFailureCount());
+        assertTrue(result.getFailures().get(0).getException() instanceof InterruptedException);
+        assertEquals(1, result.getAssumptionFailureCount());
+        assertEquals(1, ran.size());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void notifierCanBeUsedAfterRunWasStopped() {
+        JUnitCore core = new JUnitCore();
+        core.run(Request.aClass(Failing.class)
+                .withLimits(RunLimits.builder().withMaxFailures(1).build()));
+        ran.clear();
+
+        Result result = core.run(Failing.class);
+
+        assertEquals(4, ran.size());
+        assertEquals(4, result.getRunCount());
+        assertEquals(0, result.getAssumptionFailureCount());
+    }
+
+    @Test
+    public void stopsParallelChildren() {
+        Request request = Request.classes(new ParallelComputer(false, true, 2), ParallelFailing.class)
+                .withLimits(RunLimits.builder().withMaxFailures(1).build());
+
+        Result result = new JUnitCore().run(request);
+
+        assertTrue(ran.size() < 6);
+        assertEquals(6, result.getRunCount());
+        assertEquals(6 - ran.size(), result.getAssumptionFailureCount());
+        assertEquals(1, result.getFailureCount());
+    }
+
+    @Test
+    public void unlimitedRequestRunsAllTests() {
+        Result result = new JUnitCore().run(
+                Request.aClass(Failing.class).withLimits(RunLimits.builder().build()));
+
+        assertEquals(4, result.getRunCount());
+        assertEquals(2, result.getFailureCount());
+    }
+}
@@ -6,9 +6,11 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+        AsynchronousRunListenerTest.class,
         ConcurrentRunNotifierTest.class,
         RunNotifierTest.class,
-        SynchronizedRunListenerTest.class
+        SynchronizedRunListenerTest.class,
+        TestBatchTest.class
 })
 public class AllNotificationTests {
 }
@@ -0,0 +1,227 @@
+package org.junit.runner.notification;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.AsynchronousRunListener.BackPressure;
+
+public class AsynchronousRunListenerTest {
+    private final RunNotifier notifier = new RunNotifier();
+
+    private final Description test = Description.createTestDescription(getClass(), "test");
+
+    private static class RecordingListener extends RunListener {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        @Override
+        public void testStarted(Description description) throws Exception {
+            record("started " + description.getMethodName());
+        }
+
+        @Override
+        public void testFinished(Description description) throws Exception {
+            record("finished " + description.getMethodName());
+        }
+
+        @Override
+        public void testFailure(Failure failure) throws Exception {
+            record("failure " + failure.getMessage());
+        }
+
+        @Override
+        public void testRunFinished(Result result) throws Exception {
+            record("run finished");
+        }
+
+        void record(String event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+        }
+    }
+
+    @Test
+    public void callsDelegateInOrderOnAnotherThread() {
+        RecordingListener delegate = new RecordingListener();
+        notifier.addListener(new AsynchronousRunListener(delegate, 2));
+
+        notifier.fireTestStarted(test);
+        notifier.fireTestFailure(new Failure(test, new Exception("broken")));
+        notifier.fireTestFinished(test);
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(asList("started test", "failure broken", "finished test", "run finished"),
+                delegate.events);
+        for (Thread each : delegate.threads) {
+            assertFalse(each == Thread.currentThread());
+        }
+    }
+
+    @Test
+    public void doesNotWaitForSlowDelegate() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        RecordingListener delegate = new RecordingListener() {
+            @Override
+            public void testStarted(Description description) throws Exception {
+                release.await();
+                super.testStarted(description);
+            }
+        };
+        notifier.addListener(new AsynchronousRunListener(delegate));
+
+        notifier.fireTestStarted(test);
+        notifier.fireTestFinished(test);
+        assertTrue(delegate.events.isEmpty());
+
+        release.countDown();
+        notifier.fireTestRunFinished(new Result());
+        assertEquals(asList("started test", "finished test", "run finished"), delegate.events);
+    }
+
+    private static class BlockingListener extends RecordingListener {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void testStarted(Description description) throws Exception {
+            entered.countDown();
+            release.await();
+            super.testStarted(description);
+        }
+    }
+
+    /**
+     * Fires the start and the end of {@link #test} while the delegate is
+     * busy with the start, so that the end fills the buffer of capacity one.
+     */
+    private AsynchronousRunListener fillBuffer(BlockingListener delegate, BackPressure backPressure)
+            throws InterruptedException {
+        AsynchronousRunListener wrapper = new AsynchronousRunListener(delegate, 1, backPressure);
+        notifier.addListener(wrapper);
+        notifier.fireTestStarted(test);
+        delegate.entered.await();
+        notifier.fireTestFinished(test);
+        return wrapper;
+    }
+
+    private Thread fireFailureOnNewThread() throws InterruptedException {
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                notifier.fireTestFailure(new Failure(test, new Exception("broken")));
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    @Test(timeout = 10000)
+    public void blocksCallerWhileBufferIsFull() throws Exception {
+        BlockingListener delegate = new BlockingListener();
+        fillBuffer(delegate, BackPressure.BLOCK);
+
+        Thread caller = fireFailureOnNewThread();
+        while (caller.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        assertTrue(delegate.events.isEmpty());
+        delegate.release.countDown();
+        caller.join();
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(asList("started test", "finished test", "failure broken", "run finished"),
+                delegate.events);
+    }
+
+    @Test(timeout = 10000)
+    public void dropsAndCountsEventsWhileBufferIsFull() throws Exception {
+        BlockingListener delegate = new BlockingListener();
+        AsynchronousRunListener wrapper = fillBuffer(delegate, BackPressure.DROP);
+
+        notifier.fireTestFailure(new Failure(test, new Exception("broken")));
+        notifier.fireTestFinished(test);
+        assertEquals(2, wrapper.getDroppedEventCount());
+        delegate.release.countDown();
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(asList("started test", "finished test", "run finished"), delegate.events);
+        assertEquals(2, wrapper.getDroppedEventCount());
+    }
+
+    @Test(timeout = 10000)
+    public void runsDelegateInCallerWhileBufferIsFull() throws Exception {
+        BlockingListener delegate = new BlockingListener();
+        fillBuffer(delegate, BackPressure.RUN_IN_CALLER);
+
+        Thread caller = fireFailureOnNewThread();
+        // waits for the delegate to return before calling it
+        while (caller.getState() != Thread.State.BLOCKED) {
+            Thread.sleep(1);
+        }
+        delegate.release.countDown();
+        caller.join();
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(asList("started test", "finished test", "failure broken", "run finished"),
+                delegate.events);
+        assertSame(caller, delegate.threads.get(2));
+    }
+
+    @Test
+    public void failureOfDelegateIsReportedOnceByNextEvent() throws Exception {
+        final RuntimeException exception = new RuntimeException("listener failed");
+        RecordingListener failing = new RecordingListener() {
+            @Override
+            public void testStarted(Description description) throws Exception {
+                throw exception;
+            }
+        };
+        RecordingListener other = new RecordingListener() {
+            @Override
+            public void testFailure(Failure failure) throws Exception {
+                assertSame(exception, failure.getException());
+                super.testFailure(failure);
+            }
+        };
+        AsynchronousRunListener wrapper = new AsynchronousRunListener(failing);
+        notifier.addListener(wrapper);
+        notifier.addListener(other);
+
+        notifier.fireTestStarted(test);
+        wrapper.flush();
+        notifier.fireTestFinished(test);
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(asList("started test", "finished test", "failure listener failed",
+                "run finished"), other.events);
+        assertTrue(failing.events.isEmpty());
+    }
+
+    @Test
+    public void isRemovedByEqualWrapper() {
+        RecordingListener delegate = new RecordingListener();
+        notifier.addListener(new AsynchronousRunListener(delegate));
+        notifier.removeListener(new AsynchronousRunListener(delegate));
+
+        notifier.fireTestStarted(test);
+        notifier.fireTestRunFinished(new Result());
+
+        assertTrue(delegate.events.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBuffer() {
+        new AsynchronousRunListener(new RunListener(), 0);
+    }
+}
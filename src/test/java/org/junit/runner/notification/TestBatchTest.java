@@ -0,0 +1,167 @@
+package org.junit.runner.notification;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.Runner;
+
+public class TestBatchTest {
+    private final RunNotifier notifier = new RunNotifier();
+
+    private static Description test(String name) {
+        return Description.createTestDescription(TestBatchTest.class, name);
+    }
+
+    private static TestBatch batchOfAllOutcomes() {
+        return new TestBatch()
+                .passed(test("passes"))
+                .failed(new Failure(test("fails"), new Exception("failure")))
+                .assumptionFailed(new Failure(test("assumes"), new Exception("assumption")))
+                .ignored(test("ignored"));
+    }
+
+    private static class EventListener extends RunListener {
+        final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void testStarted(Description description) {
+            events.add("started " + description.getMethodName());
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            events.add("finished " + description.getMethodName());
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            events.add("failure " + failure.getMessage());
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            events.add("assumption failure " + failure.getMessage());
+        }
+
+        @Override
+        public void testIgnored(Description description) {
+            events.add("ignored " + description.getMethodName());
+        }
+    }
+
+    @Test
+    public void listenersWithoutBatchSupportGetEventsOfEachTest() {
+        EventListener listener = new EventListener();
+        notifier.addListener(listener);
+
+        notifier.fireTestsFinished(batchOfAllOutcomes());
+
+        assertEquals(asList(
+                "started passes", "finished passes",
+                "started fails", "failure failure", "finished fails",
+                "started assumes", "assumption failure assumption", "finished assumes",
+                "ignored ignored"), listener.events);
+    }
+
+    @Test
+    public void listenersWithBatchSupportGetBatch() {
+        final List<TestBatch> batches = new ArrayList<TestBatch>();
+        notifier.addListener(new EventListener() {
+            @Override
+            public void testsFinished(TestBatch batch) {
+                batches.add(batch);
+            }
+        });
+        TestBatch batch = batchOfAllOutcomes();
+
+        notifier.fireTestsFinished(batch);
+
+        assertEquals(1, batches.size());
+        assertSame(batch, batches.get(0));
+        assertEquals(4, batch.size());
+        assertEquals(1, batch.count(TestBatch.Outcome.FAILED));
+        assertEquals(TestBatch.Outcome.ASSUMPTION_FAILED, batch.getOutcome(2));
+        assertEquals("failure", batch.getFailure(1).getMessage());
+    }
+
+    @Test
+    public void resultCountsTestsOfBatch() {
+        Result result = new JUnitCore().run(new Runner() {
+            @Override
+            public Description getDescription() {
+                return Description.createSuiteDescription("batch");
+            }
+
+            @Override
+            public void run(RunNotifier notifier) {
+                notifier.fireTestsFinished(batchOfAllOutcomes());
+            }
+        });
+
+        assertEquals(3, result.getRunCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals(1, result.getIgnoreCount());
+        assertEquals(1, result.getAssumptionFailureCount());
+        assertEquals("failure", result.getFailures().get(0).getMessage());
+    }
+
+    @Test
+    public void asynchronousListenerGetsBatch() {
+        EventListener listener = new EventListener();
+        notifier.addListener(new AsynchronousRunListener(listener));
+
+        notifier.fireTestsFinished(new TestBatch().passed(test("passes")));
+        notifier.fireTestRunFinished(new Result());
+
+        assertEquals(asList("started passes", "finished passes"), listener.events);
+    }
+
+    @Test
+    public void batchCannotBeChangedAfterItWasFired() {
+        TestBatch batch = new TestBatch().passed(test("passes"));
+        notifier.fireTestsFinished(batch);
+
+        try {
+            batch.passed(test("other"));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void batchIsReportedBeforeRunStops() {
+        EventListener listener = new EventListener();
+        notifier.addListener(listener);
+        notifier.pleaseStop();
+
+        try {
+            notifier.fireTestsFinished(new TestBatch().passed(test("passes")));
+            fail("expected StoppedByUserException");
+        } catch (StoppedByUserException expected) {
+        }
+        assertEquals(asList("started passes", "finished passes"), listener.events);
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        TestBatch batch = new TestBatch();
+        for (int i = 0; i < 100; i++) {
+            batch.passed(test("test" + i));
+        }
+        batch.failed(new Failure(test("fails"), new Exception()));
+
+        assertEquals(101, batch.size());
+        assertEquals("test99", batch.getDescription(99).getMethodName());
+        assertEquals(null, batch.getFailure(99));
+        assertEquals(TestBatch.Outcome.FAILED, batch.getOutcome(100));
+    }
+}
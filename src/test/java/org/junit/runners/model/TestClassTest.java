@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.Annotation;
@@ -51,6 +52,17 @@ public class TestClassTest {
                 Rule.class).size(), is(1));
     }
 
+    public static class SecondSubclassWithField extends SuperclassWithField {
+    }
+
+    @Test
+    public void sharesMembersOfCommonSuperclass() {
+        TestClass first = new TestClass(SuperclassWithField.class);
+        TestClass second = new TestClass(SecondSubclassWithField.class);
+        assertSame(first.getAnnotatedFields(Rule.class).get(0),
+                second.getAnnotatedFields(Rule.class).get(0));
+    }
+
     public static class OuterClass {
         public class NonStaticInnerClass {
         }
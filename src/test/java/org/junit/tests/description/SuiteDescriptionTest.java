@@ -2,6 +2,16 @@ package org.junit.tests.description;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 import org.junit.runner.Description;
@@ -29,6 +39,97 @@ public class SuiteDescriptionTest {
         assertFalse(childless.hashCode() == namedB.hashCode());
     }
 
+    @Test
+    public void testCountIsUpdatedWhenGrandchildIsAdded() {
+        Description root = Description.createSuiteDescription("root");
+        Description suite = Description.createSuiteDescription("suite");
+        root.addChild(suite);
+        suite.addChild(Description.createTestDescription(getClass(), "first"));
+        assertEquals(1, root.testCount());
+
+        suite.addChild(Description.createTestDescription(getClass(), "second"));
+        assertEquals(2, root.testCount());
+    }
+
+    @Test
+    public void testCountIsUpdatedWhenCountedLeafGetsChildren() {
+        Description root = Description.createSuiteDescription("root");
+        Description leaf = Description.createSuiteDescription("leaf");
+        root.addChild(leaf);
+        assertEquals(1, root.testCount());
+
+        leaf.addChild(Description.createTestDescription(getClass(), "first"));
+        leaf.addChild(Description.createTestDescription(getClass(), "second"));
+        assertEquals(2, root.testCount());
+    }
+
+    @Test
+    public void childrenViewDoesNotSeeLaterChildren() {
+        List<Description> children = twoKids.getChildrenView();
+        twoKids.addChild(Description.createTestDescription(getClass(), "third"));
+
+        assertEquals(Arrays.asList(
+                Description.createTestDescription(getClass(), "foo"),
+                Description.createTestDescription(getClass(), "bar")), children);
+        assertEquals(3, twoKids.getChildrenView().size());
+        assertEquals(twoKids.getChildrenView(), twoKids.getChildren());
+    }
+
+    @Test
+    public void childrenViewIsUnmodifiable() {
+        try {
+            twoKids.getChildrenView().clear();
+            fail("expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void findsDescendantsEqualToGivenDescription() {
+        Description root = Description.createSuiteDescription("root");
+        root.addChild(twoKids);
+        Description bar = twoKids.getChildrenView().get(1);
+
+        assertSame(bar, root.findDescendant(Description.createTestDescription(getClass(), "bar")));
+        assertSame(root, root.findDescendant(Description.createSuiteDescription("root")));
+        assertNull(root.findDescendant(Description.createTestDescription(getClass(), "baz")));
+
+        Description baz = Description.createTestDescription(getClass(), "baz");
+        twoKids.addChild(baz);
+        assertSame(baz, root.findDescendant(Description.createTestDescription(getClass(), "baz")));
+    }
+
+    @Test
+    public void serializedDescriptionKeepsChildren() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(twoKids);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Description copy = (Description) in.readObject();
+
+        assertEquals(twoKids, copy);
+        assertEquals("a", copy.getDisplayName());
+        assertEquals(twoKids.getChildren(), copy.getChildren());
+        assertEquals(2, copy.testCount());
+        assertEquals("bar", copy.getChildrenView().get(1).getMethodName());
+    }
+
+    @Test
+    public void serializedDescriptionCanGetMoreChildren() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(twoKids);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Description copy = (Description) in.readObject();
+        assertEquals(2, copy.testCount());
+
+        copy.addChild(Description.createTestDescription(getClass(), "baz"));
+        assertEquals(3, copy.testCount());
+        assertEquals(3, copy.getChildrenView().size());
+    }
+
     private Description descriptionWithTwoKids(String first, String second) {
         Description twoKids = Description.createSuiteDescription("a");
         twoKids.addChild(Description.createTestDescription(getClass(), first));
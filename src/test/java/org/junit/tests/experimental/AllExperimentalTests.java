@@ -1,6 +1,9 @@
 package org.junit.tests.experimental;
 
+import org.junit.experimental.affected.AllAffectedTests;
 import org.junit.experimental.categories.AllCategoriesTests;
+import org.junit.experimental.reporting.AllReportingTests;
+import org.junit.experimental.sharding.AllShardingTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -12,10 +15,13 @@ import org.junit.tests.experimental.theories.extendingwithstubs.StubbedTheoriesT
 
 @RunWith(Suite.class)
 @SuiteClasses({
+        AllAffectedTests.class,
         AllCategoriesTests.class,
         AllMaxTests.class,
         AllParallelTests.class,
+        AllReportingTests.class,
         AllResultsTests.class,
+        AllShardingTests.class,
         AllTheoriesTests.class,
         AssumptionTest.class,
         MatcherTest.class,
@@ -1,5 +1,7 @@
 package org.junit.tests.experimental.max;
 
+import org.junit.experimental.max.FailFastOrderingTest;
+import org.junit.experimental.max.HistoryStoreTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -7,6 +9,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         DescriptionTest.class,
+        FailFastOrderingTest.class,
+        HistoryStoreTest.class,
         JUnit38SortingTest.class,
         MaxStarterTest.class
 })
@@ -4,18 +4,25 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
 import org.junit.experimental.max.MaxCore;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.experimental.max.TestStatistics;
 import org.junit.internal.runners.JUnit38ClassRunner;
 import org.junit.runner.Computer;
 import org.junit.runner.Description;
@@ -156,6 +163,36 @@ public class MaxStarterTest {
                 "slow"), thing);
     }
 
+    @Test
+    public void longestFirstComparatorPrefersSlowTests() {
+        MaxHistory history = MaxHistory.forFolder(fMaxFile);
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        core.run(TwoUnEqualTests.class);
+        Description slow = Description.createTestDescription(TwoUnEqualTests.class, "slow");
+        Description fast = Description.createTestDescription(TwoUnEqualTests.class, "fast");
+        List<Description> tests = new ArrayList<Description>();
+        tests.add(fast);
+        tests.add(slow);
+        Collections.sort(tests, history.longestFirstComparator());
+        assertEquals(slow, tests.get(0));
+    }
+
+    @Test
+    public void longestFirstComparatorSumsDurationsOfSuites() {
+        MaxHistory history = MaxHistory.forFolder(fMaxFile);
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        core.run(TwoUnEqualTests.class, TwoTests.class);
+        Description slowSuite = Request.aClass(TwoUnEqualTests.class).getRunner().getDescription();
+        Description fastSuite = Request.aClass(TwoTests.class).getRunner().getDescription();
+        List<Description> suites = new ArrayList<Description>();
+        suites.add(fastSuite);
+        suites.add(slowSuite);
+        Collections.sort(suites, history.longestFirstComparator());
+        assertEquals(slowSuite, suites.get(0));
+    }
+
     @Test
     public void listenersAreCalledCorrectlyInTheFaceOfFailures()
             throws Exception {
@@ -289,4 +326,48 @@ public class MaxStarterTest {
         assertThat(failure.toString(), containsString("testNothing"));
         assertThat(failure.toString(), containsString("isn't public"));
     }
+
+    @Test
+    public void recordsStatisticsOfConcurrentlyRunTests() {
+        MaxHistory history = MaxHistory.forFolder(fMaxFile);
+        JUnitCore core = new JUnitCore();
+        core.addListener(history.listener());
+        core.run(ParallelComputer.methods(), TwoUnEqualTests.class);
+        core.run(ParallelComputer.methods(), TwoUnEqualTests.class);
+
+        TestStatistics statistics = MaxHistory.forFolder(fMaxFile).getStatistics(
+                Description.createTestDescription(TwoUnEqualTests.class, "slow"));
+        assertEquals(2, statistics.getExecutionCount());
+        assertEquals(2, statistics.getFailureCount());
+        assertTrue(statistics.getMeanDuration() >= 100000000L);
+    }
+
+    @Test
+    public void readsHistoryOfEarlierVersions() throws Exception {
+        fMax.run(TwoUnEqualTests.class);
+        MaxHistory history = MaxHistory.forFolder(fMaxFile);
+        ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(fMaxFile));
+        out.writeObject(history);
+        out.close();
+
+        MaxHistory read = MaxHistory.forFolder(fMaxFile);
+
+        Description slow = Description.createTestDescription(TwoUnEqualTests.class, "slow");
+        assertEquals(history.getTestDuration(slow), read.getTestDuration(slow));
+        assertEquals(history.getStatistics(slow).getLastFailureTimestamp(),
+                read.getStatistics(slow).getLastFailureTimestamp());
+    }
+
+    @Test
+    public void keepsUnreadableHistoryFile() throws Exception {
+        FileOutputStream out = new FileOutputStream(fMaxFile);
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+
+        MaxHistory history = MaxHistory.forFolder(fMaxFile);
+
+        assertTrue(fMaxFile.exists());
+        assertNull(history.getStatistics(
+                Description.createTestDescription(TwoUnEqualTests.class, "slow")));
+    }
 }
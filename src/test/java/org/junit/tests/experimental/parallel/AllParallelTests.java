@@ -6,8 +6,11 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+        ForkedComputerTest.class,
         ParallelClassTest.class,
-        ParallelMethodTest.class
+        ParallelMethodTest.class,
+        ParallelismTest.class,
+        ResourceLockTest.class
 })
 public class AllParallelTests {
 }
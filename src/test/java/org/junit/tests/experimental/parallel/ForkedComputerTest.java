@@ -0,0 +1,191 @@
+package org.junit.tests.experimental.parallel;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.experimental.ForkedComputer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runners.MethodSorters;
+
+public class ForkedComputerTest {
+    private static final String MARKER = "ForkedComputerTest.marker";
+
+    public static class NotInParentJvm {
+        @Test
+        public void markerIsNotSet() {
+            assertNull(System.getProperty(MARKER));
+        }
+
+        @Test
+        public void fails() {
+            assertTrue(false);
+        }
+    }
+
+    public static class Crashes {
+        @Test
+        public void halt() {
+            Runtime.getRuntime().halt(3);
+        }
+    }
+
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class CrashesInSecondTest {
+        @Test
+        public void a() {
+        }
+
+        @Test
+        public void b() {
+            Runtime.getRuntime().halt(3);
+        }
+
+        @Test
+        public void c() {
+        }
+
+        @Test
+        public void d() {
+            fail("d");
+        }
+    }
+
+    public static class CrashesBeforeTests {
+        @BeforeClass
+        public static void halt() {
+            Runtime.getRuntime().halt(4);
+        }
+
+        @Test
+        public void a() {
+        }
+
+        @Test
+        public void b() {
+        }
+    }
+
+    @Before
+    public void setMarker() {
+        System.setProperty(MARKER, "parent");
+    }
+
+    @After
+    public void clearMarker() {
+        System.clearProperty(MARKER);
+    }
+
+    @Test(timeout = 60000)
+    public void runsTestsInOtherJvms() {
+        Result result = JUnitCore.runClasses(new ForkedComputer(2), NotInParentJvm.class);
+
+        assertEquals(2, result.getRunCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals("fails", result.getFailures().get(0).getDescription().getMethodName());
+    }
+
+    @Test(timeout = 60000)
+    public void reportsCrashAsFailureOfRunningTest() {
+        final List<Description> finished = Collections.synchronizedList(new ArrayList<Description>());
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testFinished(Description description) {
+                finished.add(description);
+            }
+        });
+
+        Result result = core.run(new ForkedComputer(1), Crashes.class, NotInParentJvm.class);
+
+        assertEquals(3, result.getRunCount());
+        assertEquals(2, result.getFailureCount());
+        Failure crash = null;
+        for (Failure each : result.getFailures()) {
+            if (each.getDescription().getMethodName().equals("halt")) {
+                crash = each;
+            }
+        }
+        assertThat(crash.getMessage(), containsString("exit code 3"));
+        assertTrue(finished.contains(Description.createTestDescription(Crashes.class, "halt")));
+    }
+
+    @Test(timeout = 60000)
+    public void runsRemainingTestsOfCrashedClassInNewWorker() {
+        Result result = JUnitCore.runClasses(new ForkedComputer(1), CrashesInSecondTest.class);
+
+        assertEquals(4, result.getRunCount());
+        assertEquals(2, result.getFailureCount());
+        assertEquals("b", result.getFailures().get(0).getDescription().getMethodName());
+        assertThat(result.getFailures().get(0).getMessage(), containsString("exit code 3"));
+        assertEquals("d", result.getFailures().get(1).getDescription().getMethodName());
+    }
+
+    @Test(timeout = 60000)
+    public void reportsEachTestOfClassWhenWorkerCrashesBeforeTests() {
+        Result result = JUnitCore.runClasses(new ForkedComputer(1), CrashesBeforeTests.class);
+
+        assertEquals(2, result.getRunCount());
+        assertEquals(2, result.getFailureCount());
+        for (Failure each : result.getFailures()) {
+            assertThat(each.getMessage(), containsString("exit code 4"));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void runsOnlyFilteredTests() {
+        Request request = Request.classes(new ForkedComputer(1), NotInParentJvm.class)
+                .filterWith(Description.createTestDescription(NotInParentJvm.class, "markerIsNotSet"));
+
+        Result result = new JUnitCore().run(request);
+
+        assertEquals(1, result.getRunCount());
+        assertTrue(result.wasSuccessful());
+    }
+
+    @Test(timeout = 60000)
+    public void runsSortedTestsInSortedOrder() {
+        final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testStarted(Description description) {
+                started.add(description.getMethodName());
+            }
+        });
+
+        for (final boolean reverse : new boolean[] {false, true}) {
+            started.clear();
+            core.run(Request.classes(new ForkedComputer(1), NotInParentJvm.class)
+                    .sortWith(new Comparator<Description>() {
+                        public int compare(Description o1, Description o2) {
+                            int result = String.valueOf(o1.getMethodName())
+                                    .compareTo(String.valueOf(o2.getMethodName()));
+                            return reverse ? -result : result;
+                        }
+                    }));
+
+            assertEquals(reverse ? asList("markerIsNotSet", "fails") : asList("fails", "markerIsNotSet"),
+                    started);
+        }
+    }
+}
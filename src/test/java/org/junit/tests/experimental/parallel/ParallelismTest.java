@@ -0,0 +1,167 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+import org.junit.runners.model.RunnerBuilder;
+
+public class ParallelismTest {
+    private static final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+    private static final AtomicInteger running = new AtomicInteger();
+    private static final AtomicInteger maxRunning = new AtomicInteger();
+
+    public static class Example1 {
+        @Test
+        public void one() throws InterruptedException {
+            record();
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            record();
+        }
+
+        @Test
+        public void three() throws InterruptedException {
+            record();
+        }
+    }
+
+    public static class Example2 extends Example1 {
+    }
+
+    public static class Example3 extends Example1 {
+    }
+
+    public static class Example4 extends Example1 {
+    }
+
+    private static void record() throws InterruptedException {
+        int now = running.incrementAndGet();
+        int max;
+        while (now > (max = maxRunning.get()) && !maxRunning.compareAndSet(max, now)) {
+        }
+        threads.add(Thread.currentThread());
+        Thread.sleep(10);
+        running.decrementAndGet();
+    }
+
+    @Before
+    public void init() {
+        threads.clear();
+        running.set(0);
+        maxRunning.set(0);
+    }
+
+    @Test(timeout = 15000)
+    public void nestedParallelismDoesNotDeadlockWithSingleWorker() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 1),
+                Example1.class, Example2.class, Example3.class, Example4.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(12, result.getRunCount());
+    }
+
+    @Test(timeout = 15000)
+    public void runsEveryTestWhenDispatchingLongestFirst() throws Exception {
+        File historyFile = File.createTempFile("history", ".ser");
+        historyFile.delete();
+        try {
+            MaxHistory history = MaxHistory.forFolder(historyFile);
+            JUnitCore core = new JUnitCore();
+            core.addListener(history.listener());
+            core.run(Example1.class, Example2.class);
+
+            Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 2, history),
+                    Example1.class, Example2.class, Example3.class, Example4.class);
+            assertTrue(result.wasSuccessful());
+            assertEquals(12, result.getRunCount());
+        } finally {
+            historyFile.delete();
+        }
+    }
+
+    @Test(timeout = 15000)
+    public void usesNoMoreWorkersThanParallelism() {
+        Thread caller = Thread.currentThread();
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 2),
+                Example1.class, Example2.class, Example3.class, Example4.class);
+        assertTrue(result.wasSuccessful());
+        threads.remove(caller);
+        assertThat(threads.size(), is(lessThanOrEqualTo(2)));
+        // the calling thread helps while it waits for its children
+        assertThat(maxRunning.get(), is(lessThanOrEqualTo(3)));
+    }
+
+    @Test(timeout = 15000)
+    public void runsEveryTestOnVirtualThreads() {
+        Result result = JUnitCore.runClasses(ParallelComputer.virtualThreads(true, true, 100),
+                Example1.class, Example2.class, Example3.class, Example4.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(12, result.getRunCount());
+    }
+
+    @Test
+    public void buildsRunnersInParallelInTheOrderOfTheClasses() {
+        Class<?>[] classes = {Example4.class, Example1.class, Example3.class, Example2.class};
+        Request request = Request.classes(new ParallelComputer(true, false), classes);
+
+        List<Description> children = request.getRunner().getDescription().getChildren();
+
+        assertEquals(classes.length, children.size());
+        for (int i = 0; i < classes.length; i++) {
+            assertEquals(classes[i], children.get(i).getTestClass());
+        }
+    }
+
+    @RunWith(Suite.class)
+    @SuiteClasses({Hercules.class})
+    public static class Hydra {
+    }
+
+    @RunWith(Suite.class)
+    @SuiteClasses({Hydra.class, Hydra.class})
+    public static class Hercules {
+    }
+
+    @Test
+    public void doesNotChangeTheBuilderOfTheCaller() throws Throwable {
+        RunnerBuilder builder = new AllDefaultPossibilitiesBuilder();
+
+        new ParallelComputer(true, false).getSuite(builder, new Class<?>[] {Example1.class, Example2.class});
+
+        assertFalse(builder.isBuildingRunnersInParallel());
+    }
+
+    @Test(timeout = 15000)
+    public void detectsSuiteCyclesWhenBuildingRunnersInParallel() {
+        RunnerBuilder builder = new AllDefaultPossibilitiesBuilder();
+        builder.setBuildingRunnersInParallel(true);
+
+        Result result = new JUnitCore().run(builder.safeRunnerForClass(Hydra.class));
+
+        assertEquals(2, result.getFailureCount());
+    }
+}
@@ -0,0 +1,139 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.NotThreadSafe;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.ResourceLock;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class ResourceLockTest {
+    private static final long TIMEOUT = 15;
+    private static final AtomicInteger running = new AtomicInteger();
+    private static final AtomicInteger maxRunning = new AtomicInteger();
+    private static volatile CountDownLatch fSynchronizer;
+
+    private static void useResource() throws InterruptedException {
+        int now = running.incrementAndGet();
+        int max;
+        while (now > (max = maxRunning.get()) && !maxRunning.compareAndSet(max, now)) {
+        }
+        Thread.sleep(20);
+        running.decrementAndGet();
+    }
+
+    @ResourceLock("db")
+    public static class Writer1 {
+        @Test
+        public void one() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            useResource();
+        }
+    }
+
+    @ResourceLock("db")
+    public static class Writer2 extends Writer1 {
+    }
+
+    @ResourceLock(value = "db", mode = ResourceLock.Mode.READ)
+    public static class Reader1 {
+        @Test
+        public void read() throws InterruptedException {
+            fSynchronizer.countDown();
+            assertTrue(fSynchronizer.await(TIMEOUT, TimeUnit.SECONDS));
+        }
+    }
+
+    @ResourceLock(value = "db", mode = ResourceLock.Mode.READ)
+    public static class Reader2 extends Reader1 {
+    }
+
+    public static class MethodLocks {
+        @Test
+        @ResourceLock("file")
+        public void one() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        @ResourceLock("file")
+        public void two() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        @ResourceLock("file")
+        public void three() throws InterruptedException {
+            useResource();
+        }
+    }
+
+    @NotThreadSafe
+    public static class Serial {
+        @Test
+        public void one() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        public void two() throws InterruptedException {
+            useResource();
+        }
+
+        @Test
+        public void three() throws InterruptedException {
+            useResource();
+        }
+    }
+
+    @Before
+    public void init() {
+        running.set(0);
+        maxRunning.set(0);
+        fSynchronizer = new CountDownLatch(2);
+    }
+
+    @Test(timeout = 15000)
+    public void writersRunOneAtATime() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, true, 4),
+                Writer1.class, Writer2.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(4, result.getRunCount());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test(timeout = 30000)
+    public void readersRunInParallel() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(true, false, 4),
+                Reader1.class, Reader2.class);
+        assertTrue(result.wasSuccessful());
+    }
+
+    @Test(timeout = 15000)
+    public void methodsSharingAResourceRunOneAtATime() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(false, true, 4),
+                MethodLocks.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test(timeout = 15000)
+    public void testsOfNotThreadSafeClassRunOneAtATime() {
+        Result result = JUnitCore.runClasses(new ParallelComputer(false, true, 4),
+                Serial.class);
+        assertTrue(result.wasSuccessful());
+        assertEquals(1, maxRunning.get());
+    }
+}
@@ -5,6 +5,9 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
 import java.util.List;
 
 import org.hamcrest.Matcher;
@@ -26,6 +29,9 @@ import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.ParentRunner;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerScheduler;
+import org.junit.runners.model.TestClass;
+import org.junit.validator.AnnotationValidator;
+import org.junit.validator.ValidateWith;
 import org.junit.rules.RuleMemberValidatorTest.TestWithNonStaticClassRule;
 import org.junit.rules.RuleMemberValidatorTest.TestWithProtectedClassRule;
 
@@ -148,6 +154,55 @@ public class ParentRunnerTest {
                 "The class org.junit.tests.running.classes.ParentRunnerTest$NonPublicTestClass is not public.");
     }
 
+    public static class CountingValidator extends AnnotationValidator {
+        static int validations = 0;
+
+        @Override
+        public List<Exception> validateAnnotatedClass(TestClass testClass) {
+            validations++;
+            return Collections.emptyList();
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ValidateWith(CountingValidator.class)
+    public @interface Counted {
+    }
+
+    @Counted
+    public static class CountedTest {
+        @Test
+        public void test() {}
+    }
+
+    @Test
+    public void validatesTestClassOncePerRunnerClass() throws InitializationError {
+        CountingValidator.validations = 0;
+        new BlockJUnit4ClassRunner(CountedTest.class);
+        new BlockJUnit4ClassRunner(CountedTest.class);
+        assertEquals(1, CountingValidator.validations);
+    }
+
+    public static class CustomRunner extends BlockJUnit4ClassRunner {
+        public CustomRunner(Class<?> testClass) throws InitializationError {
+            super(testClass);
+        }
+    }
+
+    @Test
+    public void validatesTestClassOfCustomRunnerEveryTime() throws InitializationError {
+        CountingValidator.validations = 0;
+        new CustomRunner(CountedTest.class);
+        new CustomRunner(CountedTest.class);
+        assertEquals(2, CountingValidator.validations);
+    }
+
+    @Test
+    public void validatesInvalidTestClassEveryTime() {
+        assertClassHasFailureMessage(NonPublicTestClass.class, "is not public");
+        assertClassHasFailureMessage(NonPublicTestClass.class, "is not public");
+    }
+
     private void assertClassHasFailureMessage(Class<?> klass, String message) {
         JUnitCore junitCore = new JUnitCore();
         Request request = Request.aClass(klass);
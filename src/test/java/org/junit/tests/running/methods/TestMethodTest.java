@@ -13,11 +13,16 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
 import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
 import org.junit.runner.Result;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
 
 public class TestMethodTest {
 
@@ -252,4 +257,60 @@ public class TestMethodTest {
         assertEquals(0, result.getFailureCount());
         assertEquals(1, result.getIgnoreCount());
     }
+
+    public static class EachTestRunsInOrder {
+        static final StringBuilder log = new StringBuilder();
+
+        @Rule(order = 1)
+        public final TestRule outer = new LoggingRule("outer");
+
+        @Rule(order = 2)
+        public final TestRule inner = new LoggingRule("inner");
+
+        @Before
+        public void before() {
+            log.append("before ");
+        }
+
+        @After
+        public void after() {
+            log.append("after ");
+        }
+
+        @Test(expected = IllegalStateException.class)
+        public void expectsException() {
+            log.append("test ");
+            throw new IllegalStateException();
+        }
+    }
+
+    private static class LoggingRule implements TestRule {
+        private final String name;
+
+        LoggingRule(String name) {
+            this.name = name;
+        }
+
+        public Statement apply(final Statement base, Description description) {
+            return new Statement() {
+                @Override
+                public void evaluate() throws Throwable {
+                    EachTestRunsInOrder.log.append(name).append(' ');
+                    base.evaluate();
+                }
+            };
+        }
+    }
+
+    @Test
+    public void runnerBuildsSameStatementsEachTimeItRuns() throws Exception {
+        BlockJUnit4ClassRunner runner = new BlockJUnit4ClassRunner(EachTestRunsInOrder.class);
+        EachTestRunsInOrder.log.setLength(0);
+        for (int i = 0; i < 3; i++) {
+            Result result = new JUnitCore().run(Request.runner(runner));
+            assertEquals(0, result.getFailureCount());
+        }
+        String once = "outer inner before test after ";
+        assertEquals(once + once + once, EachTestRunsInOrder.log.toString());
+    }
 }
@@ -237,6 +237,46 @@ public class TimeoutTest {
         assertThat(exception[1].getMessage(), containsString("Appears to be stuck in thread timeout-thr2"));
     }
 
+    public static class StuckThreadOnPooledThreadTest {
+        static volatile boolean stop;
+
+        @Rule
+        public TestRule globalTimeout = Timeout.builder()
+            .withTimeout(100, TimeUnit.MILLISECONDS)
+            .withLookingForStuckThread(true)
+            .withPooledThreads(true)
+            .build();
+
+        @After
+        public void stopStuckThread() {
+            stop = true;
+        }
+
+        @Test
+        public void failure() throws Exception {
+            stop = false;
+            Thread stuck = new Thread(new Runnable() {
+                public void run() {
+                    while (!stop) {
+                    }
+                }
+            }, "timeout-pooled");
+            stuck.start();
+            stuck.join();
+        }
+    }
+
+    @Test
+    public void timeoutFailureOnPooledThreadReportsStuckThread() throws Exception {
+        Result result = JUnitCore.runClasses(StuckThreadOnPooledThreadTest.class);
+        assertEquals(1, result.getRunCount());
+        assertEquals(2, result.getFailureCount());
+        assertThat(result.getFailures().get(0).getMessage(),
+                containsString("test timed out after 100 milliseconds"));
+        assertThat(result.getFailures().get(1).getMessage(),
+                containsString("Appears to be stuck in thread timeout-pooled"));
+    }
+
     @Test
     public void timeoutFailureMultithreadedStuckInMain() throws Exception {
         JUnitCore core = new JUnitCore();
@@ -8,7 +8,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
         AnnotationsValidatorTest.class,
         AnnotationValidatorFactoryTest.class,
-        PublicClassValidatorTest.class
+        PublicClassValidatorTest.class,
+        ValidationCacheTest.class
 })
 public class AllValidatorTests {
 }
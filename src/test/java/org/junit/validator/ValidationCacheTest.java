@@ -0,0 +1,93 @@
+package org.junit.validator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runners.JUnit4;
+
+public class ValidationCacheTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = new File(folder.getRoot(), "validation");
+    }
+
+    public static class ValidTest {
+        @Test
+        public void test() {
+        }
+    }
+
+    public static class InvalidTest {
+        @Test
+        public int notVoid() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void recordsValidatedTestClasses() throws IOException {
+        ValidationCache cache = ValidationCache.forFile(file);
+        new JUnitCore().run(cache.apply(Request.aClass(ValidTest.class)));
+
+        assertTrue(ValidationCache.forFile(file).isTrusted(JUnit4.class, ValidTest.class));
+    }
+
+    @Test
+    public void doesNotRecordInvalidTestClasses() throws IOException {
+        ValidationCache cache = ValidationCache.forFile(file);
+        Result result = new JUnitCore().run(cache.apply(Request.aClass(InvalidTest.class)));
+
+        assertEquals(1, result.getFailureCount());
+        assertFalse(ValidationCache.forFile(file).isTrusted(JUnit4.class, InvalidTest.class));
+    }
+
+    @Test
+    public void skipsValidationOfTrustedTestClasses() throws IOException {
+        String fingerprint = ValidationCache.forFile(file).fingerprint(JUnit4.class, InvalidTest.class);
+        write(JUnit4.class.getName() + " " + InvalidTest.class.getName() + " " + fingerprint);
+
+        ValidationCache cache = ValidationCache.forFile(file);
+        Result result = new JUnitCore().run(cache.apply(Request.aClass(InvalidTest.class)));
+
+        assertEquals(1, result.getRunCount());
+        assertEquals(0, result.getFailureCount());
+    }
+
+    @Test
+    public void validatesTestClassesWithChangedFingerprint() throws IOException {
+        write(JUnit4.class.getName() + " " + InvalidTest.class.getName() + " 0123456789");
+
+        ValidationCache cache = ValidationCache.forFile(file);
+        Result result = new JUnitCore().run(cache.apply(Request.aClass(InvalidTest.class)));
+
+        assertEquals(1, result.getFailureCount());
+    }
+
+    private void write(String line) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(line + "\n");
+        } finally {
+            writer.close();
+        }
+    }
+}